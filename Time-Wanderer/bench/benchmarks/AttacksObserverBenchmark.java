@@ -0,0 +1,106 @@
+package benchmarks;
+
+import animations.AnimationLibrary;
+import entities.GameCharacter;
+import entities.Player;
+import items.Projectile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import levels.Room;
+import misc.AttacksObserver;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.geom.Vector2f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of {@link AttacksObserver#update()} with a number of projectiles flying
+ * over a room with a number of characters.
+ * The projectiles are spread on random positions, so some of them hit a
+ * character and are removed. To measure each call with all the projectiles,
+ * every invocation updates a batch of {@link #BATCH} observers (sharing the
+ * room and the projectiles), and all the projectiles are added again to each
+ * one before the next invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AttacksObserverBenchmark {
+
+    /** Number of observers updated on each invocation */
+    private static final int BATCH = 128;
+
+    @Param({"1", "16", "64"})
+    private int projectileCount;
+
+    @Param({"1", "16", "64"})
+    private int characterCount;
+
+    private final AttacksObserver[] observers = new AttacksObserver[BATCH];
+    private final List<Projectile> projectiles = new ArrayList<>();
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    @Setup(Level.Trial)
+    public void createObserver () throws SlickException {
+
+        Random random = new Random(42);
+        Room room = BenchmarkSupport.newRoom("1111-1", "castle");
+        Player player = BenchmarkSupport.addPlayer(room);
+
+        BenchmarkSupport.addEnemies(room, characterCount, random);
+
+        for (int i = 0; i < BATCH; i++) {
+
+            observers[i] = new AttacksObserver(room);
+            observers[i].setPlayer(player);
+
+            for (GameCharacter c : room.getCharacters()) {
+                if (c != player) {
+                    observers[i].addObserved(c);
+                }
+            }
+        }
+
+        /* The projectiles start on the center of the player */
+        for (int i = 0; i < projectileCount; i++) {
+
+            player.setX(random.nextInt((int) room.getMapWidth()));
+            player.setY(random.nextInt((int) room.getMapHeight()));
+
+            projectiles.add(new Projectile(player, 32, 9, new Vector2f(1, 0),
+                    1, AnimationLibrary.getImage("resources/items/Arrow.png")));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void addProjectiles () {
+
+        for (AttacksObserver observer : observers) {
+            for (Projectile p : projectiles) {
+                observer.addProjectile(p);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void update () {
+
+        for (AttacksObserver observer : observers) {
+            observer.update();
+        }
+    }
+}
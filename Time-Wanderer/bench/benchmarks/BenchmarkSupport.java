@@ -0,0 +1,157 @@
+package benchmarks;
+
+import creators.EnemyCreator;
+import entities.GameCharacter;
+import entities.Player;
+import java.util.Random;
+import levels.Room;
+import main.HeadlessSimulation;
+import main.MainClass;
+
+/**
+ * Common set up of the benchmarks: every benchmark runs on headless mode (see
+ * {@link HeadlessSimulation}), so they don't need a display nor sound, and
+ * they only measure the simulation.
+ */
+final class BenchmarkSupport {
+
+    /** Length of a tick of the game, in milliseconds */
+    static final int DELTA = HeadlessSimulation.TICK_LENGTH;
+
+    private static boolean initialized = false;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    private BenchmarkSupport () {
+    }
+
+    /**
+     * Enables the headless mode, if it wasn't already enabled.
+     */
+    static synchronized void init () {
+
+        if (!initialized) {
+            HeadlessSimulation.enable();
+            initialized = true;
+        }
+    }
+
+    /**
+     * Creates and loads an empty room (without enemies nor chests).
+     *
+     * @param roomName
+     *              Name of the .tmx file of the room.
+     * @param tileset
+     *              Tileset of the room.
+     *
+     * @return
+     *              A new room, ready to be simulated.
+     */
+    static Room newRoom (String roomName, String tileset) {
+
+        init();
+
+        Room room = new Room("none", roomName, tileset,
+                             true, true, true, true);
+        room.materialize();
+
+        return room;
+    }
+
+    /**
+     * Creates a player on the spawn point of the room, and makes it the
+     * current player of the game.
+     *
+     * @param room
+     *              Room where the player will be.
+     *
+     * @return
+     *              The new player.
+     */
+    static Player addPlayer (Room room) {
+
+        Player player = new Player(0, 0, 32, 62, room,
+                                   Player.Timeline.PRESENT);
+
+        room.addCharacter(player);
+        room.setPlayer(player);
+        room.placePlayer(player);
+        MainClass.players = new Player[] {player, player};
+
+        return player;
+    }
+
+    /**
+     * Adds ground enemies on random positions of the room. They can't die, so
+     * the room keeps the same characters during the whole benchmark.
+     *
+     * @param room
+     *              Room where the enemies will be.
+     * @param count
+     *              Number of enemies.
+     * @param random
+     *              Source of the positions.
+     */
+    static void addEnemies (Room room, int count, Random random) {
+
+        for (int i = 0; i < count; i++) {
+
+            GameCharacter enemy = EnemyCreator.newGroundEnemy(
+                            random.nextInt((int) room.getMapWidth() - 32),
+                            random.nextInt((int) room.getMapHeight() - 64));
+
+            enemy.getStats().setMaxLifePoints(Integer.MAX_VALUE / 2);
+            enemy.getStats().setLifePoints(Integer.MAX_VALUE / 2);
+            room.addCharacter(enemy);
+        }
+    }
+
+    /**
+     * Stores the position and speed of every character of the room.
+     *
+     * @param room
+     *              Room whose characters will be stored.
+     *
+     * @return
+     *              The state of the characters, in the order of the room.
+     */
+    static float[] saveCharacters (Room room) {
+
+        float[] state = new float[room.getCharacters().size() * 4];
+        int i = 0;
+
+        for (GameCharacter c : room.getCharacters()) {
+
+            state[i++] = c.getX();
+            state[i++] = c.getY();
+            state[i++] = c.getXVelocity();
+            state[i++] = c.getYVelocity();
+        }
+        return state;
+    }
+
+    /**
+     * Puts the characters of the room back to a state stored with
+     * {@link #saveCharacters(Room)}.
+     *
+     * @param room
+     *              Room whose characters will be restored.
+     * @param state
+     *              Stored state of the characters.
+     */
+    static void restoreCharacters (Room room, float[] state) {
+
+        int i = 0;
+
+        for (GameCharacter c : room.getCharacters()) {
+
+            c.setX(state[i++]);
+            c.setY(state[i++]);
+            c.setXVelocity(state[i++]);
+            c.setYVelocity(state[i++]);
+            c.updateBoundingShape();
+        }
+    }
+}
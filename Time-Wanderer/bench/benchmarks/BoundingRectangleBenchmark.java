@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import levels.tiles.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import physics.BoundingRectangle;
+
+/**
+ * Cost of {@link BoundingRectangle#getTilesOccupying(Tile[][])} with the
+ * tiles of a real room, for rectangles of the size of a projectile, a
+ * character and a boss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoundingRectangleBenchmark {
+
+    @Param({"32x9", "32x62", "64x128"})
+    private String size;
+
+    private Tile[][] tiles;
+    private BoundingRectangle rectangle;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    @Setup
+    public void createRectangle () {
+
+        String[] dimensions = size.split("x");
+
+        tiles = BenchmarkSupport.newRoom("1111-1", "castle")
+                                .getTiles().toTiles();
+        rectangle = new BoundingRectangle(301.5f, 257.5f,
+                                          Float.parseFloat(dimensions[0]),
+                                          Float.parseFloat(dimensions[1]));
+    }
+
+    @Benchmark
+    public ArrayList<Tile> getTilesOccupying () {
+
+        return rectangle.getTilesOccupying(tiles);
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import levels.MapGenerator;
+import levels.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of generating the layout of a map ({@link MapGenerator#generateMap()})
+ * and converting it into rooms ({@link MapGenerator#convertMap(String)}).
+ * The rooms aren't materialized, as on the game until they're entered.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapGeneratorBenchmark {
+
+    private MapGenerator generator;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    @Setup
+    public void createGenerator () {
+
+        BenchmarkSupport.init();
+        generator = new MapGenerator();
+    }
+
+    @Benchmark
+    public void generateMap () {
+
+        generator.generateMap();
+    }
+
+    @Benchmark
+    public void generateAndConvertMap (Blackhole blackhole) {
+
+        generator.generateMap();
+
+        Room[][] map = generator.convertMap("castle");
+
+        blackhole.consume(map);
+    }
+}
@@ -0,0 +1,95 @@
+package benchmarks;
+
+import entities.Enemy;
+import entities.GameCharacter;
+import entities.Player;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import levels.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import physics.Physics;
+
+/**
+ * Cost of a tick of the characters on a room with the player and a number of
+ * enemies: the update of the enemies (that choose where they move) and
+ * {@link Physics#handlePhysics(Room, int)}.
+ * Left alone, the characters would end up all resting on the floor, so the
+ * first {@link #STATES} ticks of the room are recorded, and each invocation
+ * puts the characters back to the next recorded state (in a loop) before
+ * simulating the tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhysicsBenchmark {
+
+    /** Number of recorded states of the characters (4 seconds of game) */
+    private static final int STATES = 240;
+
+    @Param({"1", "16", "64"})
+    private int characters;
+
+    private Physics physics;
+    private Room room;
+    private Player player;
+    private final List<Enemy> enemies = new ArrayList<>();
+    private final float[][] states = new float[STATES][];
+    private int next;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    @Setup(Level.Trial)
+    public void createRoom () {
+
+        physics = new Physics();
+        room = BenchmarkSupport.newRoom("1111-1", "castle");
+
+        player = BenchmarkSupport.addPlayer(room);
+        BenchmarkSupport.addEnemies(room, characters - 1, new Random(42));
+
+        for (GameCharacter c : room.getCharacters()) {
+            if (c instanceof Enemy) {
+                enemies.add((Enemy) c);
+            }
+        }
+
+        for (int i = 0; i < STATES; i++) {
+
+            states[i] = BenchmarkSupport.saveCharacters(room);
+            simulate();
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public void tick () {
+
+        BenchmarkSupport.restoreCharacters(room, states[next]);
+        next = (next + 1) % STATES;
+
+        simulate();
+    }
+
+    /**
+     * Updates the enemies and moves all the characters.
+     */
+    private void simulate () {
+
+        for (Enemy e : enemies) {
+            e.update(player, BenchmarkSupport.DELTA);
+        }
+        physics.handlePhysics(room, BenchmarkSupport.DELTA);
+    }
+}
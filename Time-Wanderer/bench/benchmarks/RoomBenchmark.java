@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import levels.Room;
+import levels.RoomTemplate;
+import org.newdawn.slick.SlickException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of creating a room from each .tmx file: parsing the file (the first
+ * time that a room is used) and materializing a room from the parsed template
+ * (every time that a room is entered), with its enemies and chests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoomBenchmark {
+
+    @Param({"0001-1", "0010-1", "0011-1", "0100-1", "0101-1", "0110-1",
+            "0111-1", "1000-1", "1001-1", "1010-1", "1011-1", "1100-1",
+            "1101-1", "1110-1", "1111-1", "boss", "final", "outside"})
+    private String roomName;
+
+    private String tileset;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    @Setup
+    public void chooseTileset () {
+
+        BenchmarkSupport.init();
+
+        /* The same tilesets used on the game */
+        switch (roomName) {
+            case "final":
+                tileset = "stone";
+                break;
+            case "outside":
+                tileset = "outside";
+                break;
+            default:
+                tileset = "castle";
+        }
+    }
+
+    @Benchmark
+    public RoomTemplate parseTemplate () throws SlickException {
+
+        RoomTemplate.clearCache();
+
+        return RoomTemplate.get(roomName, tileset);
+    }
+
+    @Benchmark
+    public Room materializeRoom () {
+
+        Room room = new Room("none", roomName, tileset,
+                             true, true, true, true);
+
+        if (!roomName.equals("outside") && !roomName.equals("final")) {
+            room.planObjects();
+        }
+        room.materialize();
+
+        /* Cancels the timed actions of its enemies, or they'd pile up */
+        room.discard();
+
+        return room;
+    }
+}
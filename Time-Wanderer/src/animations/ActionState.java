@@ -0,0 +1,92 @@
+package animations;
+
+/**
+ * State of a timed action (like an attack or a step of the climbing animation)
+ * that lasts a given time and then goes back to idle.
+ * It's advanced with the delta of the updates, so the transition at the end of
+ * the action (and its callback) happens on the game thread, on the same update
+ * that consumes the last milliseconds of the action.
+ */
+public class ActionState {
+
+    /**Tells if the action is being performed.*/
+    private boolean active;
+    /**Milliseconds until the action ends.*/
+    private int remaining;
+    /**Transition performed when the action ends.*/
+    private Runnable onComplete;
+
+    public ActionState() {
+        this.active = false;
+        this.remaining = 0;
+        this.onComplete = null;
+    }
+
+    /**
+     * Starts the action. If it was already being performed, it starts again,
+     * and only the new transition will be executed.
+     *
+     * @param duration Milliseconds that the action will last.
+     * @param onComplete Transition performed when the action ends (can be
+     * null).
+     */
+    public void start(int duration, Runnable onComplete) {
+        this.active = true;
+        this.remaining = duration;
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * Advances the action and, if it has ended, goes back to idle and performs
+     * the final transition.
+     *
+     * @param delta Milliseconds since the last update.
+     */
+    public void update(int delta) {
+
+        if (!active) {
+            return;
+        }
+
+        remaining -= delta;
+
+        if (remaining <= 0) {
+            Runnable transition = onComplete;
+
+            active = false;
+            onComplete = null;
+
+            if (transition != null) {
+                transition.run();
+            }
+        }
+    }
+
+    /**
+     * Goes back to idle without performing the final transition.
+     */
+    public void cancel() {
+        active = false;
+        onComplete = null;
+    }
+
+    /**Tells if the action is being performed.*/
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Calculates the time that takes to play all the frames of an animation.
+     *
+     * @param anim Animation to measure.
+     * @return Sum of the durations of every frame, in milliseconds.
+     */
+    public static int getDuration(SpriteAnimation anim) {
+        int duration = 0;
+
+        for (int frameDuration : anim.getDurations()) {
+            duration += frameDuration;
+        }
+        return duration;
+    }
+}
@@ -0,0 +1,134 @@
+package animations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.util.ResourceLoader;
+
+/**
+ * Frames of the animations of the enemies, shared by all of them (and the
+ * frames of the whole images used by the items).
+ * Every enemy used to load its sprite sheet and cut (and flip) its own copy of
+ * every frame, and there are lots of enemies on each dungeon. Now the frames
+ * of each row (to the right and to the left) are created the first time
+ * they're requested and kept here. Each enemy only creates its own
+ * SpriteAnimation objects, which keep the playback state (current frame and
+ * time) but share the frames.
+ * The frames only describe the regions of the images (see
+ * {@link SpriteFrame}): the images themselves are loaded by the renderer, so
+ * only the size of each image is read here, from the header of its file.
+ * None of the returned frames should be modified.
+ */
+public class AnimationLibrary {
+
+    /**Width and height of the images that have already been read, by path.*/
+    private static final Map<String, int[]> SIZES = new HashMap<>();
+    /**Frames that have already been cut, by sheet, row, length and side.*/
+    private static final Map<String, SpriteFrame[]> FRAMES = new HashMap<>();
+
+    private AnimationLibrary() {
+    }
+
+    /**
+     * Returns the frames of a row of a sprite sheet, creating them if it's the
+     * first time that they're requested.
+     *
+     * @param path Path of the image of the sprite sheet.
+     * @param tileWidth Width of each sprite.
+     * @param tileHeight Height of each sprite.
+     * @param row Row of the sheet where the animation is.
+     * @param count Number of frames, starting from the first column.
+     * @param left If true, the frames are flipped horizontally (to face left).
+     * @return The shared frames.
+     */
+    public static synchronized SpriteFrame[] getFrames(String path,
+            int tileWidth, int tileHeight, int row, int count, boolean left) {
+
+        String key = path + "/" + row + "/" + count + (left ? "/L" : "/R");
+        SpriteFrame[] frames = FRAMES.get(key);
+
+        if (frames == null) {
+            frames = new SpriteFrame[count];
+            for (int i = 0; i < count; i++) {
+                SpriteFrame sprite = new SpriteFrame(path, i * tileWidth,
+                        row * tileHeight, tileWidth, tileHeight);
+
+                frames[i] = left ? sprite.getFlippedCopy() : sprite;
+            }
+            FRAMES.put(key, frames);
+        }
+        return frames;
+    }
+
+    /**
+     * Returns the number of columns of a sprite sheet, reading the size of its
+     * image if it's the first time that it's requested.
+     *
+     * @param path Path of the image of the sprite sheet.
+     * @param tileWidth Width of each sprite.
+     * @param tileHeight Height of each sprite.
+     * @return Number of sprites on each row.
+     * @throws SlickException If the image couldn't be read.
+     */
+    public static synchronized int getHorizontalCount(String path,
+            int tileWidth, int tileHeight) throws SlickException {
+        return getSize(path)[0] / tileWidth;
+    }
+
+    /**
+     * Returns a frame with a whole image, reading its size if it's the first
+     * time that it's requested.
+     *
+     * @param path Path of the image.
+     * @return The frame.
+     * @throws SlickException If the image couldn't be read.
+     */
+    public static synchronized SpriteFrame getImage(String path)
+            throws SlickException {
+        int[] size = getSize(path);
+
+        return new SpriteFrame(path, 0, 0, size[0], size[1]);
+    }
+
+    /**
+     * Returns the width and height of an image, reading only the header of its
+     * file.
+     */
+    private static int[] getSize(String path) throws SlickException {
+        int[] size = SIZES.get(path);
+
+        if (size != null) {
+            return size;
+        }
+
+        try (InputStream in = ResourceLoader.getResourceAsStream(path);
+                ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+
+            if (!readers.hasNext()) {
+                throw new SlickException("Unknown image format: " + path);
+            }
+
+            ImageReader reader = readers.next();
+
+            try {
+                reader.setInput(stream);
+                size = new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException ex) {
+            throw new SlickException("Unable to read " + path, ex);
+        }
+
+        SIZES.put(path, size);
+        return size;
+    }
+}
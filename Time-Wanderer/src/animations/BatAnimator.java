@@ -1,10 +1,7 @@
 package animations;
 
 
-import org.newdawn.slick.Animation;
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.SpriteSheet;
 
 /**
  *
@@ -12,16 +9,19 @@ import org.newdawn.slick.SpriteSheet;
  */
 public class BatAnimator {
 
-    private Image spriteSheetImg;
-    private SpriteSheet spriteSheet;   
+    /**Spritesheet with the frames (shared through the AnimationLibrary).*/
+    private static final String SPRITE_SHEET = "./src/resources/character/Murcielo final.png";
+    private static final int SPRITE_SIZE = 96;
+    /**Number of columns of the spritesheet.*/
+    private int columns;
 
     private float scale;
     
     //Right
-    private Animation idle1R;
+    private SpriteAnimation idle1R;
 
     //Left
-    private Animation idle1L;
+    private SpriteAnimation idle1L;
 
     public BatAnimator(){
         try {
@@ -44,17 +44,17 @@ public class BatAnimator {
         //r1=new Rectangle(600,200,50,50);
         scale = 1.0f;
 
-        spriteSheetImg = new Image("./src/resources/character/Murcielo final.png");
-        spriteSheet = new SpriteSheet(spriteSheetImg, 96, 96);
+        columns = AnimationLibrary.getHorizontalCount(SPRITE_SHEET,
+                SPRITE_SIZE, SPRITE_SIZE);
 
         
         
         //Right
-        idle1R = new Animation();
+        idle1R = new SpriteAnimation();
         createIdle1R(idle1R);
         
         //Left
-        idle1L = new Animation();
+        idle1L = new SpriteAnimation();
         createIdle1L(idle1L);
 
     }
@@ -72,11 +72,9 @@ public class BatAnimator {
      *
      * @param anim Animation where we will store the result
      */
-    public void createIdle1R(Animation anim) {
+    public void createIdle1R(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 0).getScaledCopy(this.scale), 250);
-        }
+        addFrames(anim, 0, columns - 1, false);
     }
 
 
@@ -87,10 +85,25 @@ public class BatAnimator {
      *
      * @param anim Animation where we will store the result
      */
-    public void createIdle1L(Animation anim) {
+    public void createIdle1L(SpriteAnimation anim) {
+
+        addFrames(anim, 0, columns - 1, true);
+    }
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 0).getFlippedCopy(true, false).getScaledCopy(this.scale), 250);
+    /**
+     * Adds to the animation the first frames of a row of the spritesheet. The
+     * frames are shared with the rest of the enemies of the same kind.
+     *
+     * @param anim Animation where we will store the result
+     * @param row Row of the spritesheet
+     * @param count Number of frames
+     * @param left True to use the frames flipped to the left
+     */
+    private void addFrames(SpriteAnimation anim, int row, int count, boolean left) {
+        for (SpriteFrame frame : AnimationLibrary.getFrames(SPRITE_SHEET,
+                SPRITE_SIZE, SPRITE_SIZE, row, count, left)) {
+            anim.addFrame((this.scale == 1f) ? frame
+                    : frame.getScaledCopy(this.scale), 250);
         }
     }
 
@@ -108,7 +121,7 @@ public class BatAnimator {
      *
      * @return Animation where we will store the result
      */
-    public Animation getIdle1R() {
+    public SpriteAnimation getIdle1R() {
         return this.idle1R;
     }
 
@@ -118,7 +131,7 @@ public class BatAnimator {
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getIdle1L() {
+    public SpriteAnimation getIdle1L() {
         return this.idle1L;
     }
 
@@ -5,29 +5,29 @@
  */
 package animations;
 
-import org.newdawn.slick.Animation;
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.SpriteSheet;
 
 /**
  *
  * @author propietario
  */
 public class BossAnimator {
-    private Image spriteSheetImg;
-    private SpriteSheet spriteSheet;   
+    /**Spritesheet with the frames (shared through the AnimationLibrary).*/
+    private static final String SPRITE_SHEET = "./src/resources/character/BossSpriteSheet.png";
+    private static final int SPRITE_SIZE = 192;
+    /**Number of columns of the spritesheet.*/
+    private int columns;
 
     private float scale;
     
     //Right
-    private Animation idle1R;
-    private Animation walk1R;
-    private Animation attack1R;
+    private SpriteAnimation idle1R;
+    private SpriteAnimation walk1R;
+    private SpriteAnimation attack1R;
     //Left
-    private Animation idle1L;
-    private Animation walk1L;
-    private Animation attack1L;
+    private SpriteAnimation idle1L;
+    private SpriteAnimation walk1L;
+    private SpriteAnimation attack1L;
 
     public BossAnimator(){
         try {
@@ -50,25 +50,25 @@ public class BossAnimator {
         //r1=new Rectangle(600,200,50,50);
         scale = 1f;
 
-        spriteSheetImg = new Image("./src/resources/character/BossSpriteSheet.png");
-        spriteSheet = new SpriteSheet(spriteSheetImg, 192, 192);
+        columns = AnimationLibrary.getHorizontalCount(SPRITE_SHEET,
+                SPRITE_SIZE, SPRITE_SIZE);
 
         
         
         //Right
-        idle1R = new Animation();
+        idle1R = new SpriteAnimation();
         createIdle1R(idle1R);
-        walk1R = new Animation();
+        walk1R = new SpriteAnimation();
         createWalk1R(walk1R);
-        attack1R = new Animation();
+        attack1R = new SpriteAnimation();
         createAttack1R(attack1R);
         
         //Left
-        idle1L = new Animation();
+        idle1L = new SpriteAnimation();
         createIdle1L(idle1L);
-        walk1L = new Animation();
+        walk1L = new SpriteAnimation();
         createWalk1L(walk1L);
-        attack1L = new Animation();
+        attack1L = new SpriteAnimation();
         createAttack1L(attack1L);
 
     }
@@ -86,34 +86,28 @@ public class BossAnimator {
      *
      * @param anim Animation where we will store the result
      */
-    public void createIdle1R(Animation anim) {
+    public void createIdle1R(SpriteAnimation anim) {
         //no idle animation, so just add a frame
-        //for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(0, 0).getScaledCopy(this.scale), 250);
-        //}
-            anim.setLooping(false);
+        addFrames(anim, 0, 1, false);
+        anim.setLooping(false);
     }
     /**
      * Create animation of walk right
      *
      * @param anim Animation where we will store the result
      */
-    public void createWalk1R(Animation anim) {
+    public void createWalk1R(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-2; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 0).getScaledCopy(this.scale), 250);
-        }
+        addFrames(anim, 0, columns - 2, false);
     }
     /**
      * Create animation of attack right
      *
      * @param anim Animation where we will store the result
      */
-    public void createAttack1R(Animation anim) {
+    public void createAttack1R(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 1).getScaledCopy(this.scale), 250);
-        }
+        addFrames(anim, 1, columns - 1, false);
     }
     
 
@@ -124,33 +118,44 @@ public class BossAnimator {
      *
      * @param anim Animation where we will store the result
      */
-    public void createIdle1L(Animation anim) {
+    public void createIdle1L(SpriteAnimation anim) {
         //no idle animation, so just add a frame
-        //for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(0, 0).getFlippedCopy(true, false).getScaledCopy(this.scale), 250);
-        //}
-            anim.setLooping(false);
+        addFrames(anim, 0, 1, true);
+        anim.setLooping(false);
     }
     /**
      * Create animation of walk left
      *
      * @param anim Animation where we will store the result
      */
-    public void createWalk1L(Animation anim) {
+    public void createWalk1L(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-2; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 0).getFlippedCopy(true, false).getScaledCopy(this.scale), 250);
-        }
+        addFrames(anim, 0, columns - 2, true);
     }
     /**
      * Create animation of attack left
      *
      * @param anim Animation where we will store the result
      */
-    public void createAttack1L(Animation anim) {
+    public void createAttack1L(SpriteAnimation anim) {
+
+        addFrames(anim, 1, columns - 1, true);
+    }
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 1).getFlippedCopy(true, false).getScaledCopy(this.scale), 250);
+    /**
+     * Adds to the animation the first frames of a row of the spritesheet. The
+     * frames are shared with the rest of the enemies of the same kind.
+     *
+     * @param anim Animation where we will store the result
+     * @param row Row of the spritesheet
+     * @param count Number of frames
+     * @param left True to use the frames flipped to the left
+     */
+    private void addFrames(SpriteAnimation anim, int row, int count, boolean left) {
+        for (SpriteFrame frame : AnimationLibrary.getFrames(SPRITE_SHEET,
+                SPRITE_SIZE, SPRITE_SIZE, row, count, left)) {
+            anim.addFrame((this.scale == 1f) ? frame
+                    : frame.getScaledCopy(this.scale), 250);
         }
     }
 
@@ -168,7 +173,7 @@ public class BossAnimator {
      *
      * @return Animation where we will store the result.
      */
-    public Animation getIdle1R() {
+    public SpriteAnimation getIdle1R() {
         return this.idle1R;
     }
     /**
@@ -176,7 +181,7 @@ public class BossAnimator {
      *
      * @return Animation where we will store the result.
      */
-    public Animation getWalk1R() {
+    public SpriteAnimation getWalk1R() {
         return this.walk1R;
     }
     /**
@@ -184,7 +189,7 @@ public class BossAnimator {
      *
      * @return Animation where we will store the result.
      */
-    public Animation getAttack1R() {
+    public SpriteAnimation getAttack1R() {
         return this.attack1R;
     }
 
@@ -194,7 +199,7 @@ public class BossAnimator {
      *
      * @return anim Animation where we will store the result.
      */
-    public Animation getIdle1L() {
+    public SpriteAnimation getIdle1L() {
         return this.idle1L;
     }
     /**
@@ -202,7 +207,7 @@ public class BossAnimator {
      *
      * @return Animation where we will store the result.
      */
-    public Animation getWalk1L() {
+    public SpriteAnimation getWalk1L() {
         return this.walk1L;
     }
     /**
@@ -210,7 +215,7 @@ public class BossAnimator {
      *
      * @return Animation where we will store the result.
      */
-    public Animation getAttack1L() {
+    public SpriteAnimation getAttack1L() {
         return this.attack1L;
     }
     
@@ -1,11 +1,7 @@
 package animations;
 
 
-import static java.lang.Thread.sleep;
-import org.newdawn.slick.Animation;
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.SpriteSheet;
 
 /**
  *
@@ -14,29 +10,33 @@ import org.newdawn.slick.SpriteSheet;
 public class PlayerAnimator implements PlayerAnimatorInterface{
 
     //private Rectangle r1;
-    private Image spriteSheetImg;
-    private SpriteSheet spriteSheet;
+    /**Spritesheet with the frames.*/
+    private static final String SPRITE_SHEET = "./src/resources/character/Final Sprite.png";
+    private static final int SPRITE_SIZE = 96;
+    /**Number of columns of the spritesheet.*/
+    private int columns;
     //private Image hoja3;
     private float dimx;
     private float dimy;
 
     private float scale;
 
-    private Animation climb1;
+    private SpriteAnimation climb1;
     //Right
-    private Animation die1R; 
-    private Animation idle1R;
-    private Animation walk1R;
-    private Animation jump1R;
-    private Animation attack1R;
+    private SpriteAnimation die1R; 
+    private SpriteAnimation idle1R;
+    private SpriteAnimation walk1R;
+    private SpriteAnimation jump1R;
+    private SpriteAnimation attack1R;
     //Left
-    private Animation die1L;
-    private Animation idle1L;
-    private Animation walk1L;
-    private Animation jump1L;
-    private Animation attack1L;
+    private SpriteAnimation die1L;
+    private SpriteAnimation idle1L;
+    private SpriteAnimation walk1L;
+    private SpriteAnimation jump1L;
+    private SpriteAnimation attack1L;
 
-    private boolean isClimbingAnimationBeingAdvanced;
+    /**Step of the climbing animation that is being played.*/
+    private ActionState climbStep;
 
     public PlayerAnimator() throws SlickException {
         init();
@@ -64,35 +64,35 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
         //r1=new Rectangle(600,200,50,50);
         scale = 1.0f;
 
-        spriteSheetImg = new Image("./src/resources/character/Final Sprite.png");
-        spriteSheet = new SpriteSheet(spriteSheetImg, 96, 96);
+        columns = AnimationLibrary.getHorizontalCount(SPRITE_SHEET,
+                SPRITE_SIZE, SPRITE_SIZE);
 
-        isClimbingAnimationBeingAdvanced = false;
+        climbStep = new ActionState();
         
         //Right
-        die1R = new Animation();
+        die1R = new SpriteAnimation();
         createDie1R(die1R);
-        idle1R = new Animation();
+        idle1R = new SpriteAnimation();
         createIdle1R(idle1R);
-        jump1R = new Animation();
+        jump1R = new SpriteAnimation();
         createJump1R(jump1R);
-        walk1R = new Animation();
+        walk1R = new SpriteAnimation();
         createWalk1R(walk1R);
-        attack1R = new Animation();
+        attack1R = new SpriteAnimation();
         createAttack1R(attack1R);
         //Left
-        die1L = new Animation();
+        die1L = new SpriteAnimation();
         createDie1L(die1L);
-        idle1L = new Animation();
+        idle1L = new SpriteAnimation();
         createIdle1L(idle1L);
-        jump1L = new Animation();
+        jump1L = new SpriteAnimation();
         createJump1L(jump1L);
-        walk1L = new Animation();
+        walk1L = new SpriteAnimation();
         createWalk1L(walk1L);
-        attack1L = new Animation();
+        attack1L = new SpriteAnimation();
         createAttack1L(attack1L);
         //Climb
-        climb1 = new Animation();
+        climb1 = new SpriteAnimation();
         createClimb1(climb1);
 
     }
@@ -110,10 +110,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createDie1R(Animation anim) {
+    public void createDie1R(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount() - 1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 0).getScaledCopy(this.scale), 150);
+        for (int i = 0; i < columns - 1; i++) {
+            anim.addFrame(getSprite(i, 0).getScaledCopy(this.scale), 150);
         }
         anim.setLooping(false);
     }
@@ -123,10 +123,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createIdle1R(Animation anim) {
+    public void createIdle1R(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount() - 1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 1).getScaledCopy(this.scale), 250);
+        for (int i = 0; i < columns - 1; i++) {
+            anim.addFrame(getSprite(i, 1).getScaledCopy(this.scale), 250);
         }
     }
 
@@ -135,10 +135,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createWalk1R(Animation anim) {
+    public void createWalk1R(SpriteAnimation anim) {
 
-        for (int i = 1; i < spriteSheet.getHorizontalCount() - 2; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 2).getScaledCopy(this.scale), 150);
+        for (int i = 1; i < columns - 2; i++) {
+            anim.addFrame(getSprite(i, 2).getScaledCopy(this.scale), 150);
         }
     }
 
@@ -147,10 +147,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createJump1R(Animation anim) {
+    public void createJump1R(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount() - 1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 3).getScaledCopy(this.scale), 150);
+        for (int i = 0; i < columns - 1; i++) {
+            anim.addFrame(getSprite(i, 3).getScaledCopy(this.scale), 150);
         }
         anim.setLooping(false);
 
@@ -162,10 +162,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createAttack1R(Animation anim) {
+    public void createAttack1R(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount() - 3; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 4).getScaledCopy(this.scale), 150);
+        for (int i = 0; i < columns - 3; i++) {
+            anim.addFrame(getSprite(i, 4).getScaledCopy(this.scale), 150);
         }
     }
 
@@ -174,55 +174,42 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createClimb1(Animation anim) {
-        for (int i = 0; i < spriteSheet.getHorizontalCount() - 2; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 5).getScaledCopy(this.scale), 150);
+    public void createClimb1(SpriteAnimation anim) {
+        for (int i = 0; i < columns - 2; i++) {
+            anim.addFrame(getSprite(i, 5).getScaledCopy(this.scale), 150);
         }
-        anim.setAutoUpdate(false);
     }
 
     /**
-     * Advance the animation of climbing. We have the attribute
-     * isClimbingAnimationBeingAdvanced, that indicates us when the climbing
-     * animation is being advanced or not. This method checks when this happens,
-     * if the animation is not being advanced, this method advances it; if not,
-     * it does nothing
-     *
-     * 
+     * Advance the animation of climbing. While a frame of the climbing
+     * animation is being shown, this method does nothing; if not, it starts
+     * showing the current frame, and the next one (or the first one, after the
+     * last frame) will be set when its duration has passed on
+     * {@link #update(int)}.
      */
-    public synchronized void advanceClimbAnimation() {//VICTORY
+    public void advanceClimbAnimation() {//VICTORY
         
-        if (!isClimbingAnimationBeingAdvanced) {
-            isClimbingAnimationBeingAdvanced = true;
-            Thread t1 = new Thread(new Runnable() {
-
-                @Override
-                public void run() {
-
-                    int n = climb1.getFrameCount();
-                    /*Not on the last frame*/
-                    if (climb1.getFrame() != climb1.getFrameCount() - 1) {
-                        try {
-                            sleep(climb1.getDuration(climb1.getFrame()));
-                        } catch (InterruptedException ex) {
-                        }
-                        climb1.setCurrentFrame(climb1.getFrame() + 1);
-                    } else//Last Frame -> start loop again
-                    {
-                        try {
-                            sleep(climb1.getDuration(climb1.getFrame()));
-                        } catch (InterruptedException ex) {
-                        }
-                        climb1.setCurrentFrame(0);
-                    }
-                    isClimbingAnimationBeingAdvanced = false;
+        if (!climbStep.isActive()) {
+            climbStep.start(climb1.getDuration(climb1.getFrame()), () -> {
+                /*Not on the last frame*/
+                if (climb1.getFrame() != climb1.getFrameCount() - 1) {
+                    climb1.setCurrentFrame(climb1.getFrame() + 1);
+                } else//Last Frame -> start loop again
+                {
+                    climb1.setCurrentFrame(0);
                 }
-
             });
-
-            t1.start();
         }
+    }
 
+    /**
+     * Advances the animations that are controlled by time instead of by
+     * Slick (the climbing animation).
+     *
+     * @param delta Milliseconds since the last update.
+     */
+    public void update(int delta) {
+        climbStep.update(delta);
     }
 
 //----------------------LEFT_ANIMATIONS-----------------------------------------
@@ -232,10 +219,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createDie1L(Animation anim) {
+    public void createDie1L(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 0).getFlippedCopy(true, false).getScaledCopy(this.scale), 150);
+        for (int i = 0; i < columns-1; i++) {
+            anim.addFrame(getSprite(i, 0).getFlippedCopy().getScaledCopy(this.scale), 150);
         }
         anim.setLooping(false);
     }
@@ -246,10 +233,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createIdle1L(Animation anim) {
+    public void createIdle1L(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 1).getFlippedCopy(true, false).getScaledCopy(this.scale), 250);
+        for (int i = 0; i < columns-1; i++) {
+            anim.addFrame(getSprite(i, 1).getFlippedCopy().getScaledCopy(this.scale), 250);
         }
     }
 
@@ -258,10 +245,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createWalk1L(Animation anim) {
+    public void createWalk1L(SpriteAnimation anim) {
 
-        for (int i = 1; i < spriteSheet.getHorizontalCount()-2; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 2).getFlippedCopy(true, false).getScaledCopy(this.scale), 150);
+        for (int i = 1; i < columns-2; i++) {
+            anim.addFrame(getSprite(i, 2).getFlippedCopy().getScaledCopy(this.scale), 150);
         }
     }
     
@@ -270,10 +257,10 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createJump1L(Animation anim) {
+    public void createJump1L(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount()-1; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 3).getFlippedCopy(true, false).getScaledCopy(this.scale), 150);
+        for (int i = 0; i < columns-1; i++) {
+            anim.addFrame(getSprite(i, 3).getFlippedCopy().getScaledCopy(this.scale), 150);
         }
         anim.setLooping(false);
 
@@ -285,13 +272,25 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @param anim Animation where we will store the result
      */
-    public void createAttack1L(Animation anim) {
+    public void createAttack1L(SpriteAnimation anim) {
 
-        for (int i = 0; i < spriteSheet.getHorizontalCount() - 3; i++) {
-            anim.addFrame(spriteSheet.getSprite(i, 4).getFlippedCopy(true, false).getScaledCopy(this.scale), 150);
+        for (int i = 0; i < columns - 3; i++) {
+            anim.addFrame(getSprite(i, 4).getFlippedCopy().getScaledCopy(this.scale), 150);
         }
     }
 
+    /**
+     * Returns a sprite of the spritesheet.
+     *
+     * @param column Column of the spritesheet
+     * @param row Row of the spritesheet
+     * @return The frame with the sprite
+     */
+    private SpriteFrame getSprite(int column, int row) {
+        return new SpriteFrame(SPRITE_SHEET, column * SPRITE_SIZE,
+                row * SPRITE_SIZE, SPRITE_SIZE, SPRITE_SIZE);
+    }
+
 //****************************ANIM_CREATION*************************************
 //----------------------------ANIM_GETTER---------------------------------------
     /*All these methods are the same, we choose a different row of the 
@@ -306,7 +305,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getClimb1() {
+    public SpriteAnimation getClimb1() {
         return this.climb1;
     }
 //LEFT--------------------------------------------------------------------------    
@@ -315,7 +314,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return Animation where we will store the result
      */
-    public Animation getIdle1R() {
+    public SpriteAnimation getIdle1R() {
         return this.idle1R;
     }
 
@@ -324,7 +323,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getJump1R() {
+    public SpriteAnimation getJump1R() {
 
         return this.jump1R;
     }
@@ -334,7 +333,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getWalk1R() {
+    public SpriteAnimation getWalk1R() {
 
         return this.walk1R;
     }
@@ -344,7 +343,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getDie1R() {
+    public SpriteAnimation getDie1R() {
 
         return this.die1R;
     }
@@ -354,7 +353,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getAttack1R() {
+    public SpriteAnimation getAttack1R() {
         return this.attack1R;
     }
 
@@ -364,7 +363,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getIdle1L() {
+    public SpriteAnimation getIdle1L() {
         return this.idle1L;
     }
 
@@ -373,7 +372,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getJump1L() {
+    public SpriteAnimation getJump1L() {
         return this.jump1L;
 
     }
@@ -383,7 +382,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getWalk1L() {
+    public SpriteAnimation getWalk1L() {
         return this.walk1L;
     }
 
@@ -392,7 +391,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getDie1L() {
+    public SpriteAnimation getDie1L() {
         return this.die1L;
     }
 
@@ -401,7 +400,7 @@ public class PlayerAnimator implements PlayerAnimatorInterface{
      *
      * @return anim Animation where we will store the result
      */
-    public Animation getAttack1L() {
+    public SpriteAnimation getAttack1L() {
         return this.attack1L;
     }
 
@@ -5,8 +5,6 @@
  */
 package animations;
 
-import org.newdawn.slick.Animation;
-
 /**
  *
  * @author propietario
@@ -21,26 +19,28 @@ public interface PlayerAnimatorInterface {
 
     public void advanceClimbAnimation();
 
-    public Animation getClimb1();
+    public void update(int delta);
+
+    public SpriteAnimation getClimb1();
 
-    public Animation getIdle1R();
+    public SpriteAnimation getIdle1R();
     
-    public Animation getJump1R();
+    public SpriteAnimation getJump1R();
     
-    public Animation getWalk1R();
+    public SpriteAnimation getWalk1R();
     
-    public Animation getDie1R();
+    public SpriteAnimation getDie1R();
     
-    public Animation getAttack1R();
+    public SpriteAnimation getAttack1R();
     
-    public Animation getIdle1L();
+    public SpriteAnimation getIdle1L();
     
-    public Animation getJump1L();
+    public SpriteAnimation getJump1L();
     
-    public Animation getWalk1L();
+    public SpriteAnimation getWalk1L();
     
-    public Animation getDie1L();
+    public SpriteAnimation getDie1L();
     
-    public Animation getAttack1L();
+    public SpriteAnimation getAttack1L();
 
 }
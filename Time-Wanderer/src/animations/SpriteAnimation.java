@@ -0,0 +1,173 @@
+package animations;
+
+import java.util.ArrayList;
+
+/**
+ * Sequence of frames, with the state of its playback (current frame and time
+ * until the next one).
+ * It advances the same way as Slick's Animation, but only when its owner calls
+ * {@link #update(long)} on the simulation ticks, and its frames are
+ * {@link SpriteFrame}s, so it doesn't need any image to be loaded: the
+ * {@link misc.SpriteRenderer} draws the current frame.
+ */
+public class SpriteAnimation {
+
+    /**Frames of the animation.*/
+    private final ArrayList<SpriteFrame> frames;
+    /**Duration of each frame, in milliseconds.*/
+    private final ArrayList<Integer> durations;
+    /**Index of the frame being shown.*/
+    private int currentFrame;
+    /**Milliseconds until the next frame.*/
+    private long nextChange;
+    private boolean stopped;
+    /**If false, the animation stops on its last frame.*/
+    private boolean loop;
+
+    public SpriteAnimation() {
+        this.frames = new ArrayList<>();
+        this.durations = new ArrayList<>();
+        this.currentFrame = 0;
+        this.nextChange = 0;
+        this.stopped = false;
+        this.loop = true;
+    }
+
+    /**
+     * Adds a frame at the end of the animation, and goes back to the first
+     * frame.
+     *
+     * @param frame Frame to add.
+     * @param duration Milliseconds that the frame is shown.
+     */
+    public void addFrame(SpriteFrame frame, int duration) {
+        if (duration == 0) {
+            throw new IllegalArgumentException("Invalid duration: " + duration);
+        }
+
+        if (frames.isEmpty()) {
+            nextChange = duration;
+        }
+        frames.add(frame);
+        durations.add(duration);
+        currentFrame = 0;
+    }
+
+    /**
+     * Advances the animation.
+     *
+     * @param delta Milliseconds since the last update.
+     */
+    public void update(long delta) {
+        if (stopped || frames.isEmpty()) {
+            return;
+        }
+
+        nextChange -= delta;
+
+        while (nextChange < 0 && !stopped) {
+            if (currentFrame == frames.size() - 1 && !loop) {
+                stopped = true;
+                break;
+            }
+            currentFrame = (currentFrame + 1) % frames.size();
+            nextChange += durations.get(currentFrame);
+        }
+    }
+
+    /**
+     * Goes back to the first frame, and plays the animation again if it was
+     * stopped.
+     */
+    public void restart() {
+        if (frames.isEmpty()) {
+            return;
+        }
+        stopped = false;
+        currentFrame = 0;
+        nextChange = durations.get(0);
+    }
+
+    /**
+     * Stops the animation on its current frame, until it's restarted.
+     */
+    public void stop() {
+        if (frames.isEmpty()) {
+            return;
+        }
+        stopped = true;
+    }
+
+    /**
+     * Sets whether the animation goes back to the first frame after the last
+     * one, or stops on the last one.
+     */
+    public void setLooping(boolean loop) {
+        this.loop = loop;
+    }
+
+    /**
+     * Returns the index of the frame being shown.
+     */
+    public int getFrame() {
+        return currentFrame;
+    }
+
+    /**
+     * Shows the given frame (the time until the next one doesn't change).
+     */
+    public void setCurrentFrame(int index) {
+        currentFrame = index;
+    }
+
+    public int getFrameCount() {
+        return frames.size();
+    }
+
+    /**
+     * Returns the frame with the given index.
+     */
+    public SpriteFrame getSprite(int index) {
+        return frames.get(index);
+    }
+
+    /**
+     * Returns the frame being shown.
+     */
+    public SpriteFrame getCurrentFrame() {
+        return frames.get(currentFrame);
+    }
+
+    /**
+     * Returns the milliseconds that the given frame is shown.
+     */
+    public int getDuration(int index) {
+        return durations.get(index);
+    }
+
+    /**
+     * Returns the milliseconds that each frame is shown.
+     */
+    public int[] getDurations() {
+        int[] result = new int[durations.size()];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = durations.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the width of the frame being shown.
+     */
+    public int getWidth() {
+        return getCurrentFrame().getWidth();
+    }
+
+    /**
+     * Returns the height of the frame being shown.
+     */
+    public int getHeight() {
+        return getCurrentFrame().getHeight();
+    }
+}
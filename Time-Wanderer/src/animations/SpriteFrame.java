@@ -0,0 +1,134 @@
+package animations;
+
+import java.util.Objects;
+
+/**
+ * Part of an image drawn by an entity or an item (a frame of a sprite sheet or
+ * a whole image), optionally flipped and scaled.
+ * It only describes where the pixels are: the image isn't loaded until a
+ * {@link misc.SpriteRenderer} draws it, so the entities can be created and
+ * simulated without an OpenGL context. Two frames with the same values are
+ * equal, so the renderer can share the image of every copy of a frame.
+ */
+public final class SpriteFrame {
+
+    /**Path of the image.*/
+    private final String path;
+    /**Region of the image, in pixels.*/
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    /**If true, the region is drawn flipped horizontally.*/
+    private final boolean flipped;
+    /**Scale applied to the size of the region when it's drawn.*/
+    private final float scale;
+
+    /**
+     * Creates a frame with a region of an image, without scaling it.
+     *
+     * @param path Path of the image.
+     * @param x Left side of the region.
+     * @param y Top side of the region.
+     * @param width Width of the region.
+     * @param height Height of the region.
+     */
+    public SpriteFrame(String path, int x, int y, int width, int height) {
+        this(path, x, y, width, height, false, 1f);
+    }
+
+    private SpriteFrame(String path, int x, int y, int width, int height,
+            boolean flipped, float scale) {
+        this.path = path;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.flipped = flipped;
+        this.scale = scale;
+    }
+
+    /**
+     * Returns a copy of this frame flipped horizontally (to face the other
+     * side).
+     */
+    public SpriteFrame getFlippedCopy() {
+        return new SpriteFrame(path, x, y, width, height, !flipped, scale);
+    }
+
+    /**
+     * Returns a copy of this frame drawn with a different size.
+     *
+     * @param scale Scale applied to the size of the region.
+     * @return The scaled copy.
+     */
+    public SpriteFrame getScaledCopy(float scale) {
+        return new SpriteFrame(path, x, y, width, height, flipped,
+                this.scale * scale);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Returns the width of the region on the image (without scaling it).
+     */
+    public int getSourceWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the region on the image (without scaling it).
+     */
+    public int getSourceHeight() {
+        return height;
+    }
+
+    public boolean isFlipped() {
+        return flipped;
+    }
+
+    /**
+     * Returns the width of the frame when it's drawn.
+     */
+    public int getWidth() {
+        return (int) (width * scale);
+    }
+
+    /**
+     * Returns the height of the frame when it's drawn.
+     */
+    public int getHeight() {
+        return (int) (height * scale);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SpriteFrame)) {
+            return false;
+        }
+        SpriteFrame other = (SpriteFrame) obj;
+
+        return x == other.x && y == other.y && width == other.width
+                && height == other.height && flipped == other.flipped
+                && Float.compare(scale, other.scale) == 0
+                && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, x, y, width, height, flipped, scale);
+    }
+}
@@ -2,9 +2,11 @@ package controller;
 
 import entities.Player;
 import gamestates.LevelState;
+import org.lwjgl.input.Mouse;
 import org.newdawn.slick.Input;
 import main.MainClass;
 import sound.Playlist;
+import utils.NumberUtils;
 
 /**
  * Class that handles the input from the actual player. Will be able to handle
@@ -19,6 +21,9 @@ public class KeyboardMouseController extends PlayerController {
     }
 
     public void handleInput(Input i, int delta) {
+        /* The ranged and magical attacks are aimed at the mouse */
+        player.setAim(Mouse.getX(), NumberUtils.invertOrdinate(Mouse.getY()));
+        
         //handle any input from the keyboard
         handleKeyboardInput(i, delta);
     }
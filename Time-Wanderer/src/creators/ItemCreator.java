@@ -1,5 +1,7 @@
 package creators;
 
+import animations.AnimationLibrary;
+import animations.SpriteFrame;
 import entities.GameCharacter;
 import entities.Player;
 import entities.VersatileChest;
@@ -15,11 +17,8 @@ import items.RangedWeapon;
 import java.util.Random;
 import levels.Room;
 import main.MainClass;
-import org.lwjgl.input.Mouse;
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Vector2f;
-import utils.NumberUtils;
 
 /**
  *
@@ -27,9 +26,9 @@ import utils.NumberUtils;
  */
 public class ItemCreator {
 
-    private static Image bulletImage;
-    private static Image arrowImage;
-    private static Image magicImage;
+    private static SpriteFrame bulletImage;
+    private static SpriteFrame arrowImage;
+    private static SpriteFrame magicImage;
 
     /**
      * Creates three chests into the room:
@@ -307,13 +306,13 @@ public class ItemCreator {
 
         if(arrowImage == null) {
             try {
-                arrowImage = new Image("resources/items/Arrow.png");
+                arrowImage = AnimationLibrary.getImage("resources/items/Arrow.png");
             } catch (SlickException ex) {
                 ex.printStackTrace();
             }
         }
         if(speed.x < 0) {
-            return new Projectile(player, 32, 9, speed, attack, arrowImage.getFlippedCopy(true, false));
+            return new Projectile(player, 32, 9, speed, attack, arrowImage.getFlippedCopy());
         } else {
             return new Projectile(player, 32, 9, speed, attack, arrowImage);
         }
@@ -337,7 +336,7 @@ public class ItemCreator {
         Vector2f speed = getSpeed(player);
         if(bulletImage == null) {
             try {
-                bulletImage = new Image("resources/items/Bullet.png");
+                bulletImage = AnimationLibrary.getImage("resources/items/Bullet.png");
             } catch (SlickException ex) {
                 ex.printStackTrace();
             }
@@ -365,7 +364,7 @@ public class ItemCreator {
 
         if(magicImage == null) {
             try {
-                magicImage = new Image("resources/items/Spell.png");
+                magicImage = AnimationLibrary.getImage("resources/items/Spell.png");
             } catch (SlickException ex) {
                 ex.printStackTrace();
             }
@@ -389,10 +388,10 @@ public class ItemCreator {
 
         /* Calculates the vector that links the mouse position with
         the player's center. */
-        mouseVector.x = Math.abs(Mouse.getX() -
+        mouseVector.x = Math.abs(player.getAim().x -
                                 (player.getX() + (player.getWidth() / 2)));
 
-        mouseVector.y = (NumberUtils.invertOrdinate(Mouse.getY()) -
+        mouseVector.y = (player.getAim().y -
                                 (player.getY() - (player.getHeight() / 2)));
 
         /* Applies the facing to the speed */
@@ -1,22 +1,24 @@
 package entities;
 
+import animations.ActionState;
 import animations.BossAnimator;
+import animations.SpriteAnimation;
 import gamestates.LevelState;
-import static java.lang.Thread.sleep;
 import java.util.Random;
 import levels.Room;
+import main.MainClass;
 import misc.RandomObjBoss;
-import org.newdawn.slick.Animation;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.geom.Polygon;
 import org.newdawn.slick.geom.Vector2f;
+import sound.Playlist;
 
 /**
  * This class represents a ground enemy that will be patrolling until the enemy
  * is within the detection range. Then, follows the player and tries to attack
  * him.
  */
-public class BossEnemy extends Enemy implements Runnable {
+public class BossEnemy extends Enemy {
 
     /* ATTRIBUTES: */
 
@@ -94,7 +96,7 @@ public class BossEnemy extends Enemy implements Runnable {
      * Animation variables
      */
     /*Current animation of the Boss*/
-    private Animation currentAnimation;
+    private SpriteAnimation currentAnimation;
     /*Animator Generator object. will provide us the different animations
     for the Boss.*/
     private BossAnimator animGen;
@@ -104,7 +106,7 @@ public class BossEnemy extends Enemy implements Runnable {
      * Indicates whether the boss is attacking or not.
      * Used for rendering animations.
      */
-    private boolean isAttacking = false;
+    private final ActionState attackState = new ActionState();
 
 /* -------------------------------------- */
 /* ---- END OF ATTRIBUTES DECLARATION --- */
@@ -180,13 +182,13 @@ public class BossEnemy extends Enemy implements Runnable {
         
         /*ANIMATION*/
         this.animGen = new BossAnimator();
-        this.currentAnimation = new Animation();
+        this.currentAnimation = new SpriteAnimation();
         this.currentAnimation = animGen.getIdle1R();
         
         this.currentRoom = room;
         
-        /* Starts the thread */
-        new Thread(this).start();
+        /* Starts changing the direction from time to time */
+        scheduleTurn();
     }
     
     @Override
@@ -218,6 +220,8 @@ public class BossEnemy extends Enemy implements Runnable {
     @Override
     public void update (Player target, int delta) {
         
+        attackState.update(delta);
+        currentAnimation.update(delta);
         move(target, delta);
         this.projectiles.update(delta, target);
         
@@ -263,7 +267,7 @@ public class BossEnemy extends Enemy implements Runnable {
             }
             
             //ATTACK
-        if (this.isAttacking) {
+        if (this.attackState.isActive()) {
             if (this.currentAnimation != animGen.getAttack1R()
                     || this.currentAnimation != animGen.getAttack1L()) {
                 if (this.getFacing().equals(this.getFacing().RIGHT)) {
@@ -282,9 +286,9 @@ public class BossEnemy extends Enemy implements Runnable {
         int enemyWidth = this.getWidth();
         int enemyHeight = this.getHeight();
         /*Draw currrent animation.*/
-        g.drawAnimation(currentAnimation,
-                this.getX() + enemyWidth / 2 - animWidth / 2,
-                this.getY() + enemyHeight - animHeight);
+        MainClass.spriteRenderer.drawAnimation(currentAnimation,
+                this.getRenderX() + enemyWidth / 2 - animWidth / 2,
+                this.getRenderY() + enemyHeight - animHeight);
         //ANIMATION-END
 
     }
@@ -319,48 +323,26 @@ public class BossEnemy extends Enemy implements Runnable {
              (currentPos.distance(playerMaxX) <= range) ) {
             
             //ANIMATION
-            //set attacking to true to render attack animation.
-            this.isAttacking=true;
-            /*This method will wait for the animation to finish and then set
-            isAttacking to false;*/
+            /*Sets the attack state to render attack animation, until the
+            animation finishes.*/
             resetAttackState();
             //END-ANIMATION
             
             /* Stops and "hits" the player */
             this.setXVelocity(0);
             target.getHit(attack);
+            MainClass.JUKEBOX.playAt(Playlist.HIT_3, getX() + getWidth() / 2,
+                                     getY() + getHeight() / 2, 5);
             refreshAttack = refreshAttackTime;
         }
     }
     
-    /**Used for rendering purposes. Waits for the attack animation 
-     * to finish and then sets the isAttacking variable to false, so that
+    /**Used for rendering purposes. Starts the attack state, that lasts
+     * the duration of the attack animation and then goes back to idle, so that
      the rest of the animations can be played.*/
-    public synchronized void resetAttackState() {
+    public void resetAttackState() {
 
-        Thread t1 = new Thread(new Runnable() {
-
-            @Override
-            public void run() {
-
-                //calculate the duration of the attack animation.
-                int attackDuration = 0;
-                for (int duration : animGen.getAttack1R().getDurations()) {
-                    attackDuration += duration;
-                }
-                /*make player wait duration of the attack animation
-                 plus extra time before being able to attack again.*/
-                try {
-                    sleep(attackDuration + 0);
-                } catch (InterruptedException ex) {
-                    System.err.println(ex);
-                }
-                //reset attack availability.
-                isAttacking = false;
-            }
-        });
-
-        t1.start();
+        attackState.start(ActionState.getDuration(animGen.getAttack1R()), null);
     }
 
     /**
@@ -555,32 +537,26 @@ public class BossEnemy extends Enemy implements Runnable {
 
     /**
      * Changes the movement direction (left or right) from time to time.
+     * The change is scheduled on the game clock, and schedules the next one
+     * when it's performed.
      */
-    @Override
-    public void run() {
+    private void scheduleTurn() {
 
-        /* Infinite loop */
-        while (true) {
-
-            try {
-                /* Waits a random time between 3 and 5 seconds. */
-                Thread.sleep((long) (2000 * Math.random() + 3000));
-            } catch (InterruptedException ex) {
-                System.out.println("Exception at BossEnemy.run(): "
-                                    + ex.getMessage());
-            }
+        /* Waits a random time between 3 and 5 seconds. */
+        MainClass.SCHEDULER.schedule(this, (int) (2000 * Math.random() + 3000),
+                () -> {
+                    /* Changes the direction */
+                    if (patrolling && !stopped)
+                        movingLeft = !movingLeft;
 
-            checkStopped();
-            /* Changes the direction */
-            if (patrolling)
-                movingLeft = !movingLeft;
-        }
+                    scheduleTurn();
+                });
     }
 
 
-/* ------------------------------------- */
-/* ---- THREAD STATE CONTROL METHODS --- */
-/* ------------------------------------- */
+/* ------------------------------ */
+/* ---- STATE CONTROL METHODS --- */
+/* ------------------------------ */
 
     /**
      * Returns <i>true</i> if the actions of this enemy are stopped.
@@ -606,28 +582,11 @@ public class BossEnemy extends Enemy implements Runnable {
         return dead;
     }
 
-    /**
-     * Checks if the attribute "stopped" is true and, therefore, this thread
-     * must wait to be notified.
-     */
-    private synchronized void checkStopped () {
-
-        while (stopped) {
-
-            try {
-                wait();
-            } catch (InterruptedException ex) {
-                System.out.println("Exception at GroundEnemy.checkStopped(): "
-                                    + ex.getMessage());
-            }
-        }
-    }
-
     /**
      * Stops the action of this enemy.
      */
     @Override
-    public synchronized void stop () {
+    public void stop () {
 
         stopped = true;
         this.setXVelocity(0);
@@ -636,17 +595,16 @@ public class BossEnemy extends Enemy implements Runnable {
     }
 
     /**
-     * Restarts the action of this thread.
+     * Restarts the action of this enemy.
      */
     @Override
-    public synchronized void restart () {
+    public void restart () {
 
         /* Changes the previous position so it doesn't think it got stucked and
         jumps trying to avoid the obstacle */
         this.previousPos = new Vector2f(previousPos.x - stuckDistance,
                                         previousPos.y - stuckDistance);
         stopped = false;
-        notifyAll();
         
         projectiles.restart();
     }
@@ -1,20 +1,20 @@
 package entities;
 
 import animations.BatAnimator;
+import animations.SpriteAnimation;
 import utils.Transform;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-import org.newdawn.slick.Animation;
+import main.MainClass;
 import org.newdawn.slick.Color;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.geom.Polygon;
 import org.newdawn.slick.geom.Vector2f;
+import sound.Playlist;
 
 /**
  * This class represents an enemy that flies randomly within a patrolling area;
  * and, when the player is detected, flies towards it and attacks it.
  */
-public class FlyingEnemy extends Enemy implements Runnable {
+public class FlyingEnemy extends Enemy {
 
     /* ATTRIBUTES: */
 
@@ -73,7 +73,7 @@ public class FlyingEnemy extends Enemy implements Runnable {
      * Variables for animation
      */
     /*Current animation of the bat*/
-    private Animation currentAnimation;
+    private SpriteAnimation currentAnimation;
     /*Animator Generator object. will provide us the different animations
     for the flying enemy.*/
     private final BatAnimator animGen;
@@ -141,11 +141,24 @@ public class FlyingEnemy extends Enemy implements Runnable {
         
         /*ANIMATION*/
         this.animGen = new BatAnimator();
-        this.currentAnimation = new Animation();
+        this.currentAnimation = new SpriteAnimation();
         this.currentAnimation = animGen.getIdle1R();
 
-        /* Starts the thread */
-        new Thread(this).start();
+        /* Starts changing the path from time to time */
+        schedulePathChange();
+    }
+
+    /**
+     * Advances the animation and updates the enemy's behaviour.
+     *
+     * @param target The player that this enemy will try to hit.
+     * @param delta Milliseconds since the last update.
+     */
+    @Override
+    public void update (Player target, int delta) {
+
+        currentAnimation.update(delta);
+        super.update(target, delta);
     }
 
     @Override
@@ -182,18 +195,17 @@ public class FlyingEnemy extends Enemy implements Runnable {
         int enemyWidth = this.getWidth();
         int enemyHeight = this.getHeight();
         /*Draw currrent animation.*/
-        g.drawAnimation(currentAnimation,
-                this.getX() + enemyWidth / 2 - animWidth / 2,
-                this.getY() + enemyHeight - animHeight);
+        MainClass.spriteRenderer.drawAnimation(currentAnimation,
+                this.getRenderX() + enemyWidth / 2 - animWidth / 2,
+                this.getRenderY() + enemyHeight - animHeight);
         
-        /* Changes the color */
-        g.setColor(textColor);
 //        g.setFont(new UnicodeFont(font));
         
         /* Draws the remaining life right above its head */
-        g.drawString ("HP: " + remainingLife,
-                      this.getX(),
-                      this.getY() - this.getHeight());
+        MainClass.spriteRenderer.drawString ("HP: " + remainingLife,
+                      this.getRenderX(),
+                      this.getRenderY() - this.getHeight(),
+                      textColor);
     }
 
 
@@ -229,6 +241,8 @@ public class FlyingEnemy extends Enemy implements Runnable {
                 
                 /* Damages the player */
                 target.getHit(this.getStats().getAttackDamage());
+                MainClass.JUKEBOX.playAt(Playlist.HIT_2, getX() + getWidth() / 2,
+                                         getY() + getHeight() / 2, 10);
                 retreat = true;        /* Starts the retreating action */
             }
         }
@@ -420,67 +434,44 @@ public class FlyingEnemy extends Enemy implements Runnable {
 
 
     /**
-     * This method will sleep a random time between 0 and 0.5 seconds and will
-     * change the unit vector that leads the path.
+     * This method will wait a random time between 0 and 0.5 seconds (on the
+     * game clock) and will change the unit vector that leads the path. Then,
+     * schedules the next change.
      */
-    @Override
-    public void run() {
-
-        /* Infinite loop */
-        while (true) {
-
-            try {
-                /* Waits a random time between 0 and 0.5 seconds. */
-                Thread.sleep((long) (500 * Math.random()));
-            } catch (InterruptedException ex) {
-                Logger.getLogger(FlyingEnemy.class.getName()).log(Level.SEVERE, null, ex);
-            }
-
-            checkStopped();
-            /* Changes the path (only if the player hasn't been detected) */
-            if (patrolling)
-                generateVector();
-        }
+    private void schedulePathChange() {
+
+        /* Waits a random time between 0 and 0.5 seconds. */
+        MainClass.SCHEDULER.schedule(this, (int) (500 * Math.random()),
+                () -> {
+                    /* Changes the path (only if the player hasn't been
+                    detected) */
+                    if (patrolling && !stopped)
+                        generateVector();
+
+                    schedulePathChange();
+                });
     }
 
-/* ------------------------------------- */
-/* ---- THREAD STATE CONTROL METHODS --- */
-/* ------------------------------------- */
-
-    /**
-     * Checks if the attribute "stopped" is true and, therefore, this thread
-     * must wait to be notified.
-     */
-    private synchronized void checkStopped () {
-
-        while (stopped) {
-
-            try {
-                wait();
-            } catch (InterruptedException ex) {
-                Logger.getLogger(FlyingEnemy.class.getName()).log(Level.SEVERE,
-                        null, ex);
-            }
-        }
-    }
+/* ------------------------------ */
+/* ---- STATE CONTROL METHODS --- */
+/* ------------------------------ */
 
     /**
      * Stops the action of this enemy.
      */
     @Override
-    public synchronized void stop () {
+    public void stop () {
 
         stopped = true;
     }
 
     /**
-     * Restarts the action of this thread.
+     * Restarts the action of this enemy.
      */
     @Override
-    public synchronized void restart () {
+    public void restart () {
 
         stopped = false;
-        notifyAll();
     }
 
 /* ---------------------------- */
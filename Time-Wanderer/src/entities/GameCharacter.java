@@ -195,7 +195,7 @@ public class GameCharacter extends GameObject {
      */
     @Override
     public void render(Graphics g) {
-        g.fillRect(this.getX(),this.getY(),this.getWidth(),this.getHeight());
+        g.fillRect(this.getRenderX(),this.getRenderY(),this.getWidth(),this.getHeight());
         //this.getBoundingShape().updatePosition(this.getX(),this.getY());
         // Change animations here.
     }
@@ -16,6 +16,16 @@ abstract public class GameObject {
     private float x;
     private float y;
     
+    /* Position on the previous simulation tick, used to interpolate on render */
+    private float previousX;
+    private float previousY;
+    
+    /**
+     * Fraction of the next simulation tick that has already passed when
+     * rendering (see {@link physics.SimulationClock#getInterpolation()}).
+     */
+    private static float interpolation = 1;
+    
     private BoundingShape boundingShape;
     
     private int width;
@@ -33,6 +43,8 @@ abstract public class GameObject {
     public GameObject(float x, float y) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.width = 32;
         this.height = 32;
         this.boundingShape = new BoundingRectangle(x,y,width,height);
@@ -41,6 +53,8 @@ abstract public class GameObject {
     public GameObject(float x, float y, int width, int height) {
         this.x = x;
         this.y = y;
+        this.previousX = x;
+        this.previousY = y;
         this.width = width;
         this.height = height;
         this.boundingShape = new BoundingRectangle(x,y,width,height);
@@ -67,6 +81,57 @@ abstract public class GameObject {
         boundingShape.updatePosition(x,y);
     }
 
+    /**
+     * Stores the current position as the one of the previous tick.
+     * Must be called at the beginning of each simulation tick.
+     */
+    public void savePreviousPosition() {
+        previousX = x;
+        previousY = y;
+    }
+    
+    /**
+     * Moves the object to a new position without interpolating from the
+     * previous one, so it isn't drawn crossing the screen (for example, when
+     * the player enters a room or respawns).
+     * @param x New horizontal position.
+     * @param y New vertical position.
+     */
+    public void teleport(float x, float y) {
+        this.x = x;
+        this.y = y;
+        this.previousX = x;
+        this.previousY = y;
+        updateBoundingShape();
+    }
+    
+    /**
+     * Changes the interpolation factor used by all the objects when rendering.
+     * @param alpha Value between 0 (render the previous tick's position) and 1
+     * (render the current position).
+     */
+    public static void setInterpolation(float alpha) {
+        interpolation = alpha;
+    }
+    
+    /**
+     * Horizontal position where the object must be drawn, interpolated between
+     * the previous tick and the current one.
+     * @return X coordinate to render the object.
+     */
+    public float getRenderX() {
+        return previousX + (x - previousX) * interpolation;
+    }
+    
+    /**
+     * Vertical position where the object must be drawn, interpolated between
+     * the previous tick and the current one.
+     * @return Y coordinate to render the object.
+     */
+    public float getRenderY() {
+        return previousY + (y - previousY) * interpolation;
+    }
+
     public float getX() {
         return x;
     }
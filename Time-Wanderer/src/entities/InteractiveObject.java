@@ -1,9 +1,11 @@
 package entities;
 
-import org.newdawn.slick.Animation;
+import animations.AnimationLibrary;
+import animations.SpriteAnimation;
+import animations.SpriteFrame;
+import main.MainClass;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.SpriteSheet;
 
 
 /**
@@ -17,7 +19,7 @@ public abstract class InteractiveObject extends GameObject {
     used in the different states of the InteractiveObject.
     E.g. in the case of a chest, a sprite of it closed, and 
     another one of the chest opened.*/
-    private Animation anim;
+    private SpriteAnimation anim;
     private boolean isAnimationBeingAdvanced;
     private float scale;
     
@@ -28,10 +30,9 @@ public abstract class InteractiveObject extends GameObject {
         isAnimationBeingAdvanced=false;
         
         //ANIMATION
-        this.anim=new Animation();
+        this.anim=new SpriteAnimation();
         //So that the sprites only change if we want to.
         //It is really not an animation
-        anim.setAutoUpdate(false);
         anim.stop();
     }
     
@@ -43,10 +44,9 @@ public abstract class InteractiveObject extends GameObject {
         isAnimationBeingAdvanced=false;
         
         //ANIMATION
-        this.anim=new Animation();
+        this.anim=new SpriteAnimation();
         //So that the sprites only change if we want to.
         //It is really not an animation
-        anim.setAutoUpdate(false);
         anim.stop();
         
         this.setAnimation(spriteSheetPath);
@@ -59,10 +59,9 @@ public abstract class InteractiveObject extends GameObject {
         isAnimationBeingAdvanced=false;
         
         //ANIMATION
-        this.anim=new Animation();
+        this.anim=new SpriteAnimation();
         //So that the sprites only change if we want to.
         //It is really not an animation
-        anim.setAutoUpdate(false);
         anim.stop();
     }
     
@@ -74,10 +73,9 @@ public abstract class InteractiveObject extends GameObject {
         isAnimationBeingAdvanced=false;
         
         //ANIMATION
-        this.anim=new Animation();
+        this.anim=new SpriteAnimation();
         //So that the sprites only change if we want to.
         //It is really not an animation
-        anim.setAutoUpdate(false);
         anim.stop();
         
         this.setAnimation(spriteSheetPath);
@@ -99,10 +97,13 @@ public abstract class InteractiveObject extends GameObject {
      and only one row.*/
     public void setAnimation(String spriteSheetPath){
         try {
-            SpriteSheet sheet = new SpriteSheet(spriteSheetPath,32,32);
+            int columns = AnimationLibrary.getHorizontalCount(
+                    spriteSheetPath,32,32);
+            SpriteFrame[] sprites = AnimationLibrary.getFrames(
+                    spriteSheetPath,32,32,0,columns,false);
             
-            for(int i=0; i<sheet.getHorizontalCount();i++){
-                this.anim.addFrame(sheet.getSprite(i, 0) , 1000);        
+            for(int i=0; i<sprites.length;i++){
+                this.anim.addFrame(sprites[i] , 1000);        
             }
             
         } catch (SlickException ex) {System.out.println(ex);}
@@ -113,7 +114,7 @@ public abstract class InteractiveObject extends GameObject {
     }
     
     /**Set the animation of the interactive object.*/
-    public void setAnimation(Animation anim)
+    public void setAnimation(SpriteAnimation anim)
     {
         this.anim=anim;
         this.anim.stop();
@@ -141,10 +142,10 @@ public abstract class InteractiveObject extends GameObject {
     
     public void scaleAnimation(){
         int l = this.anim.getFrameCount();
-        Animation aux=new Animation();
+        SpriteAnimation aux=new SpriteAnimation();
         
         for(int i=0;i<l;i++){
-            aux.addFrame(this.anim.getImage(i).getScaledCopy(scale), 
+            aux.addFrame(this.anim.getSprite(i).getScaledCopy(scale), 
                     this.anim.getDuration(i));
         }
     }
@@ -156,7 +157,7 @@ public abstract class InteractiveObject extends GameObject {
 //        g.fillRect(this.getX(), this.getY(), this.getWidth(), this.getHeight());
 //        g.setColor(previousColor);
         try{
-            g.drawAnimation(anim, this.getX(), this.getY());
+            MainClass.spriteRenderer.drawAnimation(anim, this.getRenderX(), this.getRenderY());
         }catch(IndexOutOfBoundsException ex){System.out.println(
                 "(Interactive Object:161)Error when printing the Animation of an Interactive Object: "+
                 ex);}
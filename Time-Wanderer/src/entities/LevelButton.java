@@ -29,7 +29,8 @@ public class LevelButton extends InteractiveObject {
         if (!interactedWith) {
             interactedWith = true;
             this.advanceAnimation();
-            MainClass.JUKEBOX.play(Playlist.FALLING_RUBBLE, true, 12);
+            MainClass.JUKEBOX.playAt(Playlist.FALLING_RUBBLE, getX() + getWidth() / 2,
+                                     getY() + getHeight() / 2, 12);
             switch (direction) {
                 case 0: // UP
                     room1.setUpBlockade(false);
@@ -1,8 +1,10 @@
 package entities;
 
+import animations.ActionState;
 import animations.PastPlayerAnimator;
 import animations.PlayerAnimator;
 import animations.PlayerAnimatorInterface;
+import animations.SpriteAnimation;
 import items.Inventory;
 import creators.ItemCreator;
 import gamestates.LevelState;
@@ -11,17 +13,13 @@ import items.MeleeWeapon;
 import items.Projectile;
 import items.RangedWeapon;
 import levels.Room;
-import org.newdawn.slick.Animation;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.SlickException;
-import static java.lang.Thread.sleep;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import main.MainClass;
-import org.lwjgl.input.Mouse;
 import org.newdawn.slick.geom.Vector2f;
 import sound.Playlist;
-import utils.NumberUtils;
 
 /**
  * Class that represents the player. Inherits from GameCharacter since it is a
@@ -37,11 +35,11 @@ public class Player extends GameCharacter {
     /**Tells if the player is climbing or not.*/
     private boolean isClimbing = false;
     /**Tells if the player is attacking or not.*/
-    private boolean isAttacking = false;
+    private final ActionState attackState = new ActionState();
     /**Room where the player is currently at.*/
     private Room currentRoom;
     /**Current animation of the player.*/
-    private Animation currentAnim;
+    private SpriteAnimation currentAnim;
     /**Animator that provides the animation for the player.*/
     private PlayerAnimatorInterface animGen;
     /**We will create two animator generators, one for the
@@ -62,6 +60,12 @@ public class Player extends GameCharacter {
      * When the player dies, this  attribute will be changed to <i>true</i>.
      */
     private boolean dead = false;
+    
+    /**
+     * Point where the player is aiming at, in window coordinates (the
+     * position of the mouse, set by the controller).
+     */
+    private final Vector2f aim = new Vector2f();
       
     /**
      * Inventory containing all the items of the player (weapons,
@@ -141,11 +145,10 @@ public class Player extends GameCharacter {
         if (inventory.getMeleeWeapon() != null) {
             //In order to avoid spamming the attack button.
             //You cannot attack while climbing.
-            if (!this.isAttacking && !this.isClimbing) {
+            if (!this.attackState.isActive() && !this.isClimbing) {
                 
-                this.isAttacking = true;
-                currentRoom.checkMeleeAttack();
                 this.resetAttackState();
+                currentRoom.checkMeleeAttack();
                 //Just for debugging.
                 //System.out.println(this.getStats().getAttackDamage());
                 
@@ -154,32 +157,33 @@ public class Player extends GameCharacter {
         }
     }
 
-    public synchronized void resetAttackState() {
+    /**
+     * Starts the attack state, that lasts the duration of the attack animation.
+     * When it ends, the attack animation is reset and the player can attack
+     * again.
+     */
+    public void resetAttackState() {
 
-        Thread t1 = new Thread(new Runnable() {
+        attackState.start(ActionState.getDuration(animGen.getAttack1R()),
+                () -> animGen.resetAttackAnim());
+    }
 
-            @Override
-            public void run() {
+    /**
+     * Advances the timed actions of the player (the attack and the climbing
+     * animation) and the animation being shown.
+     *
+     * @param delta Milliseconds since the last update.
+     */
+    public void update(int delta) {
 
-                //calculate the duration of the attack animation.
-                int attackDuration = 0;
-                for (int duration : animGen.getAttack1R().getDurations()) {
-                    attackDuration += duration;
-                }
-                /*make player wait duration of the attack animation
-                 plus extra time before being able to attack again.*/
-                try {
-                    sleep(attackDuration + 0);
-                } catch (InterruptedException ex) {
-                    System.err.println(ex);
-                }
-                //reset attack availability.
-                isAttacking = false;
-                animGen.resetAttackAnim();
-            }
-        });
+        attackState.update(delta);
+        animGen.update(delta);
 
-        t1.start();
+        /* The climbing animation only advances step by step, with the
+        animator */
+        if (currentAnim != animGen.getClimb1()) {
+            currentAnim.update(delta);
+        }
     }
     
     /**
@@ -257,10 +261,7 @@ public class Player extends GameCharacter {
      */
     private Vector2f calculateCoordinates () {
         
-        Vector2f coordinates = new Vector2f (
-                                Mouse.getX(),
-                                NumberUtils.invertOrdinate(Mouse.getY())
-        );
+        Vector2f coordinates = new Vector2f (aim);
         
         coordinates.x /= MainClass.SCALE;
         coordinates.y /= MainClass.SCALE;
@@ -278,6 +279,28 @@ public class Player extends GameCharacter {
         }
     }
 
+    /**
+     * Returns the point where the player is aiming at, in window coordinates.
+     *
+     * @return The value of the aim.
+     */
+    public Vector2f getAim() {
+
+        return aim;
+    }
+
+    /**
+     * Changes the point where the player is aiming at (the ranged and magical
+     * attacks are directed towards it).
+     *
+     * @param x Abscissa, in window coordinates.
+     * @param y Ordinate, in window coordinates (from the top).
+     */
+    public void setAim(float x, float y) {
+
+        aim.set(x, y);
+    }
+
     /**
      * Returns the current player's inventory.
      *
@@ -441,7 +464,7 @@ public class Player extends GameCharacter {
         }
 
         //ATTACK
-        if (this.isAttacking) {
+        if (this.attackState.isActive()) {
             if (this.currentAnim != animGen.getAttack1R()
                     || this.currentAnim != animGen.getAttack1L()) {
                 if (this.getFacing().equals(this.getFacing().RIGHT)) {
@@ -460,9 +483,9 @@ public class Player extends GameCharacter {
         int playerWidth = this.getWidth();
         int playerHeight = this.getHeight();
         /*Draw currrent animation.*/
-        g.drawAnimation(currentAnim,
-                this.getX() + playerWidth / 2 - animWidth / 2,
-                this.getY() + playerHeight - animHeight);
+        MainClass.spriteRenderer.drawAnimation(currentAnim,
+                this.getRenderX() + playerWidth / 2 - animWidth / 2,
+                this.getRenderY() + playerHeight - animHeight);
 
     }
 
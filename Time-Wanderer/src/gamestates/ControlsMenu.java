@@ -10,6 +10,7 @@ import org.newdawn.slick.geom.Vector2f;
 import org.newdawn.slick.state.BasicGameState;
 import org.newdawn.slick.state.StateBasedGame;
 import sound.Playlist;
+import utils.AtlasRegistry;
 
 /**
  *
@@ -51,8 +52,8 @@ public class ControlsMenu extends BasicGameState {
          
         try {
             /* Opens the images and stores them on their respective attributes */
-            this.controlsImage = new Image ("resources/ui/menuimages/controls-image.png");
-            this.background = new Image ("resources/ui/menuimages/background.png");
+            this.controlsImage = AtlasRegistry.getImage("resources/ui/menuimages/controls-image.png");
+            this.background = AtlasRegistry.getImage("resources/ui/menuimages/background.png");
             
             /* Scales the image (at 80% the original size) so it can be into 
             the window */
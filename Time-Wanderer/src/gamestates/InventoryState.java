@@ -15,6 +15,7 @@ import org.newdawn.slick.state.StateBasedGame;
 import main.MainClass;
 import org.newdawn.slick.Color;
 import utils.NumberUtils;
+import utils.AtlasRegistry;
 
 /**
  * @author Alberto */
@@ -63,24 +64,24 @@ public class InventoryState extends BasicGameState {
     @Override
     public void init(GameContainer container, StateBasedGame game) {
         try {
-            inventoryImage = new Image("resources/ui/inventory/Inventory.png");
-            enteredItem = new Image("resources/ui/inventory/EnteredItem.png");
-            selectedItem = new Image("resources/ui/inventory/SelectedItem.png");
-            meleeWeapon = new Image("resources/ui/inventory/Sword.png");
+            inventoryImage = AtlasRegistry.getImage("resources/ui/inventory/Inventory.png");
+            enteredItem = AtlasRegistry.getImage("resources/ui/inventory/EnteredItem.png");
+            selectedItem = AtlasRegistry.getImage("resources/ui/inventory/SelectedItem.png");
+            meleeWeapon = AtlasRegistry.getImage("resources/ui/inventory/Sword.png");
 
             /* World index == 0 -> old timeline -> bow
                World index == 1 -> new timeline -> gun */
             if (LevelState.worldIdx == 0) {
 
-                rangedWeapon = new Image("resources/ui/inventory/Bow.png");
+                rangedWeapon = AtlasRegistry.getImage("resources/ui/inventory/Bow.png");
             } else {
 
-                rangedWeapon = new Image("resources/ui/inventory/Gun.png");
+                rangedWeapon = AtlasRegistry.getImage("resources/ui/inventory/Gun.png");
             }
 
-            magicalRelic = new Image("resources/ui/inventory/Relic.png");
-            magicalWeapon = new Image("resources/ui/inventory/Staff.png");
-            consumableItem = new Image("resources/ui/inventory/Consumable.png");
+            magicalRelic = AtlasRegistry.getImage("resources/ui/inventory/Relic.png");
+            magicalWeapon = AtlasRegistry.getImage("resources/ui/inventory/Staff.png");
+            consumableItem = AtlasRegistry.getImage("resources/ui/inventory/Consumable.png");
         } catch (Exception ex) {
             System.out.println("The game reminds you to have a wonderful day and to love yourself <3");
         }
@@ -10,20 +10,25 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import levels.DungeonLoader;
 import levels.MapGenerator;
 import levels.Room;
 import misc.PlayerInterface;
 import org.newdawn.slick.Color;
 import org.newdawn.slick.GameContainer;
 import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Input;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Rectangle;
 import org.newdawn.slick.state.BasicGameState;
 import org.newdawn.slick.state.StateBasedGame;
 import physics.Physics;
+import physics.SimulationClock;
+import entities.GameObject;
 import main.MainClass;
 import static main.MainClass.INVENTORY_STATE_P1_ID;
 import static main.MainClass.INVENTORY_STATE_P2_ID;
+import misc.FrameProfiler.Phase;
 import misc.MiniMap;
 import misc.SoundInterface;
 import org.newdawn.slick.state.transition.FadeInTransition;
@@ -37,6 +42,24 @@ import sound.Playlist;
  */
 public class LevelState extends BasicGameState {
   
+    /**
+     * Distance (in rooms, on each axis) to the boss' room at which its music
+     * starts.
+     */
+    private static final int BOSS_MUSIC_DISTANCE = 1;
+    
+    /**
+     * Distance (in rooms, on each axis) to the boss' room at which its music
+     * starts being buffered, before it's needed.
+     */
+    private static final int BOSS_MUSIC_PREFETCH_DISTANCE = 3;
+    
+    /**
+     * Duration of the change between the main level's music and the boss'
+     * one, in milliseconds.
+     */
+    private static final int MUSIC_CROSSFADE = 1500;
+    
     private static Room[][][] map;
     
     private Room[][] currentMap;
@@ -47,6 +70,17 @@ public class LevelState extends BasicGameState {
     private int row[] = {0,0}, column[] = {-1,-1};
     
     private MapGenerator mg;
+    
+    /**
+     * Next dungeon, being generated on the background (null if it hasn't been
+     * requested yet).
+     */
+    private static DungeonLoader nextDungeon;
+    
+    /**
+     * True while the screen is black waiting for the next dungeon.
+     */
+    private boolean loadingDungeon = false;
 
     private Player[] player = new Player[2];
     
@@ -64,6 +98,12 @@ public class LevelState extends BasicGameState {
     public static boolean levelBossKilled = false;
     
     private Physics physics;
+    
+    /**
+     * Fixed-timestep clock that tells how many simulation ticks must be run
+     * on each frame.
+     */
+    private SimulationClock clock;
 
     private Rectangle gradientTransitionRect;
     
@@ -133,6 +173,8 @@ public class LevelState extends BasicGameState {
         currentRoom[1] = new Room("none","outside","outside2",
                                   false,false,false,true);
         finalRoom = new Room("none","final","stone",false,false,false,true);
+        currentRoom[0].materialize();
+        currentRoom[1].materialize();
         player[0] = new Player(350,350,32,62,currentRoom[0],Player.Timeline.PAST);
         player[1] = new Player(350,350,32,62,currentRoom[1],Player.Timeline.PRESENT);
     }    
@@ -148,6 +190,15 @@ public class LevelState extends BasicGameState {
         levelBossKilled = false;
         stageIndex = new int[2];
         
+        /* Drops the dungeon that was being prepared and the timed actions of 
+        any previous game */
+        if (nextDungeon != null) {
+            nextDungeon.discard();
+            nextDungeon = null;
+        }
+        MainClass.SCHEDULER.clear();
+        loadingDungeon = false;
+        
         finalRoom = new Room("none","final","stone",false,false,false,true);
         
         stageIndex[0] = 0;
@@ -158,30 +209,18 @@ public class LevelState extends BasicGameState {
                                   false,false,false,true);
         currentRoom[1] = new Room("none","outside","outside2",
                                   false,false,false,true);
+        currentRoom[0].materialize();
+        currentRoom[1].materialize();
         
         player[0] = new Player(350,350,32,62,currentRoom[0],Player.Timeline.PAST);
         player[1] = new Player(350,350,32,62,currentRoom[1],Player.Timeline.PRESENT);
         ((InventoryState) game.getState(INVENTORY_STATE_P1_ID)).setPlayer(player[0]);
         ((InventoryState) game.getState(INVENTORY_STATE_P2_ID)).setPlayer(player[1]);
         
-        /* Generates a new map */
+        /* Generates a new map (its rooms are only loaded when the player gets
+        close to them) */
         mg = new MapGenerator();
-
-        mg.generateMap();
-
-        map = new Room[4][][];
-
-        map[0] = mg.convertMap("castle");
-        map[1] = mg.convertMap("castle2");
-        
-        mg.generateButtons(map[0],mg.generateBlockades(map[1]));
-        
-        mg.generateMap();
-        
-        map[2] = mg.convertMap("temple");
-        map[3] = mg.convertMap("temple2");
-        
-        mg.generateButtons(map[2],mg.generateBlockades(map[3]));
+        map = mg.generateDungeon();
         
         wentInsideDungeon[0] = true;
         wentInsideDungeon[1] = true;
@@ -219,6 +258,8 @@ public class LevelState extends BasicGameState {
         currentRoom[1].setPlayer(player[1]);
         
         physics = new Physics();
+        clock = new SimulationClock(MainClass.TICK_RATE,
+                                    MainClass.MAX_TICKS_PER_FRAME);
         
         miniMap = new MiniMap(currentMap);
 
@@ -234,24 +275,19 @@ public class LevelState extends BasicGameState {
        
     private void createNewDungeon() {
         levelBossKilled = false;
-        /* Generates a new map */
-        mg = new MapGenerator();
-
-        mg.generateMap();
-
-        map = new Room[4][][];
-
-        map[0] = mg.convertMap("castle");
-        map[1] = mg.convertMap("castle2");
-        
-        mg.generateButtons(map[0],mg.generateBlockades(map[1]));
+        /* Throws away the previous dungeon */
+        MapGenerator.discardDungeon(map);
         
-        mg.generateMap();
+        /* Takes the dungeon that was generated on the background (if it 
+        couldn't be done, generates it now) */
+        Room[][][] dungeon = (nextDungeon != null) ? nextDungeon.take() : null;
+        nextDungeon = null;
         
-        map[2] = mg.convertMap("temple");
-        map[3] = mg.convertMap("temple2");
-        
-        mg.generateButtons(map[2],mg.generateBlockades(map[3]));
+        if (dungeon == null) {
+            mg = new MapGenerator();
+            dungeon = mg.generateDungeon();
+        }
+        map = dungeon;
         
         wentInsideDungeon[0] = true;
         wentInsideDungeon[1] = true;
@@ -272,6 +308,9 @@ public class LevelState extends BasicGameState {
         currentRoom[0] = map[0][row[0]][column[0]];
         currentRoom[1] = map[1][row[1]][column[1]];
         
+        materializeAround(map[0], row[0], column[0]);
+        materializeAround(map[1], row[1], column[1]);
+        
         currentRoom[0].setPlayer(player[0]);
         currentRoom[1].setPlayer(player[1]);
         
@@ -294,6 +333,9 @@ public class LevelState extends BasicGameState {
         
         MainClass.currState = MainClass.LEVEL_STATE_ID;
         
+        /* The time spent on other states mustn't be simulated */
+        clock.reset();
+        
         /* If the main level's music wasn't playing, stops the previous sounds
         and plays it */
         if (!MainClass.JUKEBOX.isPlaying(Playlist.GUITAR_CONCERT) && 
@@ -322,28 +364,112 @@ public class LevelState extends BasicGameState {
     @Override
     public void render(GameContainer container, StateBasedGame game, Graphics g) throws SlickException {
         g.scale(MainClass.SCALE, MainClass.SCALE);
+        
+        /* Draws the objects between their last two simulated positions */
+        GameObject.setInterpolation(clock.getInterpolation());
+        long start = MainClass.PROFILER.start();
         currentRoom[worldIdx].render(g);
+        MainClass.PROFILER.stop(Phase.ROOM_RENDER, start);
         
         if (transition) {
             g.setColor(new Color(0, 0, 0, opacityTransition));
             g.fill(gradientTransitionRect);
+            
+            if (loadingDungeon) {
+                g.setColor(Color.white);
+                g.drawString("Loading...", 
+                             currentRoom[worldIdx].getMapWidth() / 2 - 40,
+                             currentRoom[worldIdx].getMapHeight() / 2);
+            }
         }
         
+        start = MainClass.PROFILER.start();
         playerInterface[worldIdx].render(g);
+        MainClass.PROFILER.stop(Phase.HUD_RENDER, start);
         g.setColor(Color.green);      
         
+        start = MainClass.PROFILER.start();
         miniMap.render(g);
+        MainClass.PROFILER.stop(Phase.MINIMAP, start);
         
+        start = MainClass.PROFILER.start();
         soundInterface.render(g);
+        MainClass.PROFILER.stop(Phase.SOUND_UI, start);
+        
+        MainClass.PROFILER.endFrame(currentRoom[worldIdx]);
+        MainClass.PROFILER.render(g);
     }
 
     @Override
     public void update(GameContainer container, StateBasedGame game, int delta) throws SlickException {
+        
+        MainClass.PROFILER.beginFrame();
+        
+        /* Debugging keys of the profiler: F3 -> overlay, F4 -> CSV file */
+        if (container.getInput().isKeyPressed(Input.KEY_F3)) {
+            MainClass.PROFILER.toggleOverlay();
+        }
+        if (container.getInput().isKeyPressed(Input.KEY_F4)) {
+            MainClass.PROFILER.toggleRecording();
+        }
+        
+        /* The simulation advances on ticks of fixed length, so its results
+        (and its cost on each frame) don't depend on the frame rate */
+        int ticks = clock.advance(delta);
+        
+        for (int i = 0; i < ticks; i++) {
+            
+            tick(container, clock.nextTickLength());
+            
+            /* If the player has died, the game state must be changed to one
+            with a "you died" screen, or something */
+            if (player [worldIdx].isDead()) {
+
+                deathState();
+                break;
+            }
+        }
+
+        long start = MainClass.PROFILER.start();
+        playerInterface[worldIdx].update();
+        MainClass.PROFILER.stop(Phase.HUD_UPDATE, start);
+        
+        start = MainClass.PROFILER.start();
+        soundInterface.update(container, delta);
+        MainClass.PROFILER.stop(Phase.SOUND_UI, start);
+    }
+    
+    /**
+     * Simulates a single tick of the level: input, physics, transitions
+     * between rooms and the update of everything inside the current room.
+     * 
+     * @param container
+     *              Container of the game, to get the input from.
+     * @param delta
+     *              Length of the tick, in milliseconds.
+     */
+    private void tick(GameContainer container, int delta) {
+        
+        currentRoom[worldIdx].savePreviousPositions();
+        
+        /* Runs the timed actions (like the enemies changing direction) */
+        MainClass.SCHEDULER.advance(delta);
+        
         // If player is not already in the 'transition' mode
         //<editor-fold desc="Transition info">
         if(!transition) {
+            long start = MainClass.PROFILER.start();
             playerController[worldIdx].handleInput(container.getInput(), delta);
+            MainClass.PROFILER.stop(Phase.INPUT, start);
+            
+            start = MainClass.PROFILER.start();
             physics.handlePhysics(currentRoom[worldIdx], delta);
+            MainClass.PROFILER.stop(Phase.PHYSICS, start);
+            
+            /* The positional sounds are heard from the player */
+            MainClass.JUKEBOX.setListener(
+                    player[worldIdx].getX() + (player[worldIdx].getWidth() / 2),
+                    player[worldIdx].getY() + (player[worldIdx].getHeight() / 2));
             if(changeMapNow) {
                 changeMapNow = false;
                 transitionInfo = TransitionDirection.TIMELINE;
@@ -387,8 +513,9 @@ public class LevelState extends BasicGameState {
 
         if (transition) {
             if (!endTransition) {
-                opacityTransition += 15;
-                if (opacityTransition >= 255) {
+                opacityTransition = Math.min(opacityTransition + 15, 255);
+                /* If the next dungeon isn't ready, the screen stays black */
+                if (opacityTransition >= 255 && !waitingForDungeon()) {
                     endTransition = true;
                     
                     currentRoom[worldIdx].stopEnemies();
@@ -414,6 +541,9 @@ public class LevelState extends BasicGameState {
                                 createNewDungeon();
                             } else {
                                 currentRoom[worldIdx] = finalRoom;
+                                finalRoom.materialize();
+                                /* The next dungeon will be needed soon */
+                                preloadNextDungeon();
                                 currentRoom[worldIdx].setPlayer(player[worldIdx]); // Add the player to the new room.
                                 currentRoom[worldIdx].addCharacter(player[worldIdx]);
                                 if(currentRoom[worldIdx].getCharacters().size()!=2) {
@@ -425,6 +555,7 @@ public class LevelState extends BasicGameState {
                             
                         } else {
                             currentRoom[worldIdx] = map[worldIdx+stageIndex[worldIdx]][row[worldIdx]][column[worldIdx]]; // Change the current room
+                            materializeAround(map[worldIdx+stageIndex[worldIdx]], row[worldIdx], column[worldIdx]);
                             currentRoom[worldIdx].setPlayer(player[worldIdx]); // Add the player to the new room.
                             currentRoom[worldIdx].addCharacter(player[worldIdx]);
                         }
@@ -435,15 +566,18 @@ public class LevelState extends BasicGameState {
                     currentRoom[worldIdx].resumeEnemies();
                     
                     /* Checks if the final boss' music should be played */
-                    if (checkBossDistance()) {
+                    if (checkBossDistance(BOSS_MUSIC_DISTANCE)) {
                         
-                        /* Stops the previous sounds and starts the final boss'
-                        music (only if it wasn't already playing...) */
+                        /* Changes to the final boss' music (only if it wasn't
+                        already playing...) */
                         if (!MainClass.JUKEBOX.isPlaying(Playlist.THE_LURKING_BEAST)) {
                             
-                            MainClass.JUKEBOX.stop();
-                            MainClass.JUKEBOX.play(Playlist.THE_LURKING_BEAST, false, 5);
+                            MainClass.JUKEBOX.crossfade(Playlist.THE_LURKING_BEAST, 5, MUSIC_CROSSFADE);
                         }
+                        
+                        /* The main level's music will be needed when the 
+                        player goes away */
+                        MainClass.JUKEBOX.prefetch(Playlist.GUITAR_CONCERT, 10);
                     } else {
                         
                         /* If the player went to the boss room and came back 
@@ -451,8 +585,17 @@ public class LevelState extends BasicGameState {
                         changes back the main level's music */
                         if (MainClass.JUKEBOX.isPlaying(Playlist.THE_LURKING_BEAST)) {
                             
-                            MainClass.JUKEBOX.stop();
-                            MainClass.JUKEBOX.play(Playlist.GUITAR_CONCERT, false, 10);
+                            MainClass.JUKEBOX.crossfade(Playlist.GUITAR_CONCERT, 10, MUSIC_CROSSFADE);
+                        }
+                        
+                        /* Buffers the boss' music if the player is getting
+                        close, so the change doesn't have to wait for it */
+                        if (checkBossDistance(BOSS_MUSIC_PREFETCH_DISTANCE)) {
+                            
+                            MainClass.JUKEBOX.prefetch(Playlist.THE_LURKING_BEAST, 5);
+                        } else {
+                            
+                            MainClass.JUKEBOX.discardPrefetch();
                         }
                     }
                     
@@ -468,16 +611,16 @@ public class LevelState extends BasicGameState {
                     } else {
                         switch(transitionInfo) {
                             case UP:
-                                player[worldIdx].setY(currentRoom[worldIdx].getMapHeight()-(player[worldIdx].getHeight()/2)-2);
+                                player[worldIdx].teleport(player[worldIdx].getX(), currentRoom[worldIdx].getMapHeight()-(player[worldIdx].getHeight()/2)-2);
                                 break;
                             case DOWN:
-                                player[worldIdx].setY(0-player[worldIdx].getHeight()/2-5);
+                                player[worldIdx].teleport(player[worldIdx].getX(), 0-player[worldIdx].getHeight()/2-5);
                                 break;
                             case LEFT:
-                                player[worldIdx].setX(currentRoom[worldIdx].getMapWidth()-(player[worldIdx].getWidth()/2)-2);
+                                player[worldIdx].teleport(currentRoom[worldIdx].getMapWidth()-(player[worldIdx].getWidth()/2)-2, player[worldIdx].getY());
                                 break;
                             case RIGHT:
-                                player[worldIdx].setX(0-player[worldIdx].getWidth()/2+2);
+                                player[worldIdx].teleport(0-player[worldIdx].getWidth()/2+2, player[worldIdx].getY());
                                 break;
                         }    
                     }
@@ -493,34 +636,103 @@ public class LevelState extends BasicGameState {
         }
         //</editor-fold>
 
+        long start = MainClass.PROFILER.start();
         currentRoom[worldIdx].update(delta);
-
-        playerInterface[worldIdx].update();
+        MainClass.PROFILER.stop(Phase.ROOM_UPDATE, start);
+    }
+    
+    /**
+     * Loads the given room of a map (if it wasn't already loaded) and the 
+     * rooms that can be reached through its doors, so the next room is ready 
+     * when the player goes into it.
+     * 
+     * @param roomMap
+     *              Map that contains the room.
+     * @param r
+     *              Row of the room on the map.
+     * @param c
+     *              Column of the room on the map.
+     */
+    private static void materializeAround (Room[][] roomMap, int r, int c) {
         
-        soundInterface.update(container, delta);
+        Room room = roomMap[r][c];
+        
+        room.materialize();
         
-        /* If the player has died, the game state must be changed to one
-        with a "you died" screen, or something */
-        if (player [worldIdx].isDead()) {
+        if (room.hasUpDoor()) {
+            materializeAt(roomMap, r - 1, c);
+        }
+        if (room.hasDownDoor()) {
+            materializeAt(roomMap, r + 1, c);
+        }
+        if (room.hasLeftDoor()) {
+            materializeAt(roomMap, r, c - 1);
+        }
+        if (room.hasRightDoor()) {
+            materializeAt(roomMap, r, c + 1);
+        }
+    }
+    
+    /**
+     * Loads the room on the given position of a map, if there's one.
+     */
+    private static void materializeAt (Room[][] roomMap, int r, int c) {
+        
+        if (r >= 0 && r < roomMap.length
+                && c >= 0 && c < roomMap[r].length
+                && roomMap[r][c] != null) {
             
-            deathState();
+            roomMap[r][c].materialize();
+        }
+    }
+    
+    /**
+     * Starts generating the next dungeon on the background, if it wasn't 
+     * already being generated.
+     */
+    private static void preloadNextDungeon () {
+        
+        if (nextDungeon == null) {
+            nextDungeon = new DungeonLoader();
         }
     }
     
+    /**
+     * Checks if the current transition leads to a new dungeon that isn't ready
+     * yet, so the loading screen must be shown until it is.
+     * 
+     * @return 
+     *              <i>true</i> if the transition must wait for the new 
+     *          dungeon.
+     */
+    private boolean waitingForDungeon () {
+        
+        boolean newDungeon = (transitionInfo != TransitionDirection.TIMELINE)
+                             && isInFinalRoom[worldIdx]
+                             && (currentRoom[worldIdx] == finalRoom);
+        
+        if (newDungeon) {
+            
+            preloadNextDungeon();
+        }
+        
+        loadingDungeon = newDungeon && !nextDungeon.isDone();
+        return loadingDungeon;
+    }
+    
     /**
      * Checks if the current room is near the boss' room, so the music can be 
      * played.
      * 
+     * @param minDistance
+     *              Maximum number of rooms (on each axis) between the current
+     *          room and the boss' one to say that the current room is "near".
+     * 
      * @return 
      *              <i>true</i> if the current room is near the final boss' 
      *          room, so the musci can be played.
      */
-    private boolean checkBossDistance () {
-       
-        /* Minimum distance required to say that the current room is "near" 
-        the boss' one */
-        int minDistance = 1;
-        
+    private boolean checkBossDistance (int minDistance) {
         
         /* The music will be played
         Current room = row [worldIndex], column[worldIndex} */
@@ -632,6 +844,9 @@ public class LevelState extends BasicGameState {
      * If so, it breaks the blockade that blocked the entrance to the next level.
      */
     public static void enableChangeOfMap() {
+        /* A boss has been killed, so the next dungeon will be needed soon */
+        preloadNextDungeon();
+        
         if(levelBossKilled) {
             System.out.println("level boss killed is FALSSSSEEEEE now");
             levelBossKilled = false;
@@ -12,6 +12,7 @@ import sound.Playlist;
 import main.MainClass;
 import static main.MainClass.JUKEBOX;
 import utils.NumberUtils;
+import utils.AtlasRegistry;
 
 public class MainMenuState extends BasicGameState {
     /**
@@ -85,14 +86,14 @@ public class MainMenuState extends BasicGameState {
         /* Elements initialization (images loading). */
         windowWidth = (int) (MainClass.WINDOW_WIDTH);
         windowHeight = (int) (MainClass.WINDOW_HEIGHT);
-        background = new Image("resources/ui/menuimages/background.png");
-        title = new Image("resources/ui/menuimages/Title.png");
-        selectFile = new Image("resources/ui/menuimages/Play.png");
-        options = new Image("resources/ui/menuimages/Controls.png");
-        exit = new Image("resources/ui/menuimages/Exit.png");
-        selectFileGlow = new Image("resources/ui/menuimages/PlayGlow.png");
-        optionsGlow = new Image("resources/ui/menuimages/ControlsGlow.png");
-        exitGlow = new Image("resources/ui/menuimages/ExitGlow.png");
+        background = AtlasRegistry.getImage("resources/ui/menuimages/background.png");
+        title = AtlasRegistry.getImage("resources/ui/menuimages/Title.png");
+        selectFile = AtlasRegistry.getImage("resources/ui/menuimages/Play.png");
+        options = AtlasRegistry.getImage("resources/ui/menuimages/Controls.png");
+        exit = AtlasRegistry.getImage("resources/ui/menuimages/Exit.png");
+        selectFileGlow = AtlasRegistry.getImage("resources/ui/menuimages/PlayGlow.png");
+        optionsGlow = AtlasRegistry.getImage("resources/ui/menuimages/ControlsGlow.png");
+        exitGlow = AtlasRegistry.getImage("resources/ui/menuimages/ExitGlow.png");
         /* Sizes initialization. */
         backgroundSize = new int[] {windowWidth, windowHeight};
         titleSize = new int[] {title.getWidth(), title.getHeight()};
@@ -1,9 +1,10 @@
 package items;
 
+import animations.SpriteFrame;
 import entities.GameCharacter;
+import main.MainClass;
 import misc.AttacksObserver;
 import org.newdawn.slick.Graphics;
-import org.newdawn.slick.Image;
 import org.newdawn.slick.geom.Polygon;
 import org.newdawn.slick.geom.Vector2f;
 import utils.Transform;
@@ -62,7 +63,7 @@ public class MagicalEffect {
     /**
      * Image that represents the magical effect.
      */
-    private Image image;
+    private SpriteFrame image;
     /**
      * Rotation of the effect in degrees.
      */
@@ -85,7 +86,7 @@ public class MagicalEffect {
      * @param image
      *              Image that will be used to represent the current effect.
      */
-    public MagicalEffect (Vector2f coordinates, float side, int attack, Image image) {
+    public MagicalEffect (Vector2f coordinates, float side, int attack, SpriteFrame image) {
         
         /* Initializations: */
         this.refreshAttack = 0;
@@ -255,9 +256,11 @@ public class MagicalEffect {
      */
     public void render (Graphics g) {
         
-        image.setCenterOfRotation(image.getWidth() / 2, image.getHeight() / 2);
-        image.setRotation(rotation);
-        image.draw(center.x, center.y, side, side);
+        /* The rotation is given to the batch, so the image (that's shared 
+        with the item) isn't modified */
+        MainClass.spriteRenderer.draw(image, center.x, center.y, side, side,
+                                    rotation,
+                                    image.getWidth() / 2, image.getHeight() / 2);
         //g.draw (body);
     }
     
@@ -266,6 +269,29 @@ public class MagicalEffect {
 /* ---- GETTERS AND SETTERS --- */
 /* ---------------------------- */
     
+    /**
+     * Returns the collision box of this effect.
+     * 
+     * @return 
+     *          The value of <i>body</i>.
+     */
+    public Polygon getBody () {
+        
+        return body;
+    }
+    
+    /**
+     * Returns <i>true</i> if the effect is still waiting to hit again, so
+     * {@link #checkAndHit(GameCharacter)} won't check any collision.
+     * 
+     * @return 
+     *          <i>true</i> if <i>refreshAttack</i> didn't reach 0 yet.
+     */
+    public boolean isRecharging () {
+        
+        return refreshAttack > 0;
+    }
+    
     /**
      * Changes the observer that's going to control the state of this projectile.
      * 
@@ -1,5 +1,6 @@
 package items;
 
+import animations.SpriteFrame;
 import entities.Player;
 import misc.AttacksObserver;
 import org.newdawn.slick.Graphics;
@@ -8,7 +9,6 @@ import org.newdawn.slick.geom.Rectangle;
 import org.newdawn.slick.geom.Vector2f;
 import physics.BoundingShape;
 import main.MainClass;
-import org.newdawn.slick.Image;
 
 /**
  *
@@ -38,7 +38,7 @@ public class Projectile {
     /**
      * Image that will be used to represent this proyectile.
      */
-    private Image image;
+    private SpriteFrame image;
     
 /* -------------------------------------- */
 /* ---- END OF ATTRIBUTES DECLARATION --- */
@@ -60,7 +60,7 @@ public class Projectile {
      *          Damage that the enemy will recieve when it gets hit.
      */
     public Projectile(Player player, int width, int height, Vector2f speed, 
-                      int attack, Image image) {
+                      int attack, SpriteFrame image) {
         
         Vector2f playerCenter = new Vector2f (
                                 player.getX() + (player.getHeight() / 2),
@@ -146,7 +146,7 @@ public class Projectile {
      *          Graphics on which the image will be drawn.
      */
     public void render(Graphics g) {
-        g.drawImage(image,collider.getX(), collider.getY());
+        MainClass.spriteRenderer.draw(image, collider.getX(), collider.getY());
     }
     
     
@@ -222,6 +222,17 @@ public class Projectile {
         return attack;
     }
     
+    /**
+     * Returns the body of this projectile.
+     * 
+     * @return 
+     *          The value of <i>collider</i>.
+     */
+    public Polygon getCollider () {
+        
+        return collider;
+    }
+    
     /**
      * Changes the observer that's going to control the state of this projectile.
      * 
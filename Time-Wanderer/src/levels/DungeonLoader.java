@@ -0,0 +1,105 @@
+package levels;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Generates a new dungeon on a background thread, so it's (hopefully) ready
+ * by the time the player goes into it, instead of freezing the game while it's
+ * created.
+ * The worker only creates the layout of the dungeon: its rooms aren't loaded
+ * until the game thread materializes them (see {@link Room#materialize()}),
+ * so it never needs the OpenGL context. If anything fails anyway,
+ * {@link #take()} returns null and the dungeon has to be generated on the game
+ * thread.
+ */
+public class DungeonLoader {
+
+    /**
+     * Generation of the dungeon.
+     */
+    private final FutureTask<Room[][][]> task;
+
+    /**
+     * True if the dungeon won't be used, so it has to be discarded as soon as
+     * it's generated.
+     */
+    private boolean discarded;
+
+    /**
+     * Constructor. Starts generating the dungeon right away.
+     */
+    public DungeonLoader() {
+
+        this.discarded = false;
+        this.task = new FutureTask<Room[][][]>(
+                () -> new MapGenerator().generateDungeon()) {
+
+            @Override
+            protected void done() {
+                synchronized (DungeonLoader.this) {
+                    if (discarded) {
+                        discardResult();
+                    }
+                }
+            }
+        };
+
+        Thread worker = new Thread(task, "DungeonLoader");
+        /* The game shouldn't wait for it to exit, nor lose frames for it */
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    /**
+     * Returns true if the generation has finished (successfully or not), so
+     * {@link #take()} won't block.
+     */
+    public boolean isDone() {
+        return task.isDone();
+    }
+
+    /**
+     * Returns the generated dungeon, waiting for it if it isn't ready yet.
+     * @return The maps of the dungeon (see
+     * {@link MapGenerator#generateDungeon()}), or null if the generation
+     * failed.
+     */
+    public Room[][][] take() {
+
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            System.out.println("Exception at DungeonLoader.take(): "
+                    + ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Throws away the dungeon, now or as soon as it's generated.
+     */
+    public synchronized void discard() {
+
+        discarded = true;
+
+        if (task.isDone()) {
+            discardResult();
+        }
+    }
+
+    /**
+     * Cancels the timed actions of the rooms of the generated dungeon.
+     */
+    private void discardResult() {
+
+        Room[][][] dungeon = take();
+
+        if (dungeon != null) {
+            MapGenerator.discardDungeon(dungeon);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package levels;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import levels.tiles.CollisionGrid;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Data of a room that the simulation needs: the collision tiles of the static
+ * layers, the tiles of each blockade and the positions of the objects (spawn
+ * points of the enemies, the player, the buttons and the chests).
+ * It's read straight from the .tmx file, without loading the tilesets, so it
+ * doesn't need an OpenGL context (the rooms can be simulated without a
+ * display). The type of each tile, the only property of the tilesets that the
+ * collisions need, is written on the .tmx file too.
+ * None of the data returned by a level should be modified.
+ */
+public class LevelData {
+
+    /**
+     * Names of the blockade layers, in the same order as the directions used
+     * by the rooms (0: up, 1: down, 2: left, 3: right).
+     */
+    private static final String[] BLOCKADE_LAYERS = {
+        "UpBlockingLayer", "DownBlockingLayer",
+        "LeftBlockingLayer", "RightBlockingLayer"
+    };
+
+    /**
+     * Collision tiles from the static layers of the room (without blockades).
+     */
+    private final CollisionGrid baseTiles;
+    /**
+     * Tiles of each blockade, stored as pairs of (column, row).
+     */
+    private final int[][] blockadeTiles;
+    /**
+     * Coordinates of the objects of each object group, as pairs of (x, y).
+     */
+    private final int[][] objects;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    private LevelData(CollisionGrid baseTiles, int[][] blockadeTiles,
+            int[][] objects) {
+
+        this.baseTiles = baseTiles;
+        this.blockadeTiles = blockadeTiles;
+        this.objects = objects;
+    }
+
+    /**
+     * Reads the data of a room from its .tmx file.
+     *
+     * @param in Contents of the .tmx file (it isn't closed).
+     * @param outside True if it's the map of the outside, that has no damaging
+     * tiles, ladders or blockades.
+     * @return The data of the room.
+     * @throws IOException If the file couldn't be read or it isn't a valid
+     * map.
+     */
+    public static LevelData load(InputStream in, boolean outside)
+            throws IOException {
+
+        Document doc;
+
+        try {
+            doc = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(in);
+        } catch (ParserConfigurationException | SAXException ex) {
+            throw new IOException("Invalid map: " + ex.getMessage(), ex);
+        }
+
+        try {
+            Element root = doc.getDocumentElement();
+            int columns = Integer.parseInt(root.getAttribute("width"));
+            int rows = Integer.parseInt(root.getAttribute("height"));
+            Map<Integer, String> tileTypes = readTileTypes(doc);
+            Map<String, int[]> layers = readLayers(doc, columns, rows);
+
+            CollisionGrid baseTiles = new CollisionGrid(columns, rows);
+            loadTileLayer(baseTiles, layers.get("CollisionLayer"), tileTypes,
+                    CollisionGrid.SOLID);
+            loadTileLayer(baseTiles, layers.get("PlatformLayer"), tileTypes,
+                    CollisionGrid.PLATFORM);
+            if (!outside) {
+                loadTileLayer(baseTiles, layers.get("DamagingLayer"),
+                        tileTypes, CollisionGrid.DAMAGING);
+                loadTileLayer(baseTiles, layers.get("LadderLayer"),
+                        tileTypes, CollisionGrid.LADDER);
+            }
+
+            int[][] blockadeTiles = new int[BLOCKADE_LAYERS.length][];
+            for (int i = 0; i < BLOCKADE_LAYERS.length; i++) {
+                blockadeTiles[i] = outside ? new int[0]
+                        : loadBlockadeLayer(layers.get(BLOCKADE_LAYERS[i]),
+                                tileTypes, columns, rows);
+            }
+
+            return new LevelData(baseTiles, blockadeTiles, readObjects(doc));
+
+        } catch (IllegalArgumentException ex) {
+            /* Also thrown by the decoders of the layers, and a
+            NumberFormatException is one of them */
+            throw new IOException("Invalid map: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Sets on the collision grid the tiles of the given layer.
+     *
+     * @param grid Grid where the tiles are set.
+     * @param layer Global identifier of each tile of the layer, row by row
+     * (null if the map doesn't have the layer).
+     * @param tileTypes Value of the "tileType" property of each tile.
+     * @param type Kind of tile of the layer.
+     */
+    private static void loadTileLayer(CollisionGrid grid, int[] layer,
+            Map<Integer, String> tileTypes, byte type) {
+
+        if (layer == null) {
+            return;
+        }
+
+        for (int x = 0; x < grid.getColumns(); x++) {
+            for (int y = 0; y < grid.getRows(); y++) {
+                int tileID = layer[y * grid.getColumns() + x];
+
+                // Obtain the property of the tile. If the property is
+                // "empty", then it is an emptytile. by default, in that layer
+                // the tiles will be the tiles corresponding to the layer name.
+                if (!getTileType(tileTypes, tileID, "non-empty")
+                        .equals("empty")) {
+                    grid.set(x, y, type);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the tiles of the given blockade layer, as pairs of (column, row).
+     */
+    private static int[] loadBlockadeLayer(int[] layer,
+            Map<Integer, String> tileTypes, int columns, int rows) {
+
+        if (layer == null) {
+            return new int[0];
+        }
+
+        int[] cells = new int[columns * rows * 2];
+        int length = 0;
+
+        for (int x = 0; x < columns; x++) {
+            for (int y = 0; y < rows; y++) {
+                int tileID = layer[y * columns + x];
+
+                // Obtain the property of the tile. If the property is
+                // "empty", then it is an emptytile. by default, in that layer
+                // the tiles will be solid tiles.
+                if (!getTileType(tileTypes, tileID, "blockade")
+                        .equals("empty")) {
+                    cells[length++] = x;
+                    cells[length++] = y;
+                }
+            }
+        }
+        return Arrays.copyOf(cells, length);
+    }
+
+    /**
+     * Returns the "tileType" property of a tile, or the given default value if
+     * it doesn't have one (the empty cells, with identifier 0, never have it).
+     */
+    private static String getTileType(Map<Integer, String> tileTypes,
+            int tileID, String def) {
+
+        if (tileID == 0) {
+            return def;
+        }
+        return tileTypes.getOrDefault(tileID, def);
+    }
+
+    /**
+     * Reads the "tileType" property of the tiles of every tileset embedded on
+     * the map.
+     *
+     * @return The value of the property, by the global identifier of the tile.
+     */
+    private static Map<Integer, String> readTileTypes(Document doc) {
+
+        Map<Integer, String> types = new HashMap<>();
+        NodeList tilesets = doc.getElementsByTagName("tileset");
+
+        for (int i = 0; i < tilesets.getLength(); i++) {
+            Element tileset = (Element) tilesets.item(i);
+            int firstGID = Integer.parseInt(tileset.getAttribute("firstgid"));
+            NodeList tiles = tileset.getElementsByTagName("tile");
+
+            for (int j = 0; j < tiles.getLength(); j++) {
+                Element tile = (Element) tiles.item(j);
+                NodeList properties = tile.getElementsByTagName("property");
+
+                for (int k = 0; k < properties.getLength(); k++) {
+                    Element property = (Element) properties.item(k);
+
+                    if (property.getAttribute("name").equals("tileType")) {
+                        types.put(firstGID
+                                + Integer.parseInt(tile.getAttribute("id")),
+                                property.getAttribute("value"));
+                    }
+                }
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Decodes the tile layers of the map.
+     *
+     * @return The global identifier of each tile (0 if the cell is empty), row
+     * by row, by the name of the layer.
+     * @throws IOException If the data of a layer couldn't be decompressed.
+     */
+    private static Map<String, int[]> readLayers(Document doc, int columns,
+            int rows) throws IOException {
+
+        Map<String, int[]> layers = new HashMap<>();
+        NodeList nodes = doc.getElementsByTagName("layer");
+
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Element layer = (Element) nodes.item(i);
+            Element data = (Element) layer.getElementsByTagName("data").item(0);
+
+            if (data == null) {
+                throw new IllegalArgumentException("layer without data");
+            }
+            layers.put(layer.getAttribute("name"),
+                    decodeLayer(data, columns * rows));
+        }
+        return layers;
+    }
+
+    /**
+     * Decodes the data of a tile layer, stored as base64 and, optionally,
+     * compressed with gzip or zlib (the formats written by Tiled).
+     *
+     * @param data Element with the data of the layer.
+     * @param size Number of tiles of the layer.
+     * @return The global identifier of each tile, row by row.
+     * @throws IOException If the data couldn't be decompressed.
+     */
+    private static int[] decodeLayer(Element data, int size)
+            throws IOException {
+
+        if (!data.getAttribute("encoding").equals("base64")) {
+            throw new IllegalArgumentException("unsupported encoding: "
+                    + data.getAttribute("encoding"));
+        }
+
+        byte[] bytes = Base64.getMimeDecoder()
+                .decode(data.getTextContent().trim());
+        InputStream in = new ByteArrayInputStream(bytes);
+
+        switch (data.getAttribute("compression")) {
+            case "gzip":
+                in = new GZIPInputStream(in);
+                break;
+            case "zlib":
+                in = new InflaterInputStream(in);
+                break;
+            case "":
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported compression: "
+                        + data.getAttribute("compression"));
+        }
+
+        int[] tiles = new int[size];
+
+        try (InputStream tileData = in) {
+            for (int i = 0; i < size; i++) {
+                int tileID = 0;
+
+                /* Each identifier takes 4 bytes, in little-endian order */
+                for (int b = 0; b < 4; b++) {
+                    int value = tileData.read();
+
+                    if (value < 0) {
+                        throw new IOException("truncated layer data");
+                    }
+                    tileID |= value << (8 * b);
+                }
+                tiles[i] = tileID;
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Reads the position of the objects of every object group, in the same
+     * order as they appear on the map.
+     */
+    private static int[][] readObjects(Document doc) {
+
+        NodeList groups = doc.getElementsByTagName("objectgroup");
+        List<int[]> objects = new ArrayList<>();
+
+        for (int group = 0; group < groups.getLength(); group++) {
+            NodeList nodes = ((Element) groups.item(group))
+                    .getElementsByTagName("object");
+            int[] positions = new int[nodes.getLength() * 2];
+
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Element object = (Element) nodes.item(i);
+
+                positions[2 * i] = Integer.parseInt(object.getAttribute("x"));
+                positions[2 * i + 1]
+                        = Integer.parseInt(object.getAttribute("y"));
+            }
+            objects.add(positions);
+        }
+        return objects.toArray(new int[objects.size()][]);
+    }
+
+    /**
+     * Returns the number of columns of the map.
+     */
+    public int getColumns() {
+        return baseTiles.getColumns();
+    }
+
+    /**
+     * Returns the number of rows of the map.
+     */
+    public int getRows() {
+        return baseTiles.getRows();
+    }
+
+    /**
+     * Returns the collision tiles of the static layers (without blockades).
+     */
+    public CollisionGrid getBaseTiles() {
+        return baseTiles;
+    }
+
+    /**
+     * Returns the tiles that a blockade makes solid.
+     *
+     * @param direction 0: up   1: down  2: left  3: right.
+     * @return Pairs of (column, row) with the position of each tile.
+     */
+    public int[] getBlockadeTiles(int direction) {
+        return blockadeTiles[direction];
+    }
+
+    /**
+     * Returns the number of objects on the given object group, or -1 if the
+     * group doesn't exist.
+     */
+    public int getObjectCount(int group) {
+        if (group < 0 || group >= objects.length) {
+            return -1;
+        }
+        return objects[group].length / 2;
+    }
+
+    /**
+     * Returns the X coordinate of an object, or -1 if it doesn't exist.
+     */
+    public int getObjectX(int group, int object) {
+        if (object < 0 || object >= getObjectCount(group)) {
+            return -1;
+        }
+        return objects[group][2 * object];
+    }
+
+    /**
+     * Returns the Y coordinate of an object, or -1 if it doesn't exist.
+     */
+    public int getObjectY(int group, int object) {
+        if (object < 0 || object >= getObjectCount(group)) {
+            return -1;
+        }
+        return objects[group][2 * object + 1];
+    }
+}
@@ -1,6 +1,5 @@
 package levels;
 
-import entities.LevelButton;
 import utils.Coordinates;
 import java.util.ArrayList;
 import java.util.Random;
@@ -117,6 +116,50 @@ public class MapGenerator {
         
     }
 
+    /**
+     * Generates all the maps of a new dungeon: the two castle maps and the two
+     * temple maps (one for each timeline), with their blockades and buttons.
+     * @return Array with the maps, in order: castle, castle2, temple, temple2.
+     */
+    public Room[][][] generateDungeon() {
+        
+        Room[][][] dungeon = new Room[4][][];
+        
+        generateMap();
+
+        dungeon[0] = convertMap("castle");
+        dungeon[1] = convertMap("castle2");
+        
+        generateButtons(dungeon[0], generateBlockades(dungeon[1]));
+        
+        generateMap();
+        
+        dungeon[2] = convertMap("temple");
+        dungeon[3] = convertMap("temple2");
+        
+        generateButtons(dungeon[2], generateBlockades(dungeon[3]));
+        
+        return dungeon;
+    }
+    
+    /**
+     * Cancels the timed actions of every room of a dungeon, so the enemies of
+     * the rooms that won't be used anymore stop acting.
+     * @param dungeon Maps of the dungeon that is thrown away.
+     */
+    public static void discardDungeon(Room[][][] dungeon) {
+        
+        for (Room[][] world : dungeon) {
+            for (Room[] roomRow : world) {
+                for (Room room : roomRow) {
+                    if (room != null) {
+                        room.discard();
+                    }
+                }
+            }
+        }
+    }
+    
     /**
      * Using the 3d matrix of booleans, turns the values into a matrix of
      * rooms (Room[][]) that represent the map.
@@ -153,7 +196,7 @@ public class MapGenerator {
             for (int j = 0; j < columns; j++) {
                 if(i == bossRoomRow && j == bossRoomColumn) {
                     map[i][j] = new Room("J","boss",tileset,false,false,true,false);
-                    map[i][j].fillObjectLayer();
+                    map[i][j].planObjects();
                     map[i][j].setRightBlockade(true);
                 } else {
                     map[i][j] = getValidLevel(preMap[i][j],levels);
@@ -177,7 +220,7 @@ public class MapGenerator {
         for (Room level : levels) {
             if (level.validLevel(info)) {
                 returnLevel = level.makeRoomCopy();
-                returnLevel.fillObjectLayer();
+                returnLevel.planObjects();
                 break;
             }
         }
@@ -268,10 +311,7 @@ public class MapGenerator {
                         if(100*Math.random() <= probability) {
                             int chosenBlockade = randomSeed.nextInt(blockadesArray.size());
                             BlockadeInfo bi = blockadesArray.get(chosenBlockade);
-                            LevelButton button = new LevelButton(0, 0, 32, 32,
-                                    bi.getRoom1(), bi.getRoom2(), bi.getDirection());
-                            finishedMap[i][j].addGameObject(button);
-                            finishedMap[i][j].placeButton(button);
+                            finishedMap[i][j].planButton(bi);
                             numberOfButtonsCreated++;
                             roomsWithButtons.add(new Coordinates(i, j));
                             blockadesArray.remove(chosenBlockade);
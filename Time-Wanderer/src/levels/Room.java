@@ -1,9 +1,7 @@
 package levels;
 
 import entities.Enemy;
-import levels.tiles.SolidTile;
-import levels.tiles.Tile;
-import levels.tiles.EmptyTile;
+import levels.tiles.CollisionGrid;
 import entities.GameCharacter;
 import entities.GameObject;
 import entities.LevelButton;
@@ -12,20 +10,25 @@ import items.Item;
 import items.MeleeWeapon;
 import items.Projectile;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import levels.tiles.DamagingTile;
-import levels.tiles.LadderTile;
-import levels.tiles.PlatformTile;
 import static levels.tiles.Tile.TILE_SIZE;
+import main.MainClass;
 import misc.AttacksObserver;
+import misc.FrameProfiler;
+import misc.SpriteBatch;
 import creators.EnemyCreator;
 import entities.VersatileChest;
 import items.Catalog;
 import items.MagicalEffect;
+import org.newdawn.slick.Color;
 import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.tiled.TiledMap;
+import utils.BlockadeInfo;
 
 /**
  * Class that contains the state of a room. Contains the booleans that tell if
@@ -34,13 +37,46 @@ import org.newdawn.slick.tiled.TiledMap;
  * arraylists: one to store the GameCharacters inside this room, and another to
  * store the GameObjects inside this room. GameCharacters are only inside the
  * characters arraylist, even if they inherit from gameobject too. Stores the
- * ported map from Tiled in an object of class TiledMap, and a 2d array of tiles
- * that represent all the different kind of tiles that form the room.
+ * ported map from Tiled in an object of class TiledMap, and a collision grid
+ * that represents all the different kind of tiles that form the room.
  *
  * @author sergio
  */
 public class Room {
 
+    /**
+     * Maximum number of rooms whose static layers are kept on offscreen images.
+     */
+    private static final int LAYER_CACHE_SIZE = 4;
+    /**
+     * Offscreen images with the static layers (and blockades) of the last rooms
+     * that have been rendered. When it's full, the image of the room that was
+     * rendered the longest ago is destroyed. It's only used from the rendering
+     * thread.
+     */
+    private static final Map<Room, Image> LAYER_CACHE
+            = new LinkedHashMap<Room, Image>(LAYER_CACHE_SIZE + 1, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Room, Image> eldest) {
+            if (size() <= LAYER_CACHE_SIZE) {
+                return false;
+            }
+            try {
+                eldest.getValue().destroy();
+            } catch (SlickException ex) {
+                System.out.println("Unable to destroy the layers of a room: "
+                        + ex.getMessage());
+            }
+            return true;
+        }
+    };
+    /**
+     * False if the offscreen images can't be created (so the layers are
+     * rendered directly every frame).
+     */
+    private static boolean layerCacheAvailable = true;
+
     private boolean upDoor;
     private boolean downDoor;
     private boolean leftDoor;
@@ -71,7 +107,25 @@ public class Room {
     private ConcurrentLinkedQueue<Item> items;
     private Player player;
 
-    private Tile[][] tiles;
+    /**
+     * Collision tiles of the room, with the blockades that are currently active.
+     */
+    private CollisionGrid tiles;
+    /**
+     * Parsed .tmx file, shared with every room created from the same file and
+     * tileset.
+     */
+    private RoomTemplate template;
+    /**
+     * Data of the template used by the simulation. Contains the collision
+     * tiles of the static layers, which are copied into 'tiles' every time a
+     * blockade changes.
+     */
+    private LevelData level;
+    /**
+     * Tile layers of the template, loaded the first time that the room is
+     * rendered (so it can be simulated without an OpenGL context).
+     */
     private TiledMap map;
 
     private float mapWidth;
@@ -82,6 +136,26 @@ public class Room {
     private boolean visited = false;
     
     private boolean bossRoom = false;
+    /**
+     * True if the static layers have to be drawn again on the offscreen image
+     * (because a blockade has changed).
+     */
+    private boolean layersChanged = true;
+    /**
+     * True once the map and the contents of the room have been created (see
+     * {@link #materialize()}).
+     */
+    private boolean materialized = false;
+    /**
+     * True if the enemies and chests have to be spawned when the room is
+     * materialized.
+     */
+    private boolean objectsPlanned = false;
+    /**
+     * Blockades whose buttons have to be placed in this room when it's
+     * materialized.
+     */
+    private final ArrayList<BlockadeInfo> plannedButtons = new ArrayList<>();
     /**
      * Observer that will control every attack performed by the player.
      */
@@ -109,20 +183,47 @@ public class Room {
         this.items = new ConcurrentLinkedQueue<>();
 
         this.observer = new AttacksObserver(this);
+        
+        float randomNumber = (float) (Math.random() * 100);
+        //isNight = randomNumber >= 75;
+        bossRoom = roomName.equals("boss");
+        
+    }
+
+    /**
+     * Loads the map of the room and creates its contents (the enemies, chests
+     * and buttons planned by the map generator). Until then, the room only
+     * describes its doors, blockades and what it will contain, so a whole
+     * dungeon can be generated without loading the rooms that the player
+     * never visits.
+     * It must be called before the room is entered (calling it again has no
+     * effect).
+     */
+    public void materialize() {
+
+        if (materialized) {
+            return;
+        }
+        materialized = true;
 
         try {
-            map = new TiledMap(roomPath, "resources/tilesets/" + tilesetName);
+            template = RoomTemplate.get(roomName, tilesetName);
+            level = template.getLevel();
         } catch (SlickException ex) {
             System.out.println("Unable to load " + roomName + ".tmx file.\n" + ex.getMessage());
         }
         this.loadTileMap();
-        this.mapWidth = tiles.length * TILE_SIZE;
-        this.mapHeight = tiles[0].length * TILE_SIZE;
-        
-        float randomNumber = (float) (Math.random() * 100);
-        //isNight = randomNumber >= 75;
-        bossRoom = roomName.equals("boss");
-        
+        this.mapWidth = tiles.getColumns() * TILE_SIZE;
+        this.mapHeight = tiles.getRows() * TILE_SIZE;
+
+        if (objectsPlanned) {
+            fillObjectLayer();
+        }
+
+        for (BlockadeInfo blockade : plannedButtons) {
+            createButton(blockade);
+        }
+        plannedButtons.clear();
     }
 
     public Room makeRoomCopy() {
@@ -135,85 +236,139 @@ public class Room {
      * @param g object from Graphics class used to render the room.
      */
     public void render(Graphics g) {
-        if (!roomName.equals("outside")) {
-            // Render all except the blockades
-            for (int i = 0; i < 8; i++) {
-                map.render(0, 0, i);
+        if (map == null) {
+            try {
+                map = template.getMap();
+            } catch (SlickException ex) {
+                System.out.println("Unable to load the tiles of " + roomName
+                        + ".tmx file.\n" + ex.getMessage());
+                return;
             }
+        }
 
-            if (hasUpBlockade()) {
-                map.render(0, 0, 8);
-            }
+        renderStaticLayers(g);
+        renderObjects(g);
 
-            if (hasDownBlockade()) {
-                map.render(0, 0, 9);
-            }
+        if (roomName.equals("outside")) {
+            map.render(0,0,8);
+            
+            //if(isNight)
+            //    map.render(0,0,9);
+        }
+    }
 
-            if (hasLeftBlockade()) {
-                map.render(0, 0, 10);
-            }
+    /**
+     * Renders the player and all the objects on the room. Their sprites are
+     * gathered on the sprite batch (each kind of object on its own layer, in
+     * the same order as they were drawn before) and drawn together at the end.
+     *
+     * @param g object from Graphics class used to render the room.
+     */
+    private void renderObjects(Graphics g) {
+        SpriteBatch batch = MainClass.SPRITE_BATCH;
 
-            if (hasRightBlockade()) {
-                map.render(0, 0, 11);
-            }
+        batch.setLayer(0);
+        player.render(g);
 
-            /* Renders the player and all the objects on the room */
-            player.render(g);
+        batch.setLayer(1);
+        for (GameObject obj : gameObjects) {
+            obj.render(g);
+        }
 
-            for (GameObject obj : gameObjects) {
-                obj.render(g);
-            }
+        batch.setLayer(2);
+        for (GameCharacter c : characters) {
+            c.render(g);
+        }
 
-            for (GameCharacter c : characters) {
-                c.render(g);
-            }
+        batch.setLayer(3);
+        for (Item i : items) {
+            i.render(g);
+        }
 
-            for (Item i : items) {
+        batch.setLayer(4);
+        for (Projectile p : projectiles) {
+            p.render(g);
+        }
 
-                i.render(g);
-            }
+        batch.setLayer(5);
+        for (MagicalEffect m : magicalEffects) {
+            m.render(g);
+        }
 
-            for (Projectile p : projectiles) {
+        batch.flush(g);
+        batch.setLayer(0);
+    }
 
-                p.render(g);
-            }
-            
-            for (MagicalEffect m : magicalEffects) {
-                m.render(g);
-            }
-            
-        } else {
-            for (int i = 0; i < 8; i++) {
-                map.render(0, 0, i);
-            }
+    /**
+     * Renders the layers of the map that don't change (and the active
+     * blockades). They're drawn once on an offscreen image, that is drawn
+     * again until a blockade changes, instead of rendering every tile of every
+     * layer on each frame.
+     *
+     * @param g object from Graphics class used to render the room.
+     */
+    private void renderStaticLayers(Graphics g) {
+        if (!layerCacheAvailable) {
+            drawStaticLayers();
+            return;
+        }
 
-            /* Renders the player and all the objects on the room */
-            player.render(g);
+        Image layers = LAYER_CACHE.get(this);
 
-            for (GameObject obj : gameObjects) {
-                obj.render(g);
+        if (layers == null || layersChanged) {
+            try {
+                if (layers == null) {
+                    layers = new Image((int) mapWidth, (int) mapHeight);
+                    LAYER_CACHE.put(this, layers);
+                }
+
+                Graphics offscreen = layers.getGraphics();
+                Graphics.setCurrent(offscreen);
+                offscreen.setBackground(Color.transparent);
+                offscreen.clear();
+                drawStaticLayers();
+                offscreen.flush();
+                Graphics.setCurrent(g);
+
+                layersChanged = false;
+            } catch (SlickException ex) {
+                System.out.println("Unable to cache the layers of the room: "
+                        + ex.getMessage());
+                Graphics.setCurrent(g);
+                LAYER_CACHE.remove(this);
+                layerCacheAvailable = false;
+                drawStaticLayers();
+                return;
             }
+        }
+        g.drawImage(layers, 0, 0);
+    }
+
+    /**
+     * Draws every static layer of the map, and the blockades that are active.
+     */
+    private void drawStaticLayers() {
+        // Render all except the blockades
+        for (int i = 0; i < 8; i++) {
+            map.render(0, 0, i);
+        }
 
-            for (GameCharacter c : characters) {
-                c.render(g);
+        if (!roomName.equals("outside")) {
+            if (hasUpBlockade()) {
+                map.render(0, 0, 8);
             }
 
-            for (Item i : items) {
-                i.render(g);
+            if (hasDownBlockade()) {
+                map.render(0, 0, 9);
             }
 
-            for (Projectile p : projectiles) {
-                p.render(g);
+            if (hasLeftBlockade()) {
+                map.render(0, 0, 10);
             }
-            
-            for (MagicalEffect m : magicalEffects) {
-                m.render(g);
+
+            if (hasRightBlockade()) {
+                map.render(0, 0, 11);
             }
-            
-            map.render(0,0,8);
-            
-            //if(isNight)
-            //    map.render(0,0,9);
         }
     }
 
@@ -227,8 +382,11 @@ public class Room {
 
         MeleeWeapon melee;
 
+        /* Advances the player's timed actions (attack, climbing animation) */
+        player.update(delta);
+
         /**
-         * First, updates the player's weapons
+         * Then, updates the player's weapons
          */
         if ((melee = player.getInventory().getMeleeWeapon()) != null) {
             melee.update();
@@ -265,47 +423,92 @@ public class Room {
             m.update(delta);
         }
 
+        long start = MainClass.PROFILER.start();
         observer.update();
+        MainClass.PROFILER.stop(FrameProfiler.Phase.OBSERVER, start);
     }
 
     /**
-     * Method to load each tile of the map into a matrix. Helpful for static
-     * tiles that need to collide with other moving entities.
+     * Stores the current position of every object in the room as the position
+     * of the previous tick, so they can be interpolated when rendering.
+     * Must be called at the beginning of each simulation tick.
      */
-    public void loadTileMap() {
-        tiles = new Tile[map.getWidth()][map.getHeight()];
+    public void savePreviousPositions() {
+        for (GameCharacter c : characters) {
+            c.savePreviousPosition();
+        }
 
-        for (int i = 0; i < map.getWidth(); i++) {
-            for (int j = 0; j < map.getHeight(); j++) {
-                tiles[i][j] = new EmptyTile(i, j);
-            }
+        for (GameObject obj : gameObjects) {
+            obj.savePreviousPosition();
         }
+    }
+
+    /**
+     * Method to load each tile of the map into the collision grid. Helpful for
+     * static tiles that need to collide with other moving entities.
+     * The static layers are taken from the template; after that, only the
+     * tiles of the active blockades are applied again over a copy of them.
+     */
+    public void loadTileMap() {
+        if (tiles == null) {
+            tiles = new CollisionGrid(level.getColumns(), level.getRows());
+        }
+
+        tiles.copyFrom(level.getBaseTiles());
 
-        loadTileLayer("CollisionLayer");
-        loadTileLayer("PlatformLayer");
         if(!roomName.equals("outside")) {
-            loadTileLayer("DamagingLayer");
-            loadTileLayer("LadderLayer");
-            loadTileBlockadeLayer("UpBlockingLayer", 0);
-            loadTileBlockadeLayer("DownBlockingLayer", 1);
-            loadTileBlockadeLayer("LeftBlockingLayer", 2);
-            loadTileBlockadeLayer("RightBlockingLayer", 3);
+            loadTileBlockadeLayer(0);
+            loadTileBlockadeLayer(1);
+            loadTileBlockadeLayer(2);
+            loadTileBlockadeLayer(3);
         }
     }
 
+    /**
+     * Makes the room spawn its enemies and chests. If it's already
+     * materialized they're spawned right away; if not, when it's materialized.
+     */
+    public void planObjects() {
+        if (materialized) {
+            fillObjectLayer();
+        } else {
+            objectsPlanned = true;
+        }
+    }
+
+    /**
+     * Makes the room contain the button that opens the given blockade. If it's
+     * already materialized it's placed right away; if not, when it's
+     * materialized.
+     */
+    public void planButton(BlockadeInfo blockade) {
+        if (materialized) {
+            createButton(blockade);
+        } else {
+            plannedButtons.add(blockade);
+        }
+    }
+
+    private void createButton(BlockadeInfo blockade) {
+        LevelButton button = new LevelButton(0, 0, 32, 32,
+                blockade.getRoom1(), blockade.getRoom2(), blockade.getDirection());
+        addGameObject(button);
+        placeButton(button);
+    }
+
     /**
      * Spawn enemies, and some other
      * objects.
      */
-    public void fillObjectLayer() {
+    private void fillObjectLayer() {
         Random random = new Random();
 
-        int numberOfEnemies = map.getObjectCount(0);
+        int numberOfEnemies = level.getObjectCount(0);
         
         int x, y;
         for (int i = 0; i < numberOfEnemies; i++) {
-            x = map.getObjectX(0, i);
-            y = map.getObjectY(0, i);
+            x = level.getObjectX(0, i);
+            y = level.getObjectY(0, i);
             if(bossRoom) {
                 this.addCharacter(EnemyCreator.newBoss(x,y,this));
             } else {
@@ -318,11 +521,11 @@ public class Room {
             
         }
         
-        int numberOfChests = map.getObjectCount(3);
+        int numberOfChests = level.getObjectCount(3);
         for(int i = 0; i < numberOfChests; i++) {
             if(random.nextInt(100) < 35) {
-                x = map.getObjectX(3,i);
-                y = map.getObjectY(3,i);
+                x = level.getObjectX(3,i);
+                y = level.getObjectY(3,i);
                 
                 Catalog[] types = Catalog.values();
                 int numberOfTypes = types.length;
@@ -333,91 +536,29 @@ public class Room {
         }
     }
     public void placeButton(LevelButton button) {
-        int x = map.getObjectX(2,0);
-        int y = map.getObjectY(2,0);
-        button.setX(x);
-        button.setY(y);
+        int x = level.getObjectX(2,0);
+        int y = level.getObjectY(2,0);
+        button.teleport(x, y);
         
     }
     
     public void placePlayer(Player player) {
-        int x = map.getObjectX(1, 0);
-        int y = map.getObjectY(1, 0);
-        player.setX(x);
-        player.setY(y);
-    }
-
-    private void loadTileLayer(String layerName) {
-
-        int layerIndex;
-
-        layerIndex = map.getLayerIndex(layerName);
-
-        if (layerIndex != -1) {
-            for (int x = 0; x < map.getWidth(); x++) {
-                for (int y = 0; y < map.getHeight(); y++) {
-                    int tileID = map.getTileId(x, y, layerIndex);
-
-                    Tile tile = null;
-                    // Obtain the property of the tile. If the property is 
-                    // "empty", then it is an emptytile. by default, in that layer
-                    // the tiles will be the tiles corresponding to the layer name.
-                    switch (map.getTileProperty(tileID, "tileType", "non-empty")) {
-                        case "empty":
-                            break;
-                        default:
-                            switch (layerName) {
-                                case "CollisionLayer":
-                                    tile = new SolidTile(x, y);
-                                    break;
-                                case "PlatformLayer":
-                                    tile = new PlatformTile(x, y);
-                                    break;
-                                case "DamagingLayer":
-                                    tile = new DamagingTile(x, y);
-                                    break;
-                                case "LadderLayer":
-                                    tile = new LadderTile(x, y);
-                                    break;
-                            }
-
-                            tiles[x][y] = tile;
-                            break;
-                    }
-                }
-            }
-        }
+        int x = level.getObjectX(1, 0);
+        int y = level.getObjectY(1, 0);
+        player.teleport(x, y);
     }
 
-    private void loadTileBlockadeLayer(String layerName, int direction) {
+    private void loadTileBlockadeLayer(int direction) {
 
-        int layerIndex;
         // 0: up   1: down  2: left  3: right.
 
         if ((upBlockade && direction == 0) || (downBlockade && direction == 1)
                 || (leftBlockade && direction == 2) || (rightBlockade && direction == 3)) {
 
-            layerIndex = map.getLayerIndex(layerName);
-            if (layerIndex != -1) {
-                for (int x = 0; x < map.getWidth(); x++) {
-                    for (int y = 0; y < map.getHeight(); y++) {
-                        int tileID = map.getTileId(x, y, layerIndex);
-
-                        Tile tile = null;
-
-                        // Obtain the property of the tile. If the property is 
-                        // "empty", then it is an emptytile. by default, in that layer
-                        // the tiles will be damagingtiles.
-                        switch (map.getTileProperty(tileID, "tileType", "blockade")) {
-                            case "empty":
-                                break;
-                            default:
-                                tile = new SolidTile(x, y);
-                                tiles[x][y] = tile;
-                                break;
-                        }
-                    }
-                }
+            int[] blockade = level.getBlockadeTiles(direction);
+
+            for (int i = 0; i < blockade.length; i += 2) {
+                tiles.set(blockade[i], blockade[i + 1], CollisionGrid.SOLID);
             }
         }
     }
@@ -443,19 +584,25 @@ public class Room {
      * this room.
      */
     private void printTileMap() {
-        for (int i = 0; i < map.getHeight(); i++) {
-            for (int j = 0; j < map.getWidth(); j++) {
-
-                if (tiles[j][i] instanceof EmptyTile) {
-                    System.out.print("-");
-                } else if (tiles[j][i] instanceof SolidTile) {
-                    System.out.print("x");
-                } else if (tiles[j][i] instanceof LadderTile) {
-                    System.out.print("L");
-                } else if (tiles[j][i] instanceof PlatformTile) {
-                    System.out.print("_");
-                } else if (tiles[j][i] instanceof DamagingTile) {
-                    System.out.print("^");
+        for (int i = 0; i < tiles.getRows(); i++) {
+            for (int j = 0; j < tiles.getColumns(); j++) {
+
+                switch (tiles.get(j, i)) {
+                    case CollisionGrid.EMPTY:
+                        System.out.print("-");
+                        break;
+                    case CollisionGrid.SOLID:
+                        System.out.print("x");
+                        break;
+                    case CollisionGrid.LADDER:
+                        System.out.print("L");
+                        break;
+                    case CollisionGrid.PLATFORM:
+                        System.out.print("_");
+                        break;
+                    case CollisionGrid.DAMAGING:
+                        System.out.print("^");
+                        break;
                 }
             }
             System.out.println();
@@ -518,7 +665,7 @@ public class Room {
         this.representation = representation;
     }
 
-    public Tile[][] getTiles() {
+    public CollisionGrid getTiles() {
         return tiles;
     }
 
@@ -548,7 +695,10 @@ public class Room {
 
     public void setUpBlockade(boolean upBlockade) {
         this.upBlockade = upBlockade;
-        loadTileMap();
+        this.layersChanged = true;
+        if (materialized) {
+            loadTileMap();
+        }
     }
 
     public boolean hasDownBlockade() {
@@ -557,7 +707,10 @@ public class Room {
 
     public void setDownBlockade(boolean downBlockade) {
         this.downBlockade = downBlockade;
-        loadTileMap();
+        this.layersChanged = true;
+        if (materialized) {
+            loadTileMap();
+        }
     }
 
     public boolean hasLeftBlockade() {
@@ -566,7 +719,10 @@ public class Room {
 
     public void setLeftBlockade(boolean leftBlockade) {
         this.leftBlockade = leftBlockade;
-        loadTileMap();
+        this.layersChanged = true;
+        if (materialized) {
+            loadTileMap();
+        }
     }
 
     public boolean hasRightBlockade() {
@@ -576,7 +732,17 @@ public class Room {
     public void setRightBlockade(boolean rightBlockade) {
 
         this.rightBlockade = rightBlockade;
-        loadTileMap();
+        this.layersChanged = true;
+        if (materialized) {
+            loadTileMap();
+        }
+    }
+
+    /**
+     * Returns the name of the .tmx file of this room.
+     */
+    public String getRoomName() {
+        return roomName;
     }
 
     @Override
@@ -605,6 +771,18 @@ public class Room {
         characters.remove(c);
         /* Removes it also from the observer */
         observer.removeObserved(c);
+        /* And cancels its timed actions */
+        MainClass.SCHEDULER.cancelAll(c);
+    }
+
+    /**
+     * Cancels the timed actions of every character in this room. Must be
+     * called when the room is thrown away, so its enemies don't keep acting.
+     */
+    public void discard() {
+        for (GameCharacter c : characters) {
+            MainClass.SCHEDULER.cancelAll(c);
+        }
     }
 
     /**
@@ -651,6 +829,13 @@ public class Room {
         return gameObjects;
     }
 
+    /**
+     * Retrieves the list of projectiles flying in this room.
+     */
+    public ConcurrentLinkedQueue<Projectile> getProjectiles() {
+        return projectiles;
+    }
+
     public void removeObject(GameObject obj) {
         gameObjects.remove(obj);
     }
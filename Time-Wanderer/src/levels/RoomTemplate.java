@@ -0,0 +1,114 @@
+package levels;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.tiled.TiledMap;
+import org.newdawn.slick.util.ResourceLoader;
+
+/**
+ * Parsed data of a .tmx file with a given tileset, shared by all the rooms
+ * created from it.
+ * Parsing a .tmx file (XML with base64 and gzip-compressed layers) is slow, and
+ * the map generator creates lots of rooms from the same few files, so each
+ * combination of file and tileset is only parsed once and kept on a cache.
+ * The template holds everything that doesn't change between rooms: the
+ * {@link LevelData} used by the simulation (collisions, blockades and objects)
+ * and the tile layers, to render them. The rooms only keep their own state:
+ * blockades, characters, items...
+ * The tile layers (and their tilesets) are only loaded the first time that
+ * they're requested, because they need an OpenGL context; so the rooms can be
+ * simulated without a display, as long as they aren't rendered.
+ * None of the data returned by a template should be modified.
+ */
+public class RoomTemplate {
+
+    /**
+     * Templates that have already been parsed, by room and tileset.
+     */
+    private static final Map<String, RoomTemplate> CACHE = new HashMap<>();
+
+    private final String path;
+    private final String tilesetPath;
+    /**
+     * Collisions and objects of the room.
+     */
+    private final LevelData level;
+    /**
+     * Tile layers of the room (null until they're requested).
+     */
+    private TiledMap map;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+    /**
+     * Returns the template of a room, parsing its .tmx file if it's the first
+     * time that it's requested with the given tileset.
+     *
+     * @param roomName Name of the .tmx file (without extension).
+     * @param tilesetName Name of the tileset used to render the room.
+     * @return The shared template.
+     * @throws SlickException If the .tmx file couldn't be loaded.
+     */
+    public static synchronized RoomTemplate get(String roomName,
+            String tilesetName) throws SlickException {
+
+        String key = roomName + "/" + tilesetName;
+        RoomTemplate template = CACHE.get(key);
+
+        if (template == null) {
+            template = new RoomTemplate(roomName, tilesetName);
+            CACHE.put(key, template);
+        }
+        return template;
+    }
+
+    /**
+     * Drops every template, so the next request of each room parses its .tmx
+     * file again (for example, to measure the parsing).
+     */
+    public static synchronized void clearCache() {
+
+        CACHE.clear();
+    }
+
+    private RoomTemplate(String roomName, String tilesetName)
+            throws SlickException {
+
+        this.path = "resources/rooms/" + roomName + ".tmx";
+        this.tilesetPath = "resources/tilesets/" + tilesetName;
+        this.map = null;
+
+        try (InputStream in = ResourceLoader.getResourceAsStream(path)) {
+            level = LevelData.load(in, roomName.equals("outside"));
+        } catch (IOException | RuntimeException ex) {
+            throw new SlickException("Unable to read " + path, ex);
+        }
+    }
+
+    /**
+     * Returns the data of the room used by the simulation.
+     */
+    public LevelData getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the parsed map, to render its layers, loading it (with its
+     * tileset) if it's the first time that it's requested. It's shared by
+     * every room created from this template.
+     *
+     * @return The tile layers of the room.
+     * @throws SlickException If the map or its tileset couldn't be loaded.
+     */
+    public synchronized TiledMap getMap() throws SlickException {
+
+        if (map == null) {
+            map = new TiledMap(path, tilesetPath);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,157 @@
+package levels.tiles;
+
+import static levels.tiles.Tile.TILE_SIZE;
+import physics.BoundingShape;
+
+/**
+ * Compact representation of the collision layers of a room.
+ * Instead of keeping a Tile object (and its BoundingShape) on each cell of the
+ * map, stores the kind of tile as a flag on a single byte per cell, so a whole
+ * room takes just (columns * rows) bytes and can be queried in O(1), both by
+ * tile index and by pixel coordinates.
+ * Each cell holds only one kind of tile: setting a new one replaces the former,
+ * the same way the layers used to overwrite the Tile objects.
+ */
+public class CollisionGrid {
+
+    /** Tile without any collision factor */
+    public static final byte EMPTY = 0;
+    /** Tile with solid properties (see {@link SolidTile}) */
+    public static final byte SOLID = 1;
+    /** Tile that can be crossed from below (see {@link PlatformTile}) */
+    public static final byte PLATFORM = 2;
+    /** Tile that damages the characters on it (see {@link DamagingTile}) */
+    public static final byte DAMAGING = 4;
+    /** Tile that can be climbed (see {@link LadderTile}) */
+    public static final byte LADDER = 8;
+    /** Mask with the tiles that have a bounding shape */
+    public static final byte COLLIDABLE = SOLID | PLATFORM | DAMAGING;
+
+    private final int columns;
+    private final int rows;
+    /** Type of each tile, stored row by row */
+    private final byte[] cells;
+
+    public CollisionGrid(int columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cells = new byte[columns * rows];
+    }
+
+    /**
+     * Returns the type of the tile on the given position of the grid.
+     * @param column Column of the tile.
+     * @param row Row of the tile.
+     * @return One of the type constants, or EMPTY if it's out of the grid.
+     */
+    public byte get(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            return EMPTY;
+        }
+        return cells[row * columns + column];
+    }
+
+    /**
+     * Changes the type of the tile on the given position of the grid.
+     * @param column Column of the tile.
+     * @param row Row of the tile.
+     * @param type One of the type constants.
+     */
+    public void set(int column, int row, byte type) {
+        cells[row * columns + column] = type;
+    }
+
+    /**
+     * Checks if the tile on the given position is of any of the given types.
+     * @param column Column of the tile.
+     * @param row Row of the tile.
+     * @param types Type constants, OR'ed together.
+     * @return True if the tile matches, false if not.
+     */
+    public boolean is(int column, int row, int types) {
+        return (get(column, row) & types) != 0;
+    }
+
+    /**
+     * Returns the type of the tile that contains the given point.
+     * @param x Horizontal coordinate, in pixels.
+     * @param y Vertical coordinate, in pixels.
+     * @return One of the type constants, or EMPTY if it's out of the grid.
+     */
+    public byte getAtPixel(float x, float y) {
+        if (x < 0 || y < 0) {
+            return EMPTY;
+        }
+        return get((int) x / TILE_SIZE, (int) y / TILE_SIZE);
+    }
+
+    /**
+     * Checks if the bounding rectangle that a tile on the given position would
+     * have collides with the given shape. Equivalent to the collision check
+     * between a tile's BoundingShape and the shape, but without the need of
+     * any object for the tile.
+     * @param column Column of the tile.
+     * @param row Row of the tile.
+     * @param shape Shape to check.
+     * @return True if a collision occurs, false if not.
+     */
+    public static boolean overlaps(int column, int row, BoundingShape shape) {
+        float tileX = column * TILE_SIZE;
+        float tileY = row * TILE_SIZE;
+
+        return !(tileX > (shape.getX() + shape.getWidth())
+                || (tileX + TILE_SIZE) < shape.getX()
+                || tileY > (shape.getY() + shape.getHeight())
+                || (tileY + TILE_SIZE) < shape.getY());
+    }
+
+    /**
+     * Overwrites the contents of this grid with the ones of another grid with
+     * the same dimensions.
+     * @param other Grid to copy the tiles from.
+     */
+    public void copyFrom(CollisionGrid other) {
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+    }
+
+    /**
+     * Builds a matrix of Tile objects equivalent to this grid.
+     * Allocates one object per cell, so it should only be used for debugging
+     * or by code that still needs the Tile objects.
+     * @return Matrix of tiles, indexed by [column][row].
+     */
+    public Tile[][] toTiles() {
+        Tile[][] tiles = new Tile[columns][rows];
+
+        for (int i = 0; i < columns; i++) {
+            for (int j = 0; j < rows; j++) {
+                switch (get(i, j)) {
+                    case SOLID:
+                        tiles[i][j] = new SolidTile(i, j);
+                        break;
+                    case PLATFORM:
+                        tiles[i][j] = new PlatformTile(i, j);
+                        break;
+                    case DAMAGING:
+                        tiles[i][j] = new DamagingTile(i, j);
+                        break;
+                    case LADDER:
+                        tiles[i][j] = new LadderTile(i, j);
+                        break;
+                    default:
+                        tiles[i][j] = new EmptyTile(i, j);
+                        break;
+                }
+            }
+        }
+        return tiles;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
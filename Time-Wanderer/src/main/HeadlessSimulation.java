@@ -0,0 +1,310 @@
+package main;
+
+import creators.ItemCreator;
+import entities.Player;
+import java.util.Random;
+import levels.MapGenerator;
+import levels.Room;
+import misc.NullSpriteRenderer;
+import org.newdawn.slick.SlickException;
+import physics.Physics;
+import sound.NullAudioBackend;
+import sound.RecordingAudioBackend;
+
+/**
+ * Runs the simulation of the game without a window, an OpenGL context or
+ * sound, as fast as possible.
+ * A dungeon is generated and a player, controlled by a bot that moves, jumps
+ * and attacks randomly, goes through all its rooms. Each tick does the same as
+ * a tick of the level (timed actions, physics and the update of the room), but
+ * nothing is rendered, so it can be used to measure the cost of the simulation
+ * alone, or to look for errors on lots of dungeons (for example, on a server).
+ *
+ * The sounds are requested as in the game, but they go to a backend that
+ * doesn't play them; with the option "record", they're also counted, and the
+ * load of the audio is printed at the end.
+ *
+ * Usage (from the directory of the project, like the game):
+ * HeadlessSimulation [ticks per room] [dungeons] [seed] [record]
+ */
+public class HeadlessSimulation {
+
+    /** Length of each tick, in milliseconds */
+    public static final int TICK_LENGTH = 1000 / MainClass.TICK_RATE;
+
+    /** Ticks that the bot keeps doing the same action */
+    private static final int ACTION_TICKS = 30;
+
+    private final Physics physics;
+    private final Random random;
+    private final Player player;
+
+    private Room[][][] dungeon;
+    private Room room;
+
+    /* Current action of the bot */
+    private int action;
+    private int actionTicks;
+
+    /* Statistics */
+    private long ticks;
+    private int rooms;
+    private int deaths;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Creates a new simulation, enabling the headless mode and generating its
+     * first dungeon.
+     *
+     * @param seed
+     *              Seed of the decisions of the bot (the dungeons are always
+     *          random).
+     *
+     * @throws SlickException
+     *              If the resources couldn't be loaded.
+     */
+    public HeadlessSimulation (long seed) throws SlickException {
+
+        enable();
+
+        this.physics = new Physics();
+        this.random = new Random(seed);
+
+        newDungeon();
+
+        this.player = new Player(350, 350, 32, 62, dungeon[0][0][0],
+                                 Player.Timeline.PRESENT);
+        MainClass.players = new Player[] {player, player};
+
+        player.setMeleeWeapon(ItemCreator.newSword(player));
+        player.setRangedWeapon(ItemCreator.newBow());
+
+        this.ticks = 0;
+        this.rooms = 0;
+        this.deaths = 0;
+    }
+
+    /**
+     * Enables the headless mode: the entities are drawn on a renderer that
+     * doesn't load any image (only the level data of the maps is read) and
+     * the sounds aren't played (no audio line is opened).
+     * It must be called before anything is rendered or played.
+     */
+    public static void enable () {
+
+        MainClass.spriteRenderer = new NullSpriteRenderer();
+        MainClass.JUKEBOX.setBackend(new NullAudioBackend());
+    }
+
+    /**
+     * Throws away the current dungeon (if any) and generates a new one.
+     */
+    public final void newDungeon () {
+
+        if (room != null) {
+            leaveRoom();
+        }
+        if (dungeon != null) {
+            MapGenerator.discardDungeon(dungeon);
+        }
+        MainClass.SCHEDULER.clear();
+
+        dungeon = new MapGenerator().generateDungeon();
+    }
+
+    /**
+     * Puts the player on the given room, materializing it if it's necessary.
+     *
+     * @param room
+     *              Room where the simulation will continue.
+     */
+    public void enterRoom (Room room) {
+
+        if (this.room != null) {
+            leaveRoom();
+        }
+
+        room.materialize();
+        room.addCharacter(player);
+        room.setPlayer(player);
+        room.placePlayer(player);
+        room.resumeEnemies();
+        player.setCurrentRoom(room);
+
+        this.room = room;
+        rooms++;
+    }
+
+    /**
+     * Simulates a single tick on the current room.
+     */
+    public void tick () {
+
+        room.savePreviousPositions();
+
+        MainClass.SCHEDULER.advance(TICK_LENGTH);
+
+        play();
+        physics.handlePhysics(room, TICK_LENGTH);
+        MainClass.JUKEBOX.setListener(player.getX() + (player.getWidth() / 2),
+                                      player.getY() + (player.getHeight() / 2));
+        room.update(TICK_LENGTH);
+
+        /* The player is brought back to life, so the simulation goes on */
+        if (player.getStats().getLifePoints() <= 0) {
+
+            player.getStats().setLifePoints(player.getStats().getMaxLifePoints());
+            deaths++;
+        }
+        ticks++;
+    }
+
+    /**
+     * Goes through every room of the current dungeon, simulating the given
+     * number of ticks on each one.
+     *
+     * @param ticksPerRoom
+     *              Ticks simulated on each room.
+     */
+    public void runDungeon (int ticksPerRoom) {
+
+        for (Room[][] map : dungeon) {
+            for (Room[] row : map) {
+                for (Room r : row) {
+
+                    if (r == null) {
+                        continue;
+                    }
+                    enterRoom(r);
+
+                    for (int i = 0; i < ticksPerRoom; i++) {
+                        tick();
+                    }
+                }
+            }
+        }
+        leaveRoom();
+    }
+
+    /**
+     * Removes the player from the current room and stops its enemies.
+     */
+    private void leaveRoom () {
+
+        room.stopEnemies();
+        room.setPlayer(null);
+        room.removeCharacter(player);
+        room = null;
+    }
+
+    /**
+     * Controls the player: every few ticks a new action is chosen (stand,
+     * walk to the left or walk to the right) and, meanwhile, it jumps and
+     * attacks from time to time.
+     */
+    private void play () {
+
+        if (actionTicks-- <= 0) {
+
+            action = random.nextInt(3);
+            actionTicks = ACTION_TICKS;
+
+            player.setAim(random.nextInt(MainClass.WINDOW_WIDTH),
+                          random.nextInt(MainClass.WINDOW_HEIGHT));
+        }
+
+        switch (action) {
+            case 1:
+                player.moveLeft(TICK_LENGTH);
+                break;
+            case 2:
+                player.moveRight(TICK_LENGTH);
+                break;
+            default:
+                player.setMoving(false);
+        }
+
+        if (random.nextInt(40) == 0) {
+            player.jump();
+        }
+        if (random.nextInt(20) == 0) {
+            player.meleeAttack();
+        }
+        if (random.nextInt(60) == 0) {
+            player.rangedAttack();
+        }
+    }
+
+    public Room[][][] getDungeon () {
+
+        return dungeon;
+    }
+
+    public Player getPlayer () {
+
+        return player;
+    }
+
+    public long getTicks () {
+
+        return ticks;
+    }
+
+    public int getRooms () {
+
+        return rooms;
+    }
+
+    public int getDeaths () {
+
+        return deaths;
+    }
+
+    public static void main (String[] args) throws SlickException {
+
+        int ticksPerRoom = (args.length > 0)? Integer.parseInt(args[0]) : 600;
+        int dungeons = (args.length > 1)? Integer.parseInt(args[1]) : 1;
+        long seed = (args.length > 2)? Long.parseLong(args[2]) : 0;
+        boolean record = (args.length > 3) && args[3].equals("record");
+
+        long start = System.nanoTime();
+
+        HeadlessSimulation simulation = new HeadlessSimulation(seed);
+        RecordingAudioBackend recorder = null;
+
+        if (record) {
+            /* The lengths of the sounds are measured on simulated time (the
+            previous backend is closed when the recorder replaces it, so it
+            records over a new one) */
+            recorder = new RecordingAudioBackend(new NullAudioBackend(),
+                    () -> simulation.getTicks() * TICK_LENGTH * 1000000L);
+            MainClass.JUKEBOX.setBackend(recorder);
+        }
+
+        for (int i = 0; i < dungeons; i++) {
+
+            if (i > 0) {
+                simulation.newDungeon();
+            }
+            simulation.runDungeon(ticksPerRoom);
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1000000;
+
+        System.out.println("Rooms: " + simulation.getRooms()
+                         + "\nTicks: " + simulation.getTicks()
+                         + "\nDeaths: " + simulation.getDeaths()
+                         + "\nElapsed time: " + elapsed + " ms"
+                         + "\nTicks per second: "
+                         + (simulation.getTicks() * 1000 / Math.max(1, elapsed)));
+
+        if (recorder != null) {
+            System.out.println(recorder.getReport());
+        }
+
+        System.exit(0);
+    }
+}
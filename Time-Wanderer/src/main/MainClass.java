@@ -10,6 +10,10 @@ import java.io.File;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import static levels.tiles.Tile.TILE_SIZE;
+import misc.FrameProfiler;
+import misc.Scheduler;
+import misc.SpriteBatch;
+import misc.SpriteRenderer;
 import org.newdawn.slick.AppGameContainer;
 import org.newdawn.slick.GameContainer;
 import org.newdawn.slick.SlickException;
@@ -25,6 +29,17 @@ public class MainClass extends StateBasedGame {
     public static final int WINDOW_HEIGHT = (int) ((float) WINDOW_WIDTH / 16 * 9);
     public static final boolean FULLSCREEN = false;
     public static final Jukebox JUKEBOX = new Jukebox();
+    /* Simulation ticks per second, and maximum ticks simulated on each frame */
+    public static final int TICK_RATE = 60;
+    public static final int MAX_TICKS_PER_FRAME = 5;
+    /* Timed actions of the game (with one slot per tick and ~4 s per turn) */
+    public static final Scheduler SCHEDULER = new Scheduler(1000 / TICK_RATE, 256);
+    public static final SpriteBatch SPRITE_BATCH = new SpriteBatch();
+    /* Renderer of the sprites of the entities and items (replaced by a
+    NullSpriteRenderer on the headless runs) */
+    public static SpriteRenderer spriteRenderer = SPRITE_BATCH;
+    /* Times of the phases of each frame (F3: overlay, F4: record to CSV) */
+    public static final FrameProfiler PROFILER = new FrameProfiler();
     public static Player players[];
 
     /* STATES IDENTIFIERS: */
@@ -8,6 +8,9 @@ import items.Projectile;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import levels.Room;
 import main.MainClass;
+import org.newdawn.slick.geom.Shape;
+import physics.BoundingShape;
+import physics.SpatialHash;
 import sound.Playlist;
 
 /**
@@ -18,6 +21,11 @@ import sound.Playlist;
  */
 public class AttacksObserver {
 
+    /**
+     * Number of buckets of the spatial grid.
+     */
+    private static final int GRID_BUCKETS = 256;
+
     /**
      * List of observed game characters
      */
@@ -45,6 +53,12 @@ public class AttacksObserver {
      */
     private final Room room;
     
+    /**
+     * Broadphase for the collisions with the projectiles and the effects. 
+     * Refilled with the characters on each update.
+     */
+    private final SpatialHash <GameCharacter> grid;
+    
 /* -------------------------------------- */
 /* ---- END OF ATTRIBUTES DECLARATION --- */
 /* -------------------------------------- */
@@ -63,51 +77,105 @@ public class AttacksObserver {
         this.magicalEffects = new ConcurrentLinkedQueue<>();
         this.player = room.getPlayer();
         this.room = room;
+        this.grid = new SpatialHash<>(GRID_BUCKETS);
     }
     
 
     /**
      * Checks the position of every gamecharacter and resolves all conflicts.
+     * The characters are placed on a spatial grid first, so each projectile 
+     * and effect is only checked against the characters near it.
      */
     public void update () {
         
+        if (projectiles.isEmpty() && magicalEffects.isEmpty()) {
+            
+            return;
+        }
+        
+        fillGrid();
+        
         /* Iterates through the projectile list and checks any collision with 
         the enemies */
-        if (!projectiles.isEmpty()) {
+        for (Projectile p : projectiles) {
+            
+            Shape body = p.getCollider();
+            
+            int found = grid.query(body.getMinX(), body.getMinY(), 
+                                   body.getMaxX(), body.getMaxY());
             
-            for (Projectile p : projectiles) {
+            for (int i = 0; i < found; i++) {
                 
-                for (GameCharacter g : characters) {
-                    /* If the two objects collide, damages the game character */
-                    if (p.checkCollision(g.getBoundingShape())) {
-                        
-                        /* Plays the sound of a projectile hit */
-                        MainClass.JUKEBOX.play(Playlist.ARROW_HIT, true, 15);
-                        
-                        g.getHit(p.getAttack());
-                        
-                        /* Removes the current projectile from the list, so it
-                        can't hit the same enemy again */
-                        removeProjectile(p);
-                    }
+                GameCharacter g = grid.getFound(i);
+                
+                /* If the two objects collide, damages the game character */
+                if (p.checkCollision(g.getBoundingShape())) {
+
+                    /* Plays the sound of a projectile hit, where it hit */
+                    MainClass.JUKEBOX.playAt(Playlist.ARROW_HIT, 
+                                             body.getCenterX(), body.getCenterY(),
+                                             15);
+
+                    g.getHit(p.getAttack());
+
+                    /* Removes the current projectile from the list, so it
+                    can't hit the same enemy again */
+                    removeProjectile(p);
                 }
             }
         }
         
         /* Makes the same with the magical effects */
-        if (!magicalEffects.isEmpty()) {
-         
-            for (MagicalEffect m : magicalEffects) {
+        for (MagicalEffect m : magicalEffects) {
+            
+            /* While recharging, the effect counts every character (without
+            checking any collision), so it has to see all of them */
+            if (m.isRecharging()) {
                 
-                for (GameCharacter g : characters) {
+                for (int i = 0; i < grid.size(); i++) {
                     
-                    /* This method hits the GameCharacter if it's required */
-                    m.checkAndHit(g);
+                    m.checkAndHit(grid.get(i));
                 }
+                continue;
+            }
+            
+            Shape body = m.getBody();
+            
+            int found = grid.query(body.getMinX(), body.getMinY(), 
+                                   body.getMaxX(), body.getMaxY());
+            
+            for (int i = 0; i < found; i++) {
+                
+                /* This method hits the GameCharacter if it's required */
+                m.checkAndHit(grid.getFound(i));
             }
         }            
     }
     
+    /**
+     * Inserts all the observed characters on the grid.
+     * The projectiles and the effects aren't inserted: they only collide with
+     * the characters, so each one queries the grid with its own box instead.
+     * The box of each one covers both its bounding shape (used by the 
+     * projectiles) and the box over its position used by the magical effects.
+     */
+    private void fillGrid () {
+        
+        grid.clear();
+        
+        for (GameCharacter g : characters) {
+            
+            BoundingShape shape = g.getBoundingShape();
+            
+            grid.insert(g, 
+                        Math.min(shape.getX(), g.getX()),
+                        Math.min(shape.getY(), g.getY() - g.getHeight()),
+                        Math.max(shape.getX() + shape.getWidth(), 
+                                 g.getX() + g.getWidth()),
+                        Math.max(shape.getY() + shape.getHeight(), g.getY()));
+        }
+    }
+    
     /**
      * This method will be called when the player attacks. Checks if its weapon 
      * (must be melee) is colliding with any enemy.
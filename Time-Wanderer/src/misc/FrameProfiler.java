@@ -0,0 +1,384 @@
+package misc;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import levels.Room;
+import org.newdawn.slick.Color;
+import org.newdawn.slick.Graphics;
+
+/**
+ * Measures how long each phase of a frame takes (input, physics, update of
+ * the room, render of the HUD...), to know which one blows the budget of the
+ * frame (16 ms at 60 FPS) on each room.
+ * Each phase is surrounded by {@link #start()} and
+ * {@link #stop(Phase, long)}; the time of the phases that run more than once
+ * per frame (like the physics, once per tick) is added up, and, at the end of
+ * the frame, the totals are stored. The last {@link #WINDOW} frames of each
+ * phase are kept, and their median, 99th percentile and maximum are shown on
+ * an overlay (toggled with {@link #toggleOverlay()}), together with the number
+ * of entities, projectiles and live threads.
+ * The frames can also be written, one per line, to a CSV file (see
+ * {@link #toggleRecording()}), with the room where they were measured.
+ * All the methods must be called from the game thread.
+ */
+public class FrameProfiler {
+
+    /**
+     * Phases of a frame. The observer runs inside the update of the room, so
+     * its time is also included on {@link #ROOM_UPDATE}, and all of them are
+     * included on {@link #FRAME}.
+     */
+    public enum Phase {
+        INPUT, PHYSICS, ROOM_UPDATE, OBSERVER, HUD_UPDATE, SOUND_UI,
+        ROOM_RENDER, MINIMAP, HUD_RENDER, FRAME
+    }
+
+    /**
+     * Number of frames used to compute the statistics.
+     */
+    public static final int WINDOW = 256;
+
+    /**
+     * Time available for each frame, in nanoseconds (at 60 FPS).
+     */
+    private static final long BUDGET = 1000000000L / 60;
+
+    /** Phases, to iterate them without copying the array on each frame */
+    private static final Phase[] PHASES = Phase.values();
+
+    /**
+     * Time spent on each phase on the current frame, in nanoseconds.
+     */
+    private final long[] current;
+
+    /**
+     * Times of the last frames of each phase (circular buffers).
+     */
+    private final long[][] samples;
+
+    /**
+     * Copy of the samples of a phase, to sort them (reused).
+     */
+    private final long[] sorted;
+
+    /**
+     * Statistics (median, 99th percentile and maximum) of each phase, as they
+     * were computed the last time.
+     */
+    private final long[][] statistics;
+
+    /**
+     * Next position on the circular buffers, and number of stored frames.
+     */
+    private int cursor;
+    private int stored;
+
+    /**
+     * Instant when the current frame started (0 if it hasn't started yet).
+     */
+    private long frameStart;
+
+    /**
+     * Number of frames measured.
+     */
+    private long frames;
+
+    /* Counters of the last frame */
+    private int entities;
+    private int projectiles;
+    private int threads;
+
+    /* Room of the last frame, and number of rooms visited */
+    private Room room;
+    private String roomLabel;
+    private int visits;
+
+    private boolean overlayVisible;
+
+    /**
+     * File where the frames are being recorded (null if they aren't).
+     */
+    private BufferedWriter csv;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Constructor.
+     */
+    public FrameProfiler () {
+
+        this.current = new long[PHASES.length];
+        this.samples = new long[PHASES.length][WINDOW];
+        this.sorted = new long[WINDOW];
+        this.statistics = new long[PHASES.length][3];
+        this.cursor = 0;
+        this.stored = 0;
+        this.frameStart = 0;
+        this.frames = 0;
+        this.overlayVisible = false;
+        this.csv = null;
+    }
+
+    /**
+     * Returns the current instant, to be passed to {@link #stop(Phase, long)}
+     * at the end of the phase.
+     *
+     * @return
+     *              The current value of {@link System#nanoTime()}.
+     */
+    public long start () {
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time since the given instant to a phase of the current frame.
+     *
+     * @param phase
+     *              Phase that has just finished.
+     * @param start
+     *              Value returned by {@link #start()} when the phase began.
+     */
+    public void stop (Phase phase, long start) {
+
+        current[phase.ordinal()] += System.nanoTime() - start;
+    }
+
+    /**
+     * Marks the beginning of a frame (when it's updated). It has no effect if
+     * the frame had already begun (for example, if it was updated twice
+     * before being rendered).
+     */
+    public void beginFrame () {
+
+        if (frameStart == 0) {
+            frameStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Marks the end of a frame (when it has been rendered), and stores the
+     * times of all its phases.
+     *
+     * @param room
+     *              Room that was simulated and drawn on this frame.
+     */
+    public void endFrame (Room room) {
+
+        if (frameStart == 0) {
+            return;
+        }
+        current[Phase.FRAME.ordinal()] = System.nanoTime() - frameStart;
+        frameStart = 0;
+        frames++;
+
+        for (int i = 0; i < PHASES.length; i++) {
+
+            samples[i][cursor] = current[i];
+            current[i] = 0;
+        }
+        cursor = (cursor + 1) % WINDOW;
+        stored = Math.min(stored + 1, WINDOW);
+
+        if (room != this.room) {
+            this.room = room;
+            this.roomLabel = room.getRoomName() + " (" + room + ")";
+            visits++;
+        }
+
+        /* The counters are only needed to show or record them */
+        if (overlayVisible || csv != null) {
+
+            entities = room.getCharacters().size()
+                        + room.getGameObjects().size();
+            projectiles = room.getProjectiles().size();
+            threads = Thread.activeCount();
+        }
+
+        if (csv != null) {
+            writeFrame();
+        }
+
+        /* The statistics are refreshed a few times per second */
+        if (overlayVisible && (frames % 15 == 0)) {
+            computeStatistics();
+        }
+    }
+
+    /**
+     * Shows or hides the overlay with the statistics.
+     */
+    public void toggleOverlay () {
+
+        overlayVisible = !overlayVisible;
+
+        if (overlayVisible) {
+            computeStatistics();
+        }
+    }
+
+    /**
+     * Starts recording the frames on a new CSV file on the working directory
+     * or, if they were already being recorded, closes the file.
+     *
+     * @return
+     *              The file where the frames are being recorded, or null if
+     *          the recording has been stopped (or couldn't be started).
+     */
+    public File toggleRecording () {
+
+        if (csv != null) {
+            close();
+            return null;
+        }
+
+        File file = new File("profile-" + System.currentTimeMillis() + ".csv");
+
+        try {
+            csv = new BufferedWriter(new FileWriter(file));
+
+            csv.write("frame,room,visit");
+            for (Phase p : PHASES) {
+                csv.write("," + p.name().toLowerCase() + "_ms");
+            }
+            csv.write(",entities,projectiles,threads");
+            csv.newLine();
+
+        } catch (IOException ex) {
+
+            System.out.println("Unable to create " + file + ": "
+                                + ex.getMessage());
+            close();
+            return null;
+        }
+
+        System.out.println("Recording the frames on " + file);
+        return file;
+    }
+
+    /**
+     * Stops the recording of the frames, if they were being recorded.
+     */
+    public void close () {
+
+        if (csv == null) {
+            return;
+        }
+
+        try {
+            csv.close();
+        } catch (IOException ex) {
+            System.out.println("Unable to close the profile: "
+                                + ex.getMessage());
+        }
+        csv = null;
+    }
+
+    /**
+     * Draws the overlay, if it's visible. The phases whose 99th percentile
+     * doesn't fit on the budget of a frame are drawn in red.
+     *
+     * @param g
+     *              Graphics on which the overlay will be drawn.
+     */
+    public void render (Graphics g) {
+
+        if (!overlayVisible) {
+            return;
+        }
+
+        Color previous = g.getColor();
+        float x = 10;
+        float y = 40;
+
+        g.setColor(new Color(0, 0, 0, 170));
+        g.fillRect(x - 5, y - 5, 330, (PHASES.length + 3) * 15 + 10);
+
+        g.setColor(Color.white);
+        g.drawString(String.format("%-12s%7s%7s%7s", "PHASE (ms)", "p50",
+                                   "p99", "max"), x, y);
+
+        for (int i = 0; i < PHASES.length; i++) {
+
+            y += 15;
+            g.setColor((statistics[i][1] > BUDGET)? Color.red : Color.white);
+            g.drawString(String.format("%-12s%7.2f%7.2f%7.2f",
+                                       PHASES[i].name().toLowerCase(),
+                                       statistics[i][0] / 1e6,
+                                       statistics[i][1] / 1e6,
+                                       statistics[i][2] / 1e6), x, y);
+        }
+
+        g.setColor(Color.white);
+        y += 15;
+        g.drawString("entities: " + entities + "  projectiles: " + projectiles
+                    + "  threads: " + threads, x, y);
+        y += 15;
+        g.drawString(((csv != null)? "[REC] " : "") + roomLabel, x, y);
+
+        g.setColor(previous);
+    }
+
+    /**
+     * Computes the median, the 99th percentile and the maximum of the stored
+     * frames of every phase.
+     */
+    private void computeStatistics () {
+
+        if (stored == 0) {
+            return;
+        }
+
+        for (int i = 0; i < PHASES.length; i++) {
+
+            System.arraycopy(samples[i], 0, sorted, 0, stored);
+            Arrays.sort(sorted, 0, stored);
+
+            statistics[i][0] = sorted[(stored - 1) / 2];
+            statistics[i][1] = sorted[(int) Math.ceil(stored * 0.99) - 1];
+            statistics[i][2] = sorted[stored - 1];
+        }
+    }
+
+    /**
+     * Writes the last frame on the CSV file.
+     */
+    private void writeFrame () {
+
+        int last = (cursor + WINDOW - 1) % WINDOW;
+        StringBuilder line = new StringBuilder();
+
+        line.append(frames).append(',')
+            .append('"').append(roomLabel).append('"').append(',')
+            .append(visits);
+
+        for (int i = 0; i < PHASES.length; i++) {
+            line.append(',').append(samples[i][last] / 1e6);
+        }
+
+        line.append(',').append(entities)
+            .append(',').append(projectiles)
+            .append(',').append(threads);
+
+        try {
+            csv.write(line.toString());
+            csv.newLine();
+
+            /* Flushed every second, so the file is useful even if the game
+            is closed without stopping the recording */
+            if (frames % 60 == 0) {
+                csv.flush();
+            }
+        } catch (IOException ex) {
+
+            System.out.println("Unable to write the profile: "
+                                + ex.getMessage());
+            close();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import levels.Room;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
+import utils.AtlasRegistry;
 
 /**
  * This class will draw the minimap on the bottom left corner of the game
@@ -43,38 +44,38 @@ public class MiniMap {
         this.map = currentMap;
         
         this.minimapRooms = new Image[][]
-                            {{new Image("resources/ui/minimap/empty.png"),
-                              new Image("resources/ui/minimap/empty.png")},
-                              {new Image("resources/ui/minimap/0001-0.png"),
-                              new Image("resources/ui/minimap/0001-1.png")},
-                              {new Image("resources/ui/minimap/0010-0.png"),
-                              new Image("resources/ui/minimap/0010-1.png")},
-                              {new Image("resources/ui/minimap/0011-0.png"),
-                              new Image("resources/ui/minimap/0011-1.png")},
-                              {new Image("resources/ui/minimap/0100-0.png"),
-                              new Image("resources/ui/minimap/0100-1.png")},
-                              {new Image("resources/ui/minimap/0101-0.png"),
-                              new Image("resources/ui/minimap/0101-1.png")},
-                              {new Image("resources/ui/minimap/0110-0.png"),
-                              new Image("resources/ui/minimap/0110-1.png")},
-                              {new Image("resources/ui/minimap/0111-0.png"),
-                              new Image("resources/ui/minimap/0111-1.png")},
-                              {new Image("resources/ui/minimap/1000-0.png"),
-                              new Image("resources/ui/minimap/1000-1.png")},
-                              {new Image("resources/ui/minimap/1001-0.png"),
-                              new Image("resources/ui/minimap/1001-1.png")},
-                              {new Image("resources/ui/minimap/1010-0.png"),
-                              new Image("resources/ui/minimap/1010-1.png")},
-                              {new Image("resources/ui/minimap/1011-0.png"),
-                              new Image("resources/ui/minimap/1011-1.png")},
-                              {new Image("resources/ui/minimap/1100-0.png"),
-                              new Image("resources/ui/minimap/1100-1.png")},
-                              {new Image("resources/ui/minimap/1101-0.png"),
-                              new Image("resources/ui/minimap/1101-1.png")},
-                              {new Image("resources/ui/minimap/1110-0.png"),
-                              new Image("resources/ui/minimap/1110-1.png")},
-                              {new Image("resources/ui/minimap/1111-0.png"),
-                              new Image("resources/ui/minimap/1111-1.png")}                              
+                            {{AtlasRegistry.getImage("resources/ui/minimap/empty.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/empty.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/0001-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/0001-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/0010-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/0010-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/0011-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/0011-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/0100-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/0100-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/0101-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/0101-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/0110-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/0110-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/0111-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/0111-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/1000-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/1000-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/1001-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/1001-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/1010-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/1010-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/1011-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/1011-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/1100-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/1100-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/1101-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/1101-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/1110-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/1110-1.png")},
+                              {AtlasRegistry.getImage("resources/ui/minimap/1111-0.png"),
+                              AtlasRegistry.getImage("resources/ui/minimap/1111-1.png")}                              
                             };
         
         for (Image[] minimapRoom : minimapRooms) {
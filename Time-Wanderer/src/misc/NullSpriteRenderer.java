@@ -0,0 +1,32 @@
+package misc;
+
+import animations.SpriteAnimation;
+import animations.SpriteFrame;
+import org.newdawn.slick.Color;
+
+/**
+ * Renderer that doesn't draw anything.
+ * No image is ever loaded, so the entities can be rendered (by mistake or on
+ * purpose) without an OpenGL context, and the game can be simulated with the
+ * cost of the rendering removed.
+ */
+public class NullSpriteRenderer implements SpriteRenderer {
+
+    @Override
+    public void draw (SpriteFrame frame, float x, float y) {
+    }
+
+    @Override
+    public void draw (SpriteFrame frame, float x, float y, float width,
+                      float height, float rotation, float centerX,
+                      float centerY) {
+    }
+
+    @Override
+    public void drawAnimation (SpriteAnimation anim, float x, float y) {
+    }
+
+    @Override
+    public void drawString (String text, float x, float y, Color color) {
+    }
+}
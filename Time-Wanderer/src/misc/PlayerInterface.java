@@ -13,6 +13,7 @@ import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import main.MainClass;
+import utils.AtlasRegistry;
 
 /**
  * @author Alberto Serrano Ibaibarriaga */
@@ -60,21 +61,21 @@ public class PlayerInterface {
         }
 
         this.player = player;
-        imageHPBar = new Image("resources/ui/pifaceimages/HPBar.png");
+        imageHPBar = AtlasRegistry.getImage("resources/ui/pifaceimages/HPBar.png");
         imageHPBar.setFilter(Image.FILTER_NEAREST);
-        imageMPBar = new Image("resources/ui/pifaceimages/MPBar.png");
+        imageMPBar = AtlasRegistry.getImage("resources/ui/pifaceimages/MPBar.png");
         imageMPBar.setFilter(Image.FILTER_NEAREST);
-        imageXpBar = new Image("resources/ui/pifaceimages/XpBar.png");
+        imageXpBar = AtlasRegistry.getImage("resources/ui/pifaceimages/XpBar.png");
         imageXpBar.setFilter(Image.FILTER_NEAREST);
-        meleeWeapon = new Image("resources/ui/pifaceimages/Sword.png");
+        meleeWeapon = AtlasRegistry.getImage("resources/ui/pifaceimages/Sword.png");
         meleeWeapon.setFilter(Image.FILTER_NEAREST);
-        rangedWeapon = new Image("resources/ui/pifaceimages/Bow.png");
+        rangedWeapon = AtlasRegistry.getImage("resources/ui/pifaceimages/Bow.png");
         rangedWeapon.setFilter(Image.FILTER_NEAREST);
-        magicalRelic = new Image("resources/ui/pifaceimages/Relic.png");
+        magicalRelic = AtlasRegistry.getImage("resources/ui/pifaceimages/Relic.png");
         magicalRelic.setFilter(Image.FILTER_NEAREST);
-        magicalWeapon = new Image("resources/ui/pifaceimages/Staff.png");
+        magicalWeapon = AtlasRegistry.getImage("resources/ui/pifaceimages/Staff.png");
         magicalWeapon.setFilter(Image.FILTER_NEAREST);
-        consumableItem = new Image("resources/ui/pifaceimages/Consumable.png");
+        consumableItem = AtlasRegistry.getImage("resources/ui/pifaceimages/Consumable.png");
         consumableItem.setFilter(Image.FILTER_NEAREST);
         this.barContainer = twoCells ? barContainer : new int[]{0, 0};
         maxHealthPoints = player.getStats().getMaxLifePoints();
@@ -1,17 +1,15 @@
 package misc;
 
+import animations.AnimationLibrary;
+import animations.SpriteFrame;
 import entities.BossEnemy;
 import entities.Player;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.geom.Rectangle;
 import org.newdawn.slick.geom.Vector2f;
-import static java.lang.Thread.sleep;
 import physics.BoundingRectangle;
 import main.MainClass;
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 
 /**
@@ -19,7 +17,7 @@ import org.newdawn.slick.SlickException;
  * 
  * Each one of this objects will have a different, randomly generated, target.
  */
-public class RandomObjBoss extends Thread {
+public class RandomObjBoss {
 
     /**
      * Array that contains the random objects
@@ -52,7 +50,7 @@ public class RandomObjBoss extends Thread {
      */
     private boolean stopped;
     
-    private Image projectileImage;
+    private SpriteFrame projectileImage;
     
 /* -------------------------------------- */
 /* ---- END OF ATTRIBUTES DECLARATION --- */
@@ -83,11 +81,11 @@ public class RandomObjBoss extends Thread {
         this.damage = (boss.getAttack() / 3);
         
         try {
-            this.projectileImage = new Image("resources/items/BossObj.png");
+            this.projectileImage = AnimationLibrary.getImage("resources/items/BossObj.png");
         } catch (SlickException ex) {
             ex.printStackTrace();
         }
-        this.start();
+        scheduleObject();
     }
     
     /**
@@ -125,36 +123,28 @@ public class RandomObjBoss extends Thread {
     }
     
     /**
-     * Creates a new object from time to time.
+     * Creates a new object from time to time. The creation is scheduled on the
+     * game clock (on behalf of the boss, so it's cancelled with the rest of
+     * its actions), and schedules the next one when it's performed.
      */
-    @Override
-    public void run() {
+    private void scheduleObject() {
 
-        Obj aux;
-        
-        /* Infinite loop */
-        while (true) {
-
-            try {
-                /* Sleeps a random time between 100 and 'sleepMillis' * 5 
-                milliseconds before creating any object */
-                sleep((long) (sleepMillis * 5 * Math.random() + 100));
-                
-                checkStopped();
-                
-                /* Creates a new object and adds it to the list */
-                aux = new Obj(projectileImage);
-                objects.add(aux);
+        /* Waits a random time between 100 and 'sleepMillis' * 5 milliseconds
+        before creating any object */
+        MainClass.SCHEDULER.schedule(boss,
+                (int) (sleepMillis * 5 * Math.random() + 100),
+                () -> {
+                    /* Creates a new object and adds it to the list */
+                    if (!stopped)
+                        objects.add(new Obj(projectileImage));
 
-            } catch (InterruptedException ex) {
-                Logger.getLogger(RandomObjBoss.class.getName()).log(Level.SEVERE, null, ex);
-            }
-        }
+                    scheduleObject();
+                });
     }
     
-/* -------------------------------------- */
-/* ---- THREAD STATE CONTROLL METHODS --- */
-/* -------------------------------------- */
+/* ------------------------------- */
+/* ---- STATE CONTROLL METHODS --- */
+/* ------------------------------- */
 
     /**
      * Returns <i>true</i> if the actions of this enemy are stopped.
@@ -167,38 +157,20 @@ public class RandomObjBoss extends Thread {
         return stopped;
     }
 
-    /**
-     * Checks if the attribute "stopped" is true and, therefore, this thread
-     * must wait to be notified.
-     */
-    private synchronized void checkStopped () {
-
-        while (stopped) {
-
-            try {
-                wait();
-            } catch (InterruptedException ex) {
-                Logger.getLogger(RandomObjBoss.class.getName()).log(Level.SEVERE,
-                        null, ex);
-            }
-        }
-    }
-    
     /**
      * Stops the action of this enemy.
      */
-    public synchronized void stopAction () {
+    public void stopAction () {
 
         stopped = true;
     }
 
     /**
-     * Restarts the action of this thread.
+     * Restarts the action of this enemy.
      */
-    public synchronized void restart () {
+    public void restart () {
         
         stopped = false;
-        notifyAll();
     }
 
 
@@ -250,7 +222,7 @@ public class RandomObjBoss extends Thread {
          */
         private final float speed;
         
-        private Image image;
+        private SpriteFrame image;
     
 /* -------------------------------------- */
 /* ---- END OF ATTRIBUTES DECLARATION --- */
@@ -259,7 +231,7 @@ public class RandomObjBoss extends Thread {
         /**
          * Constructor.
          */
-        public Obj(Image image) {
+        public Obj(SpriteFrame image) {
 
             float mod;
             
@@ -331,7 +303,7 @@ public class RandomObjBoss extends Thread {
         public void render(Graphics g) {
             
             /* Draws the final object */
-            g.drawImage(image,body.x,body.y);
+            MainClass.spriteRenderer.draw(image, body.x, body.y);
         }
     }
 }
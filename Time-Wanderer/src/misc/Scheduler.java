@@ -0,0 +1,319 @@
+package misc;
+
+/**
+ * Timer wheel that runs callbacks after a given amount of game time.
+ * Instead of having a thread sleeping for each timed behaviour (for example,
+ * the enemies changing their patrol direction from time to time), every
+ * behaviour registers a callback here, and the wheel is advanced with the
+ * delta of the updates, so all the callbacks are executed on the game thread.
+ * The time is divided into slots of a fixed length, and each slot has a list
+ * of the tasks that expire on it; when the delay is longer than the whole
+ * wheel, the task waits some extra turns. Scheduling and cancelling a task
+ * take constant time, and each slot is only visited once per turn.
+ * Every task has an owner, so all the tasks of an object can be cancelled at
+ * once when it's removed from the game.
+ * The callbacks are executed by the thread that advances the wheel (the game
+ * thread), but tasks can be scheduled from any thread (for example, by the
+ * enemies of a dungeon that is being generated on the background).
+ */
+public class Scheduler {
+
+    /**
+     * Value of the slot of the tasks on the list that is being processed.
+     */
+    private static final int PROCESSING = Integer.MAX_VALUE;
+
+    /**
+     * Milliseconds of game time covered by each slot of the wheel.
+     */
+    private final int slotLength;
+
+    /**
+     * Lists of tasks that expire on each slot (first element of each list).
+     */
+    private final Task[] slots;
+
+    /**
+     * Mask to get the slot from a number of steps.
+     */
+    private final int mask;
+
+    /**
+     * Tasks of the slot that is being processed that haven't been checked yet.
+     */
+    private Task processing;
+
+    /**
+     * Slot of the wheel that was processed last.
+     */
+    private int cursor;
+
+    /**
+     * Milliseconds that have passed but don't complete a slot yet.
+     */
+    private int accumulator;
+
+    /**
+     * Number of tasks waiting to be executed.
+     */
+    private int size;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Constructor.
+     *
+     * @param slotLength
+     *              Milliseconds of game time of each slot. The callbacks will
+     *          be executed with this precision.
+     * @param slotCount
+     *              Number of slots of the wheel. It's rounded up to a power of
+     *          two.
+     */
+    public Scheduler (int slotLength, int slotCount) {
+
+        int count = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+
+        this.slotLength = Math.max(1, slotLength);
+        this.slots = new Task[count];
+        this.mask = count - 1;
+        this.cursor = 0;
+        this.accumulator = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Registers a callback to be executed after the given time.
+     *
+     * @param owner
+     *              Object that requests the callback. It can be used later to
+     *          cancel all its callbacks with {@link #cancelAll(Object)}.
+     * @param delay
+     *              Milliseconds of game time until the execution. It's rounded
+     *          up to the length of a slot (and it's, at least, one slot).
+     * @param callback
+     *              Action that will be performed.
+     *
+     * @return
+     *              The new task, that can be cancelled on its own.
+     */
+    public synchronized Task schedule (Object owner, int delay, Runnable callback) {
+
+        Task task = new Task(this, owner, callback);
+        int steps = Math.max(1, (delay + slotLength - 1) / slotLength);
+
+        task.rounds = (steps - 1) / slots.length;
+        link(task, (cursor + steps) & mask);
+        size++;
+
+        return task;
+    }
+
+    /**
+     * Advances the game time, executing every callback that expires.
+     *
+     * @param delta
+     *              Milliseconds of game time that have passed since the last
+     *          call.
+     */
+    public synchronized void advance (int delta) {
+
+        accumulator += delta;
+
+        while (accumulator >= slotLength) {
+
+            accumulator -= slotLength;
+            cursor = (cursor + 1) & mask;
+            processSlot(cursor);
+        }
+    }
+
+    /**
+     * Cancels all the pending tasks of the given owner.
+     *
+     * @param owner
+     *              Object whose callbacks won't be executed anymore.
+     */
+    public synchronized void cancelAll (Object owner) {
+
+        for (int i = 0; i < slots.length; i++) {
+
+            cancelAll(slots[i], owner);
+        }
+        cancelAll(processing, owner);
+    }
+
+    /**
+     * Cancels all the pending tasks and drops the game time that hasn't been
+     * processed yet.
+     */
+    public synchronized void clear () {
+
+        for (int i = 0; i < slots.length; i++) {
+
+            while (slots[i] != null) {
+                slots[i].cancel();
+            }
+        }
+        while (processing != null) {
+            processing.cancel();
+        }
+        accumulator = 0;
+    }
+
+    /**
+     * Returns the number of tasks waiting to be executed.
+     *
+     * @return
+     *          The value of <i>size</i>.
+     */
+    public synchronized int size () {
+
+        return size;
+    }
+
+    /**
+     * Cancels the tasks of the given owner on a list.
+     */
+    private static void cancelAll (Task first, Object owner) {
+
+        Task task = first;
+
+        while (task != null) {
+
+            Task next = task.next;
+
+            if (task.owner == owner) {
+                task.cancel();
+            }
+            task = next;
+        }
+    }
+
+    /**
+     * Executes the tasks of a slot that expire on this turn, and makes the
+     * rest wait for the next one.
+     */
+    private void processSlot (int slot) {
+
+        Task task;
+
+        /* Detaches the whole list, so the tasks scheduled by the callbacks
+        won't be processed until the next turn (the detached tasks can still
+        be cancelled by a callback) */
+        processing = slots[slot];
+        slots[slot] = null;
+
+        for (task = processing; task != null; task = task.next) {
+            task.slot = PROCESSING;
+        }
+
+        while ((task = processing) != null) {
+
+            processing = task.next;
+
+            if (processing != null) {
+                processing.previous = null;
+            }
+            task.next = null;
+
+            if (task.rounds > 0) {
+
+                task.rounds--;
+                link(task, slot);
+            } else {
+
+                task.slot = -1;
+                size--;
+                task.callback.run();
+            }
+        }
+    }
+
+    /**
+     * Adds a task at the beginning of the list of the given slot.
+     */
+    private void link (Task task, int slot) {
+
+        task.slot = slot;
+        task.previous = null;
+        task.next = slots[slot];
+
+        if (slots[slot] != null) {
+            slots[slot].previous = task;
+        }
+        slots[slot] = task;
+    }
+
+    /**
+     * Removes a task from the list of its slot.
+     */
+    private void unlink (Task task) {
+
+        if (task.previous != null) {
+            task.previous.next = task.next;
+        } else if (task.slot == PROCESSING) {
+            processing = task.next;
+        } else {
+            slots[task.slot] = task.next;
+        }
+
+        if (task.next != null) {
+            task.next.previous = task.previous;
+        }
+
+        task.previous = null;
+        task.next = null;
+        task.slot = -1;
+        size--;
+    }
+
+    /**
+     * Callback registered on the scheduler.
+     */
+    public static class Task {
+
+        private final Scheduler scheduler;
+        private final Object owner;
+        private final Runnable callback;
+
+        /* Position on the wheel (-1 when it's not waiting anymore) */
+        private int slot;
+        private int rounds;
+        private Task previous;
+        private Task next;
+
+        private Task (Scheduler scheduler, Object owner, Runnable callback) {
+
+            this.scheduler = scheduler;
+            this.owner = owner;
+            this.callback = callback;
+            this.slot = -1;
+        }
+
+        /**
+         * Cancels this task, if it hasn't been executed yet.
+         */
+        public void cancel () {
+
+            synchronized (scheduler) {
+                if (slot >= 0) {
+                    scheduler.unlink(this);
+                }
+            }
+        }
+
+        /**
+         * Returns <i>true</i> if the task is still waiting to be executed.
+         *
+         * @return
+         *          <i>true</i> if it hasn't been executed nor cancelled.
+         */
+        public boolean isPending () {
+
+            return slot >= 0;
+        }
+    }
+}
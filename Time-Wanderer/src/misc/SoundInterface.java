@@ -9,6 +9,7 @@ import org.newdawn.slick.Input;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Vector2f;
 import utils.NumberUtils;
+import utils.AtlasRegistry;
 
 /**
  *  This class implements a little interface with the necessary buttons to
@@ -103,7 +104,7 @@ public class SoundInterface {
         /* ON */
         try {
             musicImages[0] = 
-                    new Image("resources/ui/pifaceimages/music_ON.png");
+                    AtlasRegistry.getImage("resources/ui/pifaceimages/music_ON.png");
             /* Resizes the icon to half its initial value */
             musicImages[0] = musicImages[0].getScaledCopy(0.5f);
             
@@ -119,7 +120,7 @@ public class SoundInterface {
         /* OFF */
         try {
             musicImages[1] = 
-                    new Image("resources/ui/pifaceimages/music_OFF.png");
+                    AtlasRegistry.getImage("resources/ui/pifaceimages/music_OFF.png");
             /* Resizes the icon to half its initial value */
             musicImages[1] = musicImages[1].getScaledCopy(0.5f);
             
@@ -135,7 +136,7 @@ public class SoundInterface {
         /* ON-glow */
         try {
             musicImages[2] = 
-                    new Image("resources/ui/pifaceimages/music_ON-glow.png");
+                    AtlasRegistry.getImage("resources/ui/pifaceimages/music_ON-glow.png");
             /* Resizes the icon to half its initial value */
             musicImages[2] = musicImages[2].getScaledCopy(0.5f);
             
@@ -151,7 +152,7 @@ public class SoundInterface {
         /* OFF-glow */
         try {
             musicImages[3] = 
-                    new Image("resources/ui/pifaceimages/music_OFF-glow.png");
+                    AtlasRegistry.getImage("resources/ui/pifaceimages/music_OFF-glow.png");
             /* Resizes the icon to half its initial value */
             musicImages[3] = musicImages[3].getScaledCopy(0.5f);
             
@@ -173,7 +174,7 @@ public class SoundInterface {
         /* ON */
         try {
             effectsImages[0] = 
-                    new Image("resources/ui/pifaceimages/effects_ON.png");
+                    AtlasRegistry.getImage("resources/ui/pifaceimages/effects_ON.png");
             /* Resizes the icon to half its initial value */
             effectsImages[0] = effectsImages[0].getScaledCopy(0.5f);
             
@@ -189,7 +190,7 @@ public class SoundInterface {
         /* OFF */
         try {
             effectsImages[1] = 
-                    new Image("resources/ui/pifaceimages/effects_OFF.png");
+                    AtlasRegistry.getImage("resources/ui/pifaceimages/effects_OFF.png");
             /* Resizes the icon to half its initial value */
             effectsImages[1] = effectsImages[1].getScaledCopy(0.5f);
             
@@ -205,7 +206,7 @@ public class SoundInterface {
         /* ON-glow */
         try {
             effectsImages[2] = 
-                    new Image("resources/ui/pifaceimages/effects_ON-glow.png");
+                    AtlasRegistry.getImage("resources/ui/pifaceimages/effects_ON-glow.png");
             /* Resizes the icon to half its initial value */
             effectsImages[2] = effectsImages[2].getScaledCopy(0.5f);
             
@@ -221,7 +222,7 @@ public class SoundInterface {
         /* OFF-glow */
         try {
             effectsImages[3] = 
-                    new Image("resources/ui/pifaceimages/effects_OFF-glow.png");
+                    AtlasRegistry.getImage("resources/ui/pifaceimages/effects_OFF-glow.png");
             /* Resizes the icon to half its initial value */
             effectsImages[3] = effectsImages[3].getScaledCopy(0.5f);
             
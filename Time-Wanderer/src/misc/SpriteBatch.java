@@ -0,0 +1,371 @@
+package misc;
+
+import animations.SpriteAnimation;
+import animations.SpriteFrame;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import org.newdawn.slick.Color;
+import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.opengl.Texture;
+import org.newdawn.slick.opengl.renderer.Renderer;
+import org.newdawn.slick.opengl.renderer.SGL;
+import utils.AtlasRegistry;
+
+/**
+ * Collects the sprites drawn on a frame and sends them to OpenGL grouped by
+ * texture.
+ * Drawing an image directly binds its texture and sends a single quad, so a
+ * room with lots of enemies, projectiles and effects needs lots of calls. The
+ * objects draw their sprites here instead, and, when the room has finished,
+ * {@link #flush(Graphics)} sorts them by layer and texture and sends all the
+ * quads of each texture together (the frames of a sprite sheet share the same
+ * texture, so all the enemies of a kind are drawn at once).
+ * The order between layers is kept, but the sprites of the same layer may be
+ * drawn in a different order than they were added.
+ * The texts are drawn after all the sprites, so they're always on top.
+ * The sprites are stored on objects that are reused on every frame, so it
+ * doesn't allocate memory once it has grown enough.
+ * It's also the {@link SpriteRenderer} of the game: the image of each
+ * {@link SpriteFrame} is loaded (from the atlases) the first time it's drawn,
+ * and kept for the next frames.
+ */
+public class SpriteBatch implements SpriteRenderer {
+
+    /**
+     * Order in which the sprites are drawn: by layer, by texture and, then, in
+     * the order they were added.
+     */
+    private static final Comparator<Sprite> ORDER = (a, b) -> {
+        if (a.layer != b.layer) {
+            return Integer.compare(a.layer, b.layer);
+        }
+        if (a.texture != b.texture) {
+            return Integer.compare(a.texture, b.texture);
+        }
+        return Integer.compare(a.order, b.order);
+    };
+
+    /** Sprites added since the last flush (only the first 'size' are used) */
+    private Sprite[] sprites;
+    private int size;
+    /** Texts added since the last flush (only the first 'labelCount' are used) */
+    private final ArrayList<Label> labels;
+    private int labelCount;
+    /** Layer of the sprites that are being added */
+    private int layer;
+    /** Images of the frames that have been drawn (null if they couldn't be
+    loaded) */
+    private final Map<SpriteFrame, Image> frameImages;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    public SpriteBatch () {
+
+        this.sprites = new Sprite[64];
+        this.size = 0;
+        this.labels = new ArrayList<>();
+        this.labelCount = 0;
+        this.layer = 0;
+        this.frameImages = new HashMap<>();
+    }
+
+    /**
+     * Sets the layer of the sprites that will be added from now on. The
+     * sprites of a layer are drawn over the sprites of the lower layers.
+     *
+     * @param layer
+     *              New layer.
+     */
+    public void setLayer (int layer) {
+
+        this.layer = layer;
+    }
+
+    /**
+     * Adds an image with its original size.
+     *
+     * @param image
+     *              Image to draw.
+     * @param x
+     *              Position of the left side.
+     * @param y
+     *              Position of the top side.
+     */
+    public void draw (Image image, float x, float y) {
+
+        draw(image, x, y, image.getWidth(), image.getHeight(), 0, 0, 0);
+    }
+
+    @Override
+    public void draw (SpriteFrame frame, float x, float y) {
+
+        draw(frame, x, y, frame.getWidth(), frame.getHeight(), 0, 0, 0);
+    }
+
+    @Override
+    public void draw (SpriteFrame frame, float x, float y, float width,
+                      float height, float rotation, float centerX,
+                      float centerY) {
+
+        Image image = getImage(frame);
+
+        if (image != null) {
+            draw(image, x, y, width, height, rotation, centerX, centerY);
+        }
+    }
+
+    @Override
+    public void drawAnimation (SpriteAnimation anim, float x, float y) {
+
+        draw(anim.getCurrentFrame(), x, y);
+    }
+
+    /**
+     * Adds a scaled and rotated image. The rotation of the image itself is
+     * ignored, so the same image can be drawn with different rotations.
+     *
+     * @param image
+     *              Image to draw.
+     * @param x
+     *              Position of the left side.
+     * @param y
+     *              Position of the top side.
+     * @param width
+     *              Width of the sprite.
+     * @param height
+     *              Height of the sprite.
+     * @param rotation
+     *              Angle of rotation, in degrees.
+     * @param centerX
+     *              Center of rotation, relative to the left side.
+     * @param centerY
+     *              Center of rotation, relative to the top side.
+     */
+    public void draw (Image image, float x, float y, float width, float height,
+                      float rotation, float centerX, float centerY) {
+
+        if (size == sprites.length) {
+            sprites = Arrays.copyOf(sprites, size * 2);
+        }
+        if (sprites[size] == null) {
+            sprites[size] = new Sprite();
+        }
+
+        Sprite s = sprites[size];
+
+        s.image = image;
+        s.texture = image.getTexture().getTextureID();
+        s.layer = layer;
+        s.order = size;
+        s.x = x;
+        s.y = y;
+        s.width = width;
+        s.height = height;
+        s.rotation = rotation;
+        s.centerX = x + centerX;
+        s.centerY = y + centerY;
+
+        size++;
+    }
+
+    /**
+     * Adds a text, that will be drawn over every sprite.
+     *
+     * @param text
+     *              Text to draw.
+     * @param x
+     *              Position of the left side.
+     * @param y
+     *              Position of the top side.
+     * @param color
+     *              Color of the text.
+     */
+    @Override
+    public void drawString (String text, float x, float y, Color color) {
+
+        if (labelCount == labels.size()) {
+            labels.add(new Label());
+        }
+
+        Label l = labels.get(labelCount++);
+
+        l.text = text;
+        l.x = x;
+        l.y = y;
+        l.color = color;
+    }
+
+    /**
+     * Draws everything that has been added since the last call, and empties
+     * the batch.
+     *
+     * @param g
+     *              Graphics on which the sprites will be drawn.
+     */
+    public void flush (Graphics g) {
+
+        Color previousColor = g.getColor();
+
+        if (size > 0) {
+
+            SGL gl = Renderer.get();
+            Texture bound = null;
+
+            Arrays.sort(sprites, 0, size, ORDER);
+            Color.white.bind();
+
+            for (int i = 0; i < size; i++) {
+
+                Sprite s = sprites[i];
+                Texture texture = s.image.getTexture();
+
+                /* Starts a new group of quads every time the texture changes */
+                if (texture != bound) {
+
+                    if (bound != null) {
+                        gl.glEnd();
+                    }
+                    texture.bind();
+                    gl.glBegin(SGL.GL_QUADS);
+                    bound = texture;
+                }
+                emit(gl, s);
+                s.image = null;
+            }
+            gl.glEnd();
+            previousColor.bind();
+        }
+
+        for (int i = 0; i < labelCount; i++) {
+
+            Label l = labels.get(i);
+
+            g.setColor(l.color);
+            g.drawString(l.text, l.x, l.y);
+            l.text = null;
+        }
+        if (labelCount > 0) {
+            g.setColor(previousColor);
+        }
+
+        size = 0;
+        labelCount = 0;
+    }
+
+    /**
+     * Returns the image of a frame, cutting it from its atlas (or file) if
+     * it's the first time that it's drawn.
+     *
+     * @return
+     *              The image, or null if it couldn't be loaded.
+     */
+    private Image getImage (SpriteFrame frame) {
+
+        if (frameImages.containsKey(frame)) {
+            return frameImages.get(frame);
+        }
+
+        Image image = null;
+
+        try {
+            image = AtlasRegistry.getImage(frame.getPath())
+                                 .getSubImage(frame.getX(), frame.getY(),
+                                              frame.getSourceWidth(),
+                                              frame.getSourceHeight());
+            if (frame.isFlipped()) {
+                image = image.getFlippedCopy(true, false);
+            }
+        } catch (SlickException ex) {
+            System.out.println("Unable to load " + frame.getPath() + ": "
+                               + ex.getMessage());
+        }
+
+        frameImages.put(frame, image);
+        return image;
+    }
+
+    /**
+     * Sends the vertices of a sprite.
+     */
+    private static void emit (SGL gl, Sprite s) {
+
+        Image image = s.image;
+        float u0 = image.getTextureOffsetX();
+        float v0 = image.getTextureOffsetY();
+        float u1 = u0 + image.getTextureWidth();
+        float v1 = v0 + image.getTextureHeight();
+
+        float x0 = s.x, y0 = s.y;
+        float x1 = s.x + s.width, y1 = s.y + s.height;
+
+        if (s.rotation == 0) {
+
+            gl.glTexCoord2f(u0, v0);
+            gl.glVertex3f(x0, y0, 0);
+            gl.glTexCoord2f(u0, v1);
+            gl.glVertex3f(x0, y1, 0);
+            gl.glTexCoord2f(u1, v1);
+            gl.glVertex3f(x1, y1, 0);
+            gl.glTexCoord2f(u1, v0);
+            gl.glVertex3f(x1, y0, 0);
+        } else {
+
+            double angle = Math.toRadians(s.rotation);
+            float cos = (float) Math.cos(angle);
+            float sin = (float) Math.sin(angle);
+
+            gl.glTexCoord2f(u0, v0);
+            vertex(gl, s, x0, y0, cos, sin);
+            gl.glTexCoord2f(u0, v1);
+            vertex(gl, s, x0, y1, cos, sin);
+            gl.glTexCoord2f(u1, v1);
+            vertex(gl, s, x1, y1, cos, sin);
+            gl.glTexCoord2f(u1, v0);
+            vertex(gl, s, x1, y0, cos, sin);
+        }
+    }
+
+    /**
+     * Sends a vertex rotated around the center of rotation of the sprite.
+     */
+    private static void vertex (SGL gl, Sprite s, float x, float y,
+                                float cos, float sin) {
+
+        float dx = x - s.centerX;
+        float dy = y - s.centerY;
+
+        gl.glVertex3f(s.centerX + dx * cos - dy * sin,
+                      s.centerY + dx * sin + dy * cos,
+                      0);
+    }
+
+    /**
+     * Image waiting to be drawn.
+     */
+    private static class Sprite {
+
+        private Image image;
+        private int texture;
+        private int layer;
+        private int order;
+        private float x, y, width, height;
+        private float rotation, centerX, centerY;
+    }
+
+    /**
+     * Text waiting to be drawn.
+     */
+    private static class Label {
+
+        private String text;
+        private float x, y;
+        private Color color;
+    }
+}
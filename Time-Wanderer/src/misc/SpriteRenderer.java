@@ -0,0 +1,85 @@
+package misc;
+
+import animations.SpriteAnimation;
+import animations.SpriteFrame;
+import org.newdawn.slick.Color;
+
+/**
+ * Output used by the entities and the items to draw their sprites.
+ * They only describe what they show with {@link SpriteFrame}s and
+ * {@link SpriteAnimation}s, that don't need any image to be loaded, and the
+ * renderer draws them. The renderer of the game is set on
+ * {@link main.MainClass#spriteRenderer}. There are two renderers:
+ * <ul>
+ *  <li>{@link SpriteBatch}: loads the images the first time they're drawn and
+ *      sends them to OpenGL, grouped by texture.</li>
+ *  <li>{@link NullSpriteRenderer}: doesn't draw anything, nor load any image
+ *      (for the headless runs, without an OpenGL context).</li>
+ * </ul>
+ */
+public interface SpriteRenderer {
+
+    /**
+     * Draws a frame with its own size.
+     *
+     * @param frame
+     *              Frame to draw.
+     * @param x
+     *              Position of the left side.
+     * @param y
+     *              Position of the top side.
+     */
+    public void draw (SpriteFrame frame, float x, float y);
+
+    /**
+     * Draws a scaled and rotated frame.
+     *
+     * @param frame
+     *              Frame to draw.
+     * @param x
+     *              Position of the left side.
+     * @param y
+     *              Position of the top side.
+     * @param width
+     *              Width of the sprite.
+     * @param height
+     *              Height of the sprite.
+     * @param rotation
+     *              Angle of rotation, in degrees.
+     * @param centerX
+     *              Center of rotation, relative to the left side.
+     * @param centerY
+     *              Center of rotation, relative to the top side.
+     */
+    public void draw (SpriteFrame frame, float x, float y, float width,
+                      float height, float rotation, float centerX,
+                      float centerY);
+
+    /**
+     * Draws the current frame of an animation. The animation isn't updated
+     * here: its owner advances it with {@link SpriteAnimation#update(long)} on
+     * the simulation ticks.
+     *
+     * @param anim
+     *              Animation to draw.
+     * @param x
+     *              Position of the left side.
+     * @param y
+     *              Position of the top side.
+     */
+    public void drawAnimation (SpriteAnimation anim, float x, float y);
+
+    /**
+     * Draws a text, over every sprite.
+     *
+     * @param text
+     *              Text to draw.
+     * @param x
+     *              Position of the left side.
+     * @param y
+     *              Position of the top side.
+     * @param color
+     *              Color of the text.
+     */
+    public void drawString (String text, float x, float y, Color color);
+}
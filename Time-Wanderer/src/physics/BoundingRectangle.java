@@ -106,6 +106,9 @@ public class BoundingRectangle extends BoundingShape {
 
     /**
      * Method to return the tiles that this bounding rectangle is occupying.
+     * Allocates a new list on each call, so it shouldn't be used on the
+     * physics loop: iterate the range given by getFirstTileColumn(),
+     * getLastTileColumn(), getFirstTileRow() and getLastTileRow() instead.
      *
      * @param tiles List of tiles in the current room/level
      * @return
@@ -114,13 +117,12 @@ public class BoundingRectangle extends BoundingShape {
     public ArrayList<Tile> getTilesOccupying(Tile[][] tiles) {
         ArrayList<Tile> occupiedTiles = new ArrayList<Tile>();
         
-        for(int i = NumberUtils.roundDown((int) x,TILE_SIZE); i <= x + width; i += TILE_SIZE) {
-            if(i<0 || i/TILE_SIZE>=tiles.length)
-                continue;
-            for(int j = NumberUtils.roundDown((int) y, TILE_SIZE); j <= y + height; j +=TILE_SIZE) {
-                if(j<0 || j/TILE_SIZE >= tiles[0].length)
-                    continue;
-                occupiedTiles.add(tiles[(i/TILE_SIZE)][(j/TILE_SIZE)]);
+        int lastColumn = Math.min(getLastTileColumn(), tiles.length - 1);
+        int lastRow = Math.min(getLastTileRow(), tiles[0].length - 1);
+        
+        for(int i = Math.max(getFirstTileColumn(), 0); i <= lastColumn; i++) {
+            for(int j = Math.max(getFirstTileRow(), 0); j <= lastRow; j++) {
+                occupiedTiles.add(tiles[i][j]);
             }
         }
         
@@ -129,6 +131,9 @@ public class BoundingRectangle extends BoundingShape {
    
     /**
      * Method to return the tiles below the bounding rect, i.e. 'ground tiles'.
+     * Allocates a new list on each call, so it shouldn't be used on the
+     * physics loop: iterate the columns given by getFirstTileColumn() and
+     * getLastTileColumn() on the row getGroundTileRow() instead.
      *
      * @param tiles List of tiles in the current room/level
      * @return
@@ -136,16 +141,62 @@ public class BoundingRectangle extends BoundingShape {
     @Override
     public ArrayList<Tile> getGroundTiles(Tile[][] tiles) {
         ArrayList<Tile> tilesUnderneath = new ArrayList<Tile>();
-        int j = (int) (y + height + 1);
+        int j = getGroundTileRow();
         
-        if(j >= 0 && j/TILE_SIZE < tiles[0].length) {
-            for(int i = NumberUtils.roundDown((int) x,TILE_SIZE); i <= x + width; i += TILE_SIZE) {
-                if(i<0 || i/TILE_SIZE>=tiles.length) 
-                    continue;
-                tilesUnderneath.add(tiles[(i/TILE_SIZE)][(j/TILE_SIZE)]);
+        if(j >= 0 && j < tiles[0].length) {
+            int lastColumn = Math.min(getLastTileColumn(), tiles.length - 1);
+            for(int i = Math.max(getFirstTileColumn(), 0); i <= lastColumn; i++) {
+                tilesUnderneath.add(tiles[i][j]);
             }
         }
         return tilesUnderneath;
     }
+    
+    /**
+     * Column of the leftmost tile this bounding rectangle is occupying.
+     * @return Index of the column (may be out of the map).
+     */
+    @Override
+    public int getFirstTileColumn() {
+        return NumberUtils.roundDown((int) x, TILE_SIZE) / TILE_SIZE;
+    }
+    
+    /**
+     * Column of the rightmost tile this bounding rectangle is occupying.
+     * @return Index of the column (may be out of the map).
+     */
+    @Override
+    public int getLastTileColumn() {
+        return (int) Math.floor((x + width) / TILE_SIZE);
+    }
+    
+    /**
+     * Row of the upper tile this bounding rectangle is occupying.
+     * @return Index of the row (may be out of the map).
+     */
+    @Override
+    public int getFirstTileRow() {
+        return NumberUtils.roundDown((int) y, TILE_SIZE) / TILE_SIZE;
+    }
+    
+    /**
+     * Row of the lower tile this bounding rectangle is occupying.
+     * @return Index of the row (may be out of the map).
+     */
+    @Override
+    public int getLastTileRow() {
+        return (int) Math.floor((y + height) / TILE_SIZE);
+    }
+    
+    /**
+     * Row of the tiles right below the bounding rect, i.e. 'ground tiles'.
+     * @return Index of the row, or -1 if it's above the map.
+     */
+    @Override
+    public int getGroundTileRow() {
+        int j = (int) (y + height + 1);
+        
+        return (j < 0) ? -1 : j / TILE_SIZE;
+    }
 
 }
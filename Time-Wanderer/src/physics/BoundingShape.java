@@ -25,6 +25,18 @@ abstract public class BoundingShape {
  
     public abstract ArrayList<Tile> getGroundTiles(Tile[][] tiles);
     
+    /*
+     * Allocation-free alternative to getTilesOccupying() and getGroundTiles().
+     * Instead of building a list, these methods return the (unclamped) range
+     * of tile indexes covered by the shape, so the caller can iterate the map
+     * directly. The caller is responsible of clamping them to the map bounds.
+     */
+    public abstract int getFirstTileColumn();
+    public abstract int getLastTileColumn();
+    public abstract int getFirstTileRow();
+    public abstract int getLastTileRow();
+    public abstract int getGroundTileRow();
+    
     public abstract float getX();
     public abstract float getY();
     public abstract float getWidth();
@@ -4,13 +4,15 @@ import entities.FlyingEnemy;
 import entities.GameCharacter;
 import entities.Player;
 import entities.GameObject;
-import java.util.ArrayList;
 import levels.Room;
+import levels.tiles.CollisionGrid;
+import static levels.tiles.CollisionGrid.COLLIDABLE;
+import static levels.tiles.CollisionGrid.DAMAGING;
+import static levels.tiles.CollisionGrid.LADDER;
+import static levels.tiles.CollisionGrid.PLATFORM;
+import static levels.tiles.CollisionGrid.SOLID;
 import levels.tiles.DamagingTile;
-import levels.tiles.LadderTile;
-import levels.tiles.PlatformTile;
-import levels.tiles.SolidTile;
-import levels.tiles.Tile;
+import static levels.tiles.Tile.TILE_SIZE;
 
 /**
  * Class that contains the methods to handle the whole physics 'engine' of
@@ -126,11 +128,10 @@ public class Physics {
         float x_movement = obj.getXVelocity() * delta;
         float y_movement = obj.getYVelocity() * delta;
 
-        /* We have to calculate the step we have to take: the step helps to
-           move 'step by step' to the x_movement or y_movement. This is useful
-           to avoid wrong movement calculations in cases of fps drops where the
-           gameobject suddenly goes through a tile where it should collide, getting
-           it stuck. The code below takes care of that.
+        /* We have to calculate the step we have to take: the step is the
+           resolution used to place the gameobject next to the tile it collides
+           with, so it stays at the same distance (less than a step) from it as
+           when it was moved 'step by step'.
         */
         
         float step_y = 0;
@@ -169,77 +170,38 @@ public class Physics {
             }
         }
 
-        // And then do little steps until we are done moving
-        while (x_movement != 0 || y_movement != 0) {
-
-            // We first move in the x direction
-            if (x_movement != 0) {
-                // When we do a step, update the amount we have to move after this
-                if ((x_movement > 0 && x_movement < step_x) || 
-                    (x_movement > step_x && x_movement < 0)) {
-                    
-                    step_x = x_movement;
-                    x_movement = 0;
-                    
-                } else {
-                    x_movement -= step_x;
-                }
-
-                // Then we move the object one step
-                obj.setX(obj.getX() + step_x);
-
-                // If we collide with any of the bounding shapes of the tiles,
-                // we have to revert to our original position.
-                if (checkCollision(obj, level.getTiles())) {
-
-                    // Undo our step, and set the velocity and amount we still 
-                    // have to move to 0 because we can't move in that direction
-                    obj.setX(obj.getX() - step_x);
-                    obj.setXVelocity(0);
-                    x_movement = 0;
-                }
-
+        /* Instead of moving little steps and checking the collisions after each
+           one (whose cost grows with the velocity and the delta, so it gets
+           even slower on fps drops), sweep the bounding shape along each axis
+           and stop it right before the first tile it would collide with.
+           This only visits the tiles crossed by the shape, whatever the speed.
+        */
+        // We first move in the x direction
+        if (x_movement != 0) {
+            if (sweep(obj, level.getTiles(), true, x_movement, step_x)) {
+                // We can't move in that direction anymore
+                obj.setXVelocity(0);
             }
-            // Same thing for the vertical, or y movement
-            if (y_movement != 0) {
-                if ((y_movement > 0 && y_movement < step_y) || 
-                    (y_movement > step_y && y_movement < 0)) {
-                    
-                    step_y = y_movement;
-                    y_movement = 0;
-                    
-                } else {
-                    y_movement -= step_y;
-                }
-                // Then we move the object one step
-                obj.setY(obj.getY() + step_y);
-
-                // If we collide with any of the bounding shapes of the tiles,
-                // we have to revert to our original position.
-                if (checkCollision(obj, level.getTiles())) {
-                      
-                    // Undo our step, and set the velocity and amount we still 
-                    // have to move to 0 because we can't move in that direction
-                    obj.setY(obj.getY() - step_y);
-                    obj.setYVelocity(0);
-                    y_movement = 0;
-                    break;
-                }
-                
-                // If the gameobject is not ignoring platforms (or collisions),
-                // check if the object is on a platform and in that case, set
-                // its Y position properly: in cases of FPS drops and since
-                // platforms have a different collision system than SolidTiles,
-                // the gameobject might go inside the bounding shape of the platform,
-                // instead of being on top of it.
-                // Also fixes the bug where the gameobject might be below the
-                // top of the platform but still detects it as the ground tile,
-                // making it to float. If that is the case, the method tells
-                // the gameobject to ignore platforms. (Until there's no platforms
-                // below).
-                if(!obj.getIgnoresPlatforms())
-                    fixPlatform(obj, level.getTiles());
+        }
+        // Same thing for the vertical, or y movement
+        if (y_movement != 0) {
+            if (sweep(obj, level.getTiles(), false, y_movement, step_y)) {
+                obj.setYVelocity(0);
             }
+
+            // If the gameobject is not ignoring platforms (or collisions),
+            // check if the object is on a platform and in that case, set
+            // its Y position properly: since platforms have a different
+            // collision system than SolidTiles, the gameobject might go inside
+            // the bounding shape of the platform (when jumping through it),
+            // instead of being on top of it.
+            // Also fixes the bug where the gameobject might be below the
+            // top of the platform but still detects it as the ground tile,
+            // making it to float. If that is the case, the method tells
+            // the gameobject to ignore platforms. (Until there's no platforms
+            // below).
+            if(!obj.getIgnoresPlatforms())
+                fixPlatform(obj, level.getTiles());
         }
         
         // If the object is climbing, since we have already moved, set the velocity
@@ -253,63 +215,167 @@ public class Physics {
         
     }
     /**
-     * Check if a GameObject is colliding with a tile with BoundingShape in
-     * any of its occupied tiles.
-     * @param obj GameObject to check the tiles it occupies.
+     * Moves a GameObject along one of the axes (swept AABB against the tiles
+     * of the map), stopping it before the first tile it would collide with.
+     * The tiles are checked line by line (columns when moving horizontally,
+     * rows when moving vertically) in the direction of the movement, from the
+     * ones occupied at the beginning until the ones occupied at the end.
+     * @param obj GameObject to move.
      * @param mapTiles Tiles of the map.
-     * @return True if collision exists, false if not.
+     * @param horizontal True to move along the X axis, false for the Y axis.
+     * @param movement Distance to move, in pixels (negative to go left/up).
+     * @param step Resolution of the movement (see lastFreePosition()).
+     * @return True if the movement was stopped by a collision, false if not.
      */
-    private boolean checkCollision(GameObject obj, Tile[][] mapTiles) {
-        if(obj.getIgnoresCollisions()) // If the obj is ignoring collisions,
-            return false;              // always return false.
+    private boolean sweep(GameObject obj, CollisionGrid mapTiles,
+            boolean horizontal, float movement, float step) {
         
-        // First check if it collides with a solid tile.
-        if(checkCollisionWithSolidTile(obj, mapTiles)) {
-            return true;
-        } else if(!obj.getIgnoresPlatforms()) {
-            //get only the tiles that matter
-            ArrayList<Tile> tiles = obj.getBoundingShape().getTilesOccupying(mapTiles);
-
-
-            for (Tile t : tiles) {
-                //if this tile has a bounding shape
-                if (t.getBoundingShape() != null) {
-                    if(t instanceof PlatformTile) {
-                        BoundingShape aux = obj.getBoundingShape();
-                        if(aux.getY()+aux.getHeight() <= t.getBoundingShape().getY()) {
-                            return true;
-                        }
-                    } else if (t.getBoundingShape().checkCollision(obj.getBoundingShape())) {
-                        return true;
-                    }
+        BoundingShape obs = obj.getBoundingShape();
+        float start = horizontal ? obs.getX() : obs.getY();
+        float size = horizontal ? obs.getWidth() : obs.getHeight();
+        float end = start + movement;
+        
+        if(!obj.getIgnoresCollisions()) { // If the obj is ignoring collisions,
+                                          // it can always move freely.
+            // First position the object would take
+            float first = (Math.abs(movement) < Math.abs(step)) ? end : start + step;
+            int direction = (movement > 0) ? 1 : -1;
+            int line, lastLine, lines, from, to;
+            
+            if (horizontal) {
+                line = (movement > 0) ? obs.getFirstTileColumn() : obs.getLastTileColumn();
+                lines = mapTiles.getColumns();
+                // Rows occupied while moving horizontally
+                from = firstRow(obs);
+                to = lastRow(obs, mapTiles);
+            } else {
+                line = (movement > 0) ? obs.getFirstTileRow() : obs.getLastTileRow();
+                lines = mapTiles.getRows();
+                // Columns occupied while moving vertically
+                from = firstColumn(obs);
+                to = lastColumn(obs, mapTiles);
+            }
+            lastLine = (int) Math.floor(((movement > 0) ? end + size : end) / TILE_SIZE);
+            
+            for (; (line - lastLine) * direction <= 0; line += direction) {
+                if (line < 0 || line >= lines
+                        || !isBlocking(obj, mapTiles, horizontal, movement, line, from, to)) {
+                    continue;
                 }
-
+                // Coordinates where the shape starts and stops occupying
+                // the tiles of this line (the same range used to get the
+                // occupied tiles: the far side of a tile isn't occupied).
+                float near = (movement > 0) ? line * TILE_SIZE - size
+                                            : Math.nextDown((line + 1) * TILE_SIZE);
+                float far = (movement > 0) ? Math.nextDown((line + 1) * TILE_SIZE)
+                                           : line * TILE_SIZE - size;
+                
+                // If the shape is leaving these tiles, they don't stop it.
+                if ((first - far) * direction > 0) {
+                    continue;
+                }
+                
+                float stop = lastFreePosition(start, movement, step, near);
+                if (!Float.isNaN(stop)) {
+                    setPosition(obj, horizontal, stop);
+                    return true;
+                }
+                // If this line can't be reached, neither can the next ones.
+                break;
             }
         }
+        
+        setPosition(obj, horizontal, end);
         return false;
     }
+    
     /**
-     * Check if a GameObject is colliding with a SolidTile
-     * @param obj GameObject to check the tiles it occupies.
+     * Checks if any of the tiles of a line of the map (column or row) would
+     * stop the GameObject moving along the given axis.
+     * <ul>
+     * <li>Solid tiles always stop it.</li>
+     * <li>Damaging tiles stop it, unless it's ignoring platforms.</li>
+     * <li>Platform tiles only stop it, unless it's ignoring platforms, if it's
+     * falling from above them (or walking exactly on top of them).</li>
+     * </ul>
+     * @param obj GameObject that is being moved.
      * @param mapTiles Tiles of the map.
-     * @return True if collision exists, false if not.
+     * @param horizontal True if the object moves along the X axis.
+     * @param movement Distance to move (to know the direction).
+     * @param line Column (horizontal) or row (vertical) to check.
+     * @param from First row (horizontal) or column (vertical) to check.
+     * @param to Last row (horizontal) or column (vertical) to check.
+     * @return True if any of the tiles blocks the movement, false if not.
      */
-    private boolean checkCollisionWithSolidTile(GameObject obj, Tile[][] mapTiles) {
-        //get only the tiles that matter
-        ArrayList<Tile> tiles = obj.getBoundingShape().getTilesOccupying(mapTiles);
+    private boolean isBlocking(GameObject obj, CollisionGrid mapTiles,
+            boolean horizontal, float movement, int line, int from, int to) {
         
+        BoundingShape obs = obj.getBoundingShape();
+        float bottom = obs.getY() + obs.getHeight();
         
-        for (Tile t : tiles) {
-            //if this tile has a bounding shape
-            if (t.getBoundingShape() != null) {
-                if(t instanceof SolidTile) {
-                    if (t.getBoundingShape().checkCollision(obj.getBoundingShape())) 
+        for (int i = from; i <= to; i++) {
+            byte t = horizontal ? mapTiles.get(line, i) : mapTiles.get(i, line);
+            
+            if (t == SOLID) {
+                return true;
+            }
+            if (!obj.getIgnoresPlatforms()) {
+                if (t == DAMAGING) {
+                    return true;
+                }
+                if (t == PLATFORM) {
+                    // Horizontally, the row is 'i'; vertically it is 'line'.
+                    float platformY = (horizontal ? i : line) * TILE_SIZE;
+                    if ((horizontal || movement > 0) && bottom <= platformY) {
                         return true;
+                    }
                 }
             }
         }
         return false;
     }
+    
+    /**
+     * Emulates a movement done 'step' by 'step' from 'start', and returns the
+     * last position taken before reaching 'limit' (i.e. the position it would
+     * have been reverted to after colliding when moving step by step).
+     * @param start Initial coordinate.
+     * @param movement Distance to move (negative to move backwards).
+     * @param step Size of each step, with the same sign as 'movement'.
+     * @param limit Coordinate where the collision starts.
+     * @return The last free position, or NaN if 'limit' is never reached.
+     */
+    private float lastFreePosition(float start, float movement, float step, float limit) {
+        if (movement < 0) {
+            return -lastFreePosition(-start, -movement, -step, -limit);
+        }
+        if (start + movement < limit) {
+            return Float.NaN;
+        }
+        // Number of whole steps, and first step that reaches the limit.
+        int steps = (int) (movement / step);
+        int k = Math.max(1, (int) Math.ceil((limit - start) / step));
+        
+        if (k <= steps) {
+            return start + (k - 1) * step;
+        }
+        // Only the last (partial) step reaches the limit
+        return start + steps * step;
+    }
+    
+    /**
+     * Changes one of the coordinates of a GameObject.
+     * @param obj GameObject to move.
+     * @param horizontal True to change the X coordinate, false for the Y one.
+     * @param value New value of the coordinate.
+     */
+    private void setPosition(GameObject obj, boolean horizontal, float value) {
+        if (horizontal) {
+            obj.setX(value);
+        } else {
+            obj.setY(value);
+        }
+    }
     /**
      * Check if a GameObject is colliding with LadderTile in
      * any of its occupied tiles.
@@ -317,13 +383,17 @@ public class Physics {
      * @param mapTiles Tiles of the map.
      * @return True if collision exists, false if not.
      */
-    private boolean checkLadder(GameObject obj, Tile[][] mapTiles) {
-        //get only the tiles that matter
-        ArrayList<Tile> tiles = obj.getBoundingShape().getTilesOccupying(mapTiles);
+    private boolean checkLadder(GameObject obj, CollisionGrid mapTiles) {
+        //iterate only the tiles that matter
+        BoundingShape obs = obj.getBoundingShape();
+        int lastColumn = lastColumn(obs, mapTiles);
+        int lastRow = lastRow(obs, mapTiles);
 
-        for (Tile t : tiles) {
-            if (t instanceof LadderTile) {
-                return true;
+        for (int i = firstColumn(obs); i <= lastColumn; i++) {
+            for (int j = firstRow(obs); j <= lastRow; j++) {
+                if (mapTiles.get(i, j) == LADDER) {
+                    return true;
+                }
             }
         }
         return false;
@@ -336,31 +406,37 @@ public class Physics {
      * @param mapTiles Tiles of the map
      * @return True if there are, false if not.
      */
-    private boolean isOnGround(GameObject obj, Tile[][] mapTiles) {
+    private boolean isOnGround(GameObject obj, CollisionGrid mapTiles) {
         // We get the tiles that are directly "underneath" the characters,
         // also known as the ground tiles
-        ArrayList<Tile> tiles = obj.getBoundingShape().getGroundTiles(mapTiles);
+        BoundingShape obs = obj.getBoundingShape();
+        int row = groundRow(obs, mapTiles);
+        if (row < 0) {
+            return false;
+        }
+        int firstColumn = firstColumn(obs);
+        int lastColumn = lastColumn(obs, mapTiles);
         
         // We lower the the bounding object a bit so we can check if we are 
         // actually a bit above the ground
-        obj.getBoundingShape().movePosition(0, 1);
+        obs.movePosition(0, 1);
 
-        for (Tile t : tiles) {
+        for (int i = firstColumn; i <= lastColumn; i++) {
             // Not every tile has a bounding shape (empty tiles for example)
-            if (t.getBoundingShape() != null) {
+            if (mapTiles.is(i, row, COLLIDABLE)) {
                 // If the ground and the lowered object collide, 
                 // then we are on the ground
-                if (t.getBoundingShape().checkCollision(obj.getBoundingShape())) {
+                if (CollisionGrid.overlaps(i, row, obs)) {
                     // Don't forget to move the object back up 
                     // even if we are on the ground!
-                    obj.getBoundingShape().movePosition(0, -1);
+                    obs.movePosition(0, -1);
                     return true;
                 }
             }
         }
 
         // And obviously we have to move the object back up if we don't hit the ground
-        obj.getBoundingShape().movePosition(0, -1);
+        obs.movePosition(0, -1);
 
         return false;
     }
@@ -373,15 +449,21 @@ public class Physics {
      * @param mapTiles Tiles of the map
      * @return True if there are, false if not.
      */
-    private boolean isOnPlatform(GameObject obj, Tile[][] mapTiles) {
+    private boolean isOnPlatform(GameObject obj, CollisionGrid mapTiles) {
         //we get the tiles that are directly "underneath": "ground tiles"
-        ArrayList<Tile> tiles = obj.getBoundingShape().getGroundTiles(mapTiles);
+        BoundingShape obs = obj.getBoundingShape();
+        int row = groundRow(obs, mapTiles);
+        if (row < 0) {
+            return false;
+        }
+        int firstColumn = firstColumn(obs);
+        int lastColumn = lastColumn(obs, mapTiles);
         int counter = 0;
         
         boolean containsPlatforms = false;
         // If there are no PlatformTiles below, directly return false.
-        for (Tile t : tiles) {
-            if(t instanceof PlatformTile) {
+        for (int i = firstColumn; i <= lastColumn; i++) {
+            if(mapTiles.get(i, row) == PLATFORM) {
                 containsPlatforms = true;
                 break;
             }
@@ -391,21 +473,22 @@ public class Physics {
         
         // We lower the the bounding object a bit so we can check if we are 
         // actually a bit above the ground.
-        obj.getBoundingShape().movePosition(0, 1);
+        obs.movePosition(0, 1);
 
-        for (Tile t : tiles) {
+        for (int i = firstColumn; i <= lastColumn; i++) {
+            byte t = mapTiles.get(i, row);
             //not every tile has a bounding shape (empty tiles for example)
-            if (t.getBoundingShape() != null) {
+            if ((t & COLLIDABLE) != 0) {
                 counter++;// Increment counter of tiles that have boundingShapes
-                if (t.getBoundingShape().checkCollision(obj.getBoundingShape())) {
-                    if(t instanceof PlatformTile) {
+                if (CollisionGrid.overlaps(i, row, obs)) {
+                    if(t == PLATFORM) {
                         counter--;
                     }
                 }
             }
         }
         //don't forget to move the object back up even if we are on the ground!
-        obj.getBoundingShape().movePosition(0, -1);
+        obs.movePosition(0, -1);
         // If the counter is different than 0, it means that atleast one of the
         // tiles below is not a PlatformTile and contains a BoundingShape, so
         // we have to collide with it. We can't step down.
@@ -419,21 +502,27 @@ public class Physics {
      * @param mapTiles Tiles of the map
      * @return True if there are, false if not.
      */
-    private boolean isOnDamaging(GameCharacter character, Tile[][] mapTiles) {
+    private boolean isOnDamaging(GameCharacter character, CollisionGrid mapTiles) {
         //we get the tiles that are directly "underneath": "ground tiles"
-        ArrayList<Tile> tiles = character.getBoundingShape().getGroundTiles(mapTiles);
+        BoundingShape cbs = character.getBoundingShape();
+        int row = groundRow(cbs, mapTiles);
+        if (row < 0) {
+            return false;
+        }
+        int firstColumn = firstColumn(cbs);
+        int lastColumn = lastColumn(cbs, mapTiles);
         
         // We lower the the bounding object a bit so we can check if we are 
         // actually a bit above the ground.
-        character.getBoundingShape().movePosition(0, 1);
+        cbs.movePosition(0, 1);
 
-        for (Tile t : tiles) {
+        for (int i = firstColumn; i <= lastColumn; i++) {
             //not every tile has a bounding shape (empty tiles for example)
-            if (t.getBoundingShape() != null) {
-                if (t.getBoundingShape().checkCollision(character.getBoundingShape())) {
-                    if(t instanceof DamagingTile) {
+            if (mapTiles.is(i, row, COLLIDABLE)) {
+                if (CollisionGrid.overlaps(i, row, cbs)) {
+                    if(mapTiles.get(i, row) == DAMAGING) {
                         // Move the character back up.
-                        character.getBoundingShape().movePosition(0, -1);
+                        cbs.movePosition(0, -1);
                         return true;
                     }
                 }
@@ -441,7 +530,7 @@ public class Physics {
         }
         // If reached here, then there was no DamagingTile below.
         // Don't forget to move the object back up even if we are on the ground!
-        character.getBoundingShape().movePosition(0, -1);
+        cbs.movePosition(0, -1);
         return false;
         
     }
@@ -455,16 +544,22 @@ public class Physics {
      * @param obj GameObject whose Y coordinate we want to fix.
      * @param mapTiles Tiles of the map, used to take out the platform tiles.
      */
-    private void fixPlatform(GameObject obj, Tile[][] mapTiles) {
-        ArrayList<Tile> tiles = obj.getBoundingShape().getGroundTiles(mapTiles);
+    private void fixPlatform(GameObject obj, CollisionGrid mapTiles) {
+        BoundingShape obs = obj.getBoundingShape();
+        int row = groundRow(obs, mapTiles);
+        int firstColumn = firstColumn(obs);
+        int lastColumn = lastColumn(obs, mapTiles);
+        
+        if (row < 0) {
+            return;
+        }
         //obj.getBoundingShape().movePosition(0, 1);
-        for (Tile t : tiles) {
-            if (t instanceof PlatformTile) {
-                BoundingShape tbs = t.getBoundingShape();
-                BoundingShape obs = obj.getBoundingShape();
-                if((obs.getY()+obs.getHeight()) >= tbs.getY() && 
-                        (obs.getY()+obs.getHeight()) <= tbs.getY() + 4 ) {
-                    obj.getBoundingShape().movePosition(0, -1);
+        for (int i = firstColumn; i <= lastColumn; i++) {
+            if (mapTiles.get(i, row) == PLATFORM) {
+                float platformY = row * TILE_SIZE;
+                if((obs.getY()+obs.getHeight()) >= platformY && 
+                        (obs.getY()+obs.getHeight()) <= platformY + 4 ) {
+                    obs.movePosition(0, -1);
                     obj.setY(obs.getY()); 
                 }
                 
@@ -472,11 +567,10 @@ public class Physics {
         }
         
         if(isOnPlatform(obj, mapTiles)) {
-            tiles = obj.getBoundingShape().getGroundTiles(mapTiles);
-            for(Tile t : tiles) {
-                if (t instanceof PlatformTile) {
-                    BoundingShape tbs = t.getBoundingShape();
-                    if((obj.getY()+obj.getHeight()) > (tbs.getY()+4)) {
+            row = groundRow(obs, mapTiles);
+            for (int i = firstColumn; i <= lastColumn; i++) {
+                if (mapTiles.get(i, row) == PLATFORM) {
+                    if((obj.getY()+obj.getHeight()) > (row * TILE_SIZE + 4)) {
                         obj.setIgnoresPlatforms(true);
                     }
                         
@@ -486,4 +580,57 @@ public class Physics {
         
         
     }
+    
+/* ------------------------------------ */
+/* ---- TILE RANGE (CLAMPED) HELPERS --- */
+/* ------------------------------------ */
+    
+    /**
+     * First column of the map occupied by the given shape.
+     * @param shape Shape whose occupied tiles are going to be checked.
+     * @return Index of the column, never below 0.
+     */
+    private int firstColumn(BoundingShape shape) {
+        return Math.max(shape.getFirstTileColumn(), 0);
+    }
+    
+    /**
+     * Last column of the map occupied by the given shape.
+     * @param shape Shape whose occupied tiles are going to be checked.
+     * @param mapTiles Tiles of the map.
+     * @return Index of the column, never beyond the map width.
+     */
+    private int lastColumn(BoundingShape shape, CollisionGrid mapTiles) {
+        return Math.min(shape.getLastTileColumn(), mapTiles.getColumns() - 1);
+    }
+    
+    /**
+     * First row of the map occupied by the given shape.
+     * @param shape Shape whose occupied tiles are going to be checked.
+     * @return Index of the row, never below 0.
+     */
+    private int firstRow(BoundingShape shape) {
+        return Math.max(shape.getFirstTileRow(), 0);
+    }
+    
+    /**
+     * Last row of the map occupied by the given shape.
+     * @param shape Shape whose occupied tiles are going to be checked.
+     * @param mapTiles Tiles of the map.
+     * @return Index of the row, never beyond the map height.
+     */
+    private int lastRow(BoundingShape shape, CollisionGrid mapTiles) {
+        return Math.min(shape.getLastTileRow(), mapTiles.getRows() - 1);
+    }
+    
+    /**
+     * Row of the ground tiles of the given shape.
+     * @param shape Shape whose ground tiles are going to be checked.
+     * @param mapTiles Tiles of the map.
+     * @return Index of the row, or -1 if there's no ground row on the map.
+     */
+    private int groundRow(BoundingShape shape, CollisionGrid mapTiles) {
+        int row = shape.getGroundTileRow();
+        return (row < mapTiles.getRows()) ? row : -1;
+    }
 }
@@ -0,0 +1,142 @@
+package physics;
+
+/**
+ * Fixed-timestep clock for the simulation.
+ * Accumulates the (variable) time that took each frame and tells how many
+ * ticks of a fixed length must be simulated, so the physics and the behaviour
+ * of the entities don't depend on the frame rate.
+ * To avoid spending more and more time simulating when the frames get slower,
+ * the number of ticks per frame is capped, and the time that couldn't be
+ * simulated is dropped (the game just slows down).
+ * The time that is left on the accumulator (less than a tick) is used to
+ * interpolate the positions on render.
+ * The time is accumulated in nanoseconds, so the ticks happen exactly at the
+ * given rate. As the simulation works with integer deltas, the length of each
+ * tick in milliseconds is rounded so the ticks add up to the real time (at 60
+ * ticks/s: 17, 17, 16, 17, 17, 16...).
+ */
+public class SimulationClock {
+
+    /**
+     * Number of ticks per second.
+     */
+    private final int tickRate;
+
+    /**
+     * Length of each tick, in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * Maximum number of ticks that will be simulated on a single frame.
+     */
+    private final int maxTicksPerFrame;
+
+    /**
+     * Nanoseconds that have passed but haven't been simulated yet.
+     */
+    private long accumulator;
+
+    /**
+     * Ticks simulated on the current second, and the milliseconds given to
+     * them (to round the length of the next one).
+     */
+    private int ticksInSecond;
+    private int millisInSecond;
+
+    /**
+     * Constructor.
+     *
+     * @param tickRate
+     *              Number of ticks per second.
+     * @param maxTicksPerFrame
+     *              Maximum number of ticks that will be simulated on a single
+     *          frame.
+     */
+    public SimulationClock(int tickRate, int maxTicksPerFrame) {
+        this.tickRate = Math.max(1, tickRate);
+        this.tickNanos = 1000000000L / this.tickRate;
+        this.maxTicksPerFrame = maxTicksPerFrame;
+        this.accumulator = 0;
+        this.ticksInSecond = 0;
+        this.millisInSecond = 0;
+    }
+
+    /**
+     * Adds the time of the last frame to the accumulator, and returns the
+     * number of ticks that have to be simulated now.
+     *
+     * @param delta
+     *              Milliseconds that took the computer to update and render
+     *          the last frame.
+     *
+     * @return
+     *              Number of ticks to simulate, never more than the maximum
+     *          per frame. The length of each one is given by
+     *          {@link #nextTickLength()}.
+     */
+    public int advance(int delta) {
+        accumulator += delta * 1000000L;
+
+        int ticks = (int) Math.min(accumulator / tickNanos, Integer.MAX_VALUE);
+
+        if (ticks > maxTicksPerFrame) {
+            /* Drops the time that can't be simulated */
+            ticks = maxTicksPerFrame;
+            accumulator = tickNanos * ticks + (accumulator % tickNanos);
+        }
+
+        accumulator -= tickNanos * ticks;
+        return ticks;
+    }
+
+    /**
+     * Returns the length of the next tick, in milliseconds. It must be called
+     * once for each simulated tick.
+     *
+     * @return
+     *              The length of the tick, rounded so all the ticks of a second
+     *          add up to 1000 ms.
+     */
+    public int nextTickLength() {
+        ticksInSecond++;
+
+        int length = (int) ((ticksInSecond * 1000L + tickRate / 2) / tickRate)
+                     - millisInSecond;
+
+        millisInSecond += length;
+
+        if (ticksInSecond == tickRate) {
+            ticksInSecond = 0;
+            millisInSecond = 0;
+        }
+        return length;
+    }
+
+    /**
+     * Drops all the time that hasn't been simulated yet (for example, after
+     * the game has been paused).
+     */
+    public void reset() {
+        accumulator = 0;
+    }
+
+    /**
+     * Returns how far the simulation is between the last tick and the next one.
+     *
+     * @return
+     *              A value between 0 (the last tick just happened) and 1 (the
+     *          next tick is due).
+     */
+    public float getInterpolation() {
+        return (float) accumulator / tickNanos;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public int getMaxTicksPerFrame() {
+        return maxTicksPerFrame;
+    }
+}
@@ -0,0 +1,198 @@
+package physics;
+
+import static levels.tiles.Tile.TILE_SIZE;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Uniform grid (with cells of the same size as the tiles) used as broadphase
+ * for the collision checks between objects.
+ * Each object is inserted on every cell its box touches, and a query collects
+ * the objects that share at least one cell with the given box (visiting only
+ * the buckets of those cells), so the precise (and expensive) collision check
+ * only has to be made against those.
+ * The cells are hashed into a fixed number of buckets, so the grid doesn't
+ * depend on the size of the room. Two cells can share a bucket, which only
+ * adds some extra candidates, but no collision is ever missed.
+ * After the first frames, clearing, inserting and querying don't allocate
+ * memory.
+ * @param <T> Type of the objects stored on the grid.
+ */
+public class SpatialHash<T> {
+
+    /** Initial capacity of each bucket */
+    private static final int BUCKET_CAPACITY = 4;
+
+    /** Objects stored, in the order they were inserted */
+    private final ArrayList<T> items;
+    /** Indexes (on {@link #items}) of the objects on each bucket */
+    private final int[][] buckets;
+    /** Number of objects on each bucket */
+    private final int[] bucketSizes;
+    /** Mask to get the bucket from the hash of a cell */
+    private final int mask;
+    /** Last query that found each object (to collect each one only once) */
+    private int[] marks;
+    /** Indexes of the objects found by the last query */
+    private int[] found;
+    /** Number of objects found by the last query */
+    private int foundCount;
+    /** Identifier of the current query (0 means "never found") */
+    private int query;
+
+    /**
+     * Constructor.
+     *
+     * @param bucketCount
+     *              Number of buckets for the cells. It's rounded up to a power
+     *          of two.
+     */
+    public SpatialHash(int bucketCount) {
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+
+        this.items = new ArrayList<>();
+        this.buckets = new int[size][BUCKET_CAPACITY];
+        this.bucketSizes = new int[size];
+        this.mask = size - 1;
+        this.marks = new int[BUCKET_CAPACITY];
+        this.found = new int[BUCKET_CAPACITY];
+        this.foundCount = 0;
+        this.query = 0;
+    }
+
+    /**
+     * Removes all the objects from the grid.
+     */
+    public void clear() {
+        items.clear();
+        foundCount = 0;
+        Arrays.fill(bucketSizes, 0);
+    }
+
+    /**
+     * Adds an object on every cell touched by the given box.
+     *
+     * @param item
+     *              Object to insert.
+     * @param minX
+     *              Left side of the box.
+     * @param minY
+     *              Top side of the box.
+     * @param maxX
+     *              Right side of the box.
+     * @param maxY
+     *              Bottom side of the box.
+     *
+     * @return
+     *              Index of the object on the grid (the objects are numbered
+     *          in the order they were inserted, starting at 0).
+     */
+    public int insert(T item, float minX, float minY, float maxX, float maxY) {
+        int index = items.size();
+        items.add(item);
+
+        if (index >= marks.length) {
+            marks = Arrays.copyOf(marks, marks.length * 2);
+            found = Arrays.copyOf(found, marks.length);
+        }
+        marks[index] = 0;
+
+        for (int column = cell(minX); column <= cell(maxX); column++) {
+            for (int row = cell(minY); row <= cell(maxY); row++) {
+                add(bucket(column, row), index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Collects all the objects that share a cell with the given box. They can
+     * be retrieved with {@link #getFound(int)} until the next query.
+     *
+     * @param minX
+     *              Left side of the box.
+     * @param minY
+     *              Top side of the box.
+     * @param maxX
+     *              Right side of the box.
+     * @param maxY
+     *              Bottom side of the box.
+     *
+     * @return
+     *              Number of objects found.
+     */
+    public int query(float minX, float minY, float maxX, float maxY) {
+        query++;
+        foundCount = 0;
+
+        for (int column = cell(minX); column <= cell(maxX); column++) {
+            for (int row = cell(minY); row <= cell(maxY); row++) {
+                int b = bucket(column, row);
+
+                for (int i = 0; i < bucketSizes[b]; i++) {
+                    int index = buckets[b][i];
+
+                    if (marks[index] != query) {
+                        marks[index] = query;
+                        found[foundCount++] = index;
+                    }
+                }
+            }
+        }
+        return foundCount;
+    }
+
+    /**
+     * Returns one of the objects found by the last query. Those are the only
+     * ones that may collide with its box.
+     *
+     * @param n
+     *              Position of the object among the found ones (from 0 to the
+     *          value returned by {@link #query} minus one).
+     *
+     * @return
+     *              The found object.
+     */
+    public T getFound(int n) {
+        return items.get(found[n]);
+    }
+
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Returns the column (or row) of the cell that contains the coordinate.
+     */
+    private static int cell(float coordinate) {
+        return (int) Math.floor(coordinate / TILE_SIZE);
+    }
+
+    /**
+     * Returns the bucket where the given cell is stored.
+     */
+    private int bucket(int column, int row) {
+        return ((column * 73856093) ^ (row * 19349663)) & mask;
+    }
+
+    /**
+     * Adds an index to a bucket, growing it if it's full.
+     */
+    private void add(int bucket, int index) {
+        int size = bucketSizes[bucket];
+
+        if (size > 0 && buckets[bucket][size - 1] == index) {
+            /* Already on this bucket (two of its cells hashed together) */
+            return;
+        }
+        if (size == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], size * 2);
+        }
+        buckets[bucket][size] = index;
+        bucketSizes[bucket] = size + 1;
+    }
+}
@@ -0,0 +1,125 @@
+package sound;
+
+/**
+ * Output used by the {@link Jukebox} to play the sounds.
+ * The Jukebox decides which sounds must be played (checking if the music and
+ * the effects are on, and culling the positional sounds that can't be heard),
+ * and the backend plays them. None of the methods must block the game thread.
+ * There are three backends:
+ * <ul>
+ *  <li>{@link SoftwareMixer}: plays the sounds with JavaSound.</li>
+ *  <li>{@link NullAudioBackend}: doesn't play anything, and doesn't cost
+ *      anything (for the headless runs, or machines without sound).</li>
+ *  <li>{@link RecordingAudioBackend}: counts the sounds sent to another
+ *      backend, to measure the load of the audio.</li>
+ * </ul>
+ */
+public interface AudioBackend {
+
+    /**
+     * Plays a sound effect.
+     *
+     * @param clip
+     *              The sound identifier (it mustn't be a music clip).
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     * @param pan
+     *              Balance between the channels, from -1 (only the left one)
+     *          to 1 (only the right one).
+     * @param loop
+     *              If true, the effect is repeated until it's stopped.
+     *
+     * @return
+     *              <i>true</i> if the effect has been accepted; <i>false</i>
+     *          if it has been dropped.
+     */
+    public boolean play (Playlist clip, float decibels, float pan,
+                         boolean loop);
+
+    /**
+     * Plays a music clip.
+     *
+     * @param clip
+     *              The music clip.
+     * @param finite
+     *              If true, the music is played only once.
+     * @param start
+     *              First frame of the loop.
+     * @param end
+     *              Last frame of the loop (-1 for the end of the clip).
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     *
+     * @return
+     *              <i>true</i> if the music has been accepted.
+     */
+    public boolean playMusic (Playlist clip, boolean finite, int start,
+                              int end, float decibels);
+
+    /**
+     * Starts buffering a music clip (played in a loop), so a later
+     * {@link #crossfade(Playlist, float, int)} to it starts right away.
+     *
+     * @param clip
+     *              The music clip (null to discard the buffered one).
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     */
+    public void prefetch (Playlist clip, float decibels);
+
+    /**
+     * Fades out the music being played while a music clip (played in a loop)
+     * fades in.
+     *
+     * @param clip
+     *              The music clip.
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     * @param frames
+     *              Duration of the crossfade, in frames of
+     *          {@link EffectBank#FORMAT}.
+     *
+     * @return
+     *              <i>true</i> if the music has been accepted.
+     */
+    public boolean crossfade (Playlist clip, float decibels, int frames);
+
+    /**
+     * Pauses or resumes the music (the effects aren't affected).
+     *
+     * @param paused
+     *              If true, the music stops advancing until it's resumed.
+     */
+    public void pauseMusic (boolean paused);
+
+    /**
+     * Stops all the sounds, and discards the buffered music.
+     */
+    public void stopAll ();
+
+    /**
+     * Returns <i>true</i> if the given sound is being played.
+     *
+     * @param clip
+     *              The sound identifier.
+     *
+     * @return
+     *              <i>true</i> if there's any active copy of the sound.
+     */
+    public boolean isPlaying (Playlist clip);
+
+    /**
+     * Returns <i>true</i> if there's any sound that will end by itself (an
+     * effect that isn't looped, or a finite music clip) being played.
+     *
+     * @return
+     *              <i>true</i> if a finite sound is being played.
+     */
+    public boolean isPlayingFinite ();
+
+    /**
+     * Stops all the sounds and releases the resources of the backend (the
+     * line, the threads...). The backend mustn't be used after closing it.
+     */
+    public void close ();
+}
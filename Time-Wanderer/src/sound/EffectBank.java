@@ -0,0 +1,167 @@
+package sound;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Decoded sound effects, ready to be played from memory.
+ * Every effect of the {@link Playlist} (not the music, that is too big) is
+ * read and decoded once, when the bank is created, and its PCM data is kept
+ * here and shared by all its reproductions. This way, playing an effect (a
+ * step, a shot, a hit...) doesn't need to open nor decode any file.
+ * All the effects are converted to {@link #FORMAT}, and stored as 16 bits
+ * samples, ready to be mixed by the {@link SoftwareMixer}.
+ */
+public class EffectBank {
+
+    /**
+     * Format of all the samples: 44100 Hz, 16 bits, stereo, signed,
+     * little-endian (the format of the files of the game).
+     */
+    public static final AudioFormat FORMAT = new AudioFormat(44100, 16, 2,
+                                                              true, false);
+
+    /**
+     * Decoded effects. The ones that couldn't be loaded aren't here.
+     */
+    private final Map<Playlist, Sample> samples;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Creates the bank, loading all the sound effects.
+     */
+    public EffectBank () {
+
+        samples = new EnumMap<>(Playlist.class);
+
+        for (Playlist p : Playlist.values()) {
+
+            if (!p.isMusic()) {
+
+                Sample s = decode(p);
+
+                if (s != null) {
+                    samples.put(p, s);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the decoded data of an effect.
+     *
+     * @param effect
+     *              The sound identifier.
+     *
+     * @return
+     *              The sample of the effect, or <i>null</i> if it's a music
+     *          clip or it couldn't be loaded.
+     */
+    public Sample get (Playlist effect) {
+
+        return samples.get(effect);
+    }
+
+    /**
+     * Reads and decodes the file of an effect.
+     *
+     * @return
+     *              The decoded sample, or <i>null</i> if it couldn't be loaded.
+     */
+    private Sample decode (Playlist effect) {
+
+        URL url = EffectBank.class.getResource(effect.getPath());
+
+        if (url == null) {
+            System.out.println("The sound clip " + effect.getPath()
+                             + " doesn't exist.");
+            return null;
+        }
+
+        try (AudioInputStream file = AudioSystem.getAudioInputStream(url);
+             AudioInputStream pcm = AudioSystem.getAudioInputStream(FORMAT,
+                                                                    file)) {
+
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+
+            while ((read = pcm.read(buffer)) > 0) {
+                data.write(buffer, 0, read);
+            }
+
+            return new Sample(toSamples(data.toByteArray()));
+
+        } catch (IOException | UnsupportedAudioFileException
+                 | IllegalArgumentException exception) {
+
+            System.out.println("The sound clip " + effect.getPath()
+                             + " couldn't be decoded. See:");
+            System.out.println(exception.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Converts 16 bits little-endian PCM data to samples, so they can be mixed
+     * directly.
+     */
+    private static short[] toSamples (byte[] data) {
+
+        short[] samples = new short[data.length / 2];
+
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) ((data[2 * i + 1] << 8)
+                                  | (data[2 * i] & 0xFF));
+        }
+        return samples;
+    }
+
+    /**
+     * PCM data of an effect, on {@link EffectBank#FORMAT}.
+     * It's shared, so it must not be modified.
+     */
+    public static class Sample {
+
+        /** Samples of all the channels, interleaved */
+        private final short[] samples;
+
+        private Sample (short[] samples) {
+
+            this.samples = samples;
+        }
+
+        /**
+         * Returns the samples of all the channels, interleaved (left, right,
+         * left, right...).
+         *
+         * @return
+         *              The value of {@code samples}
+         */
+        public short[] getSamples () {
+
+            return samples;
+        }
+
+        /**
+         * Returns the number of frames (a sample for each channel).
+         *
+         * @return
+         *              The length of the data, in frames.
+         */
+        public int getFrames () {
+
+            return samples.length / FORMAT.getChannels();
+        }
+    }
+}
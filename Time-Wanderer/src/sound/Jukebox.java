@@ -3,17 +3,37 @@
  * sound are specified at Playlist. */
 package sound;
 
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author Alberto
  * @version 26/03/2016 */
 public class Jukebox {
     
+    /**
+     * Distance (in pixels) up to which the positional sounds are heard with
+     * their whole volume.
+     */
+    private static final float REFERENCE_DISTANCE = 150;
+    
+    /**
+     * Decibels that a positional sound loses each time its distance doubles
+     * (beyond {@link #REFERENCE_DISTANCE}).
+     */
+    private static final float ROLLOFF = 12;
+    
+    /**
+     * Decibels deducted from the volume beyond which a sound can't be heard,
+     * so it isn't played at all.
+     */
+    private static final float AUDIBILITY_THRESHOLD = 40;
+    
+    /**
+     * Horizontal distance (in pixels) at which a positional sound is heard
+     * only through one side.
+     */
+    private static final float PAN_DISTANCE = 800;
+    
     /**
      * This attribute stores the current state of the music (ON or OFF).
      * If it's true, the music is playing.
@@ -27,10 +47,15 @@ public class Jukebox {
     private boolean effectsON = true;
     
     /**
-     * A pool whose threads will play a sound (finite or in a loop). */
-    private final ThreadPoolExecutor pool;
-    private final ConcurrentLinkedDeque<Playable> playables;
-    private final AtomicBoolean mustWait;
+     * Output that plays the sounds. It's created when it's first needed, so
+     * another one can be set before (see {@link #setBackend(AudioBackend)})
+     * without opening the line nor decoding the effects. It's volatile, so
+     * every thread sees the last one that has been set. */
+    private volatile AudioBackend backend;
+    /**
+     * Position from where the positional sounds are heard (the player). */
+    private float listenerX;
+    private float listenerY;
     
 /* -------------------------------------- */
 /* ---- END OF ATTRIBUTES DECLARATION --- */
@@ -41,566 +66,185 @@ public class Jukebox {
      */
     public Jukebox() {
 
-        pool = (ThreadPoolExecutor) Executors.newCachedThreadPool();
-        playables = new ConcurrentLinkedDeque<>();
-        mustWait = new AtomicBoolean(false);
+        backend = null;
     }
 
-    private synchronized void waitUntilClearIfStopped() {
+    /**
+     * @param sound - the sound identifier.
+     * @param finite - if the sound will end or not (played in a loop). */
+    public void play(Playlist sound, boolean finite) {
 
-        while (mustWait.get()) {
+        play(sound, finite, 0, -1, 0);
+    }
 
-            try {
-                wait();
-            } catch (InterruptedException ex) {
-                ex.printStackTrace();
-            }
+    /**
+     * @param sound - the sound identifier.
+     * @param finite - if the sound will end or not (played in a loop).
+     * @param decibels - the number of decibels to deduct from the volume. */
+    public void play(Playlist sound, boolean finite, float decibels) {
 
-        }
+        play(sound, finite, 0, -1, decibels);
+    }
+
+    /**
+     * @param sound - the sound identifier.
+     * @param start - the starting frame of the clip.
+     * @param end - the ending frame of the clip. */
+    public void play(Playlist sound, int start, int end) {
 
+        play(sound, false, start, end, 0);
     }
 
     /**
      * @param sound - the sound identifier.
-     * @param finite - if the sound will end or not (played in a loop). */
-    public void play(Playlist sound, boolean finite) {
-        String path;
-        Playable p;
+     * @param start - the starting frame of the clip.
+     * @param end - the ending frame of the clip.
+     * @param decibels - the number of decibels to deduct from the volume. */
+    public void play(Playlist sound, int start, int end, float decibels) {
+
+        play(sound, false, start, end, decibels);
+    }
+
+    /**
+     * Plays a sound on the backend.
+     */
+    private void play(Playlist sound, boolean finite, int start, int end,
+                      float decibels) {
+
+        if (sound == null) {
+
+            return;
+        }
 
         /* Checks if the sound can be played */
         if (!check(sound)) {
             
             return;
         }
-        
-        waitUntilClearIfStopped();
-        
-        if (sound != null) {
-
-            switch (sound) {
-                case ARROW_HIT:
-                    path = "/resources/sound/ArrowHit.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case ARROW_SHOT:
-                    path = "/resources/sound/ArrowShot.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case CAUGHT:
-                    path = "/resources/sound/Caught.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case FREEZING_SPELL:
-                    path = "/resources/sound/FreezingSpell.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case GAME_OVER:
-                    path = "/resources/sound/GameOver.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case GUITAR_CONCERT:
-                    path = "/resources/sound/GuitarConcertInEMinor.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_1:
-                    path = "/resources/sound/Hit1.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_2:
-                    path = "/resources/sound/Hit2.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_3:
-                    path = "/resources/sound/Hit3.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case JUMP:
-                    path = "/resources/sound/Jump.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MAGIC_SMITE:
-                    path = "/resources/sound/MagicSmite.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MEMORIES:
-                    path = "/resources/sound/MemoriesInDMinor.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MOUSE_ENTERED:
-                    path = "/resources/sound/MouseEntered.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case SELECT:
-                    path = "/resources/sound/Select.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case SHOT:
-                    path = "/resources/sound/Shot.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case STEP:
-                    path = "/resources/sound/Step.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case THE_LURKING_BEAST:
-                    path = "/resources/sound/TheLurkingBeast.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case FALLING_RUBBLE:
-                    path = "/resources/sound/FallingRubble.wav";
-                    p = new Playable(path, finite, sound);
-                    playables.add(p);
-                    pool.execute(p);
-            }
 
+        if (!isMusicClip(sound)) {
+
+            getBackend().play(sound, decibels, 0, !finite);
+            return;
         }
 
+        getBackend().playMusic(sound, finite, start, end, decibels);
     }
-
+    
     /**
+     * Plays a sound effect that happens at the given position of the room.
+     * Its volume decreases with its distance to the listener (see
+     * {@link #setListener(float, float)}), and it's heard more through the
+     * side where it is.
      * @param sound - the sound identifier.
-     * @param finite - if the sound will end or not (played in a loop).
-     * @param decibels - the number of decibels to deduct from the volume. */
-    public void play(Playlist sound, boolean finite, float decibels) {
-        String path;
-        Playable p;
-        
-        /* Checks if the sound can be played */
-        if (!check(sound)) {
-            
+     * @param x - the horizontal position of the sound.
+     * @param y - the vertical position of the sound. */
+    public void playAt(Playlist sound, float x, float y) {
+
+        playAt(sound, x, y, 0);
+    }
+
+    /**
+     * Plays a sound effect that happens at the given position of the room.
+     * Its volume decreases with its distance to the listener (see
+     * {@link #setListener(float, float)}), and it's heard more through the
+     * side where it is. If it's too far to be heard, it's not played (so it
+     * doesn't reach the backend). The music has no position, so it can't be
+     * played with this method.
+     * @param sound - the sound identifier (it mustn't be a music clip).
+     * @param x - the horizontal position of the sound.
+     * @param y - the vertical position of the sound.
+     * @param decibels - the number of decibels to deduct from the volume.
+     * @throws IllegalArgumentException - if the sound is a music clip. */
+    public void playAt(Playlist sound, float x, float y, float decibels) {
+
+        if (sound != null && isMusicClip(sound)) {
+
+            throw new IllegalArgumentException("The music clip " + sound
+                                             + " can't be played at a position.");
+        }
+
+        if (sound == null || !check(sound)) {
+
             return;
         }
 
-        waitUntilClearIfStopped();
-
-        if (sound != null) {
-
-            switch (sound) {
-                case ARROW_HIT:
-                    path = "/resources/sound/ArrowHit.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case ARROW_SHOT:
-                    path = "/resources/sound/ArrowShot.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case CAUGHT:
-                    path = "/resources/sound/Caught.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case FREEZING_SPELL:
-                    path = "/resources/sound/FreezingSpell.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case GAME_OVER:
-                    path = "/resources/sound/GameOver.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case GUITAR_CONCERT:
-                    path = "/resources/sound/GuitarConcertInEMinor.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_1:
-                    path = "/resources/sound/Hit1.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_2:
-                    path = "/resources/sound/Hit2.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_3:
-                    path = "/resources/sound/Hit3.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case JUMP:
-                    path = "/resources/sound/Jump.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MAGIC_SMITE:
-                    path = "/resources/sound/MagicSmite.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MEMORIES:
-                    path = "/resources/sound/MemoriesInDMinor.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MOUSE_ENTERED:
-                    path = "/resources/sound/MouseEntered.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case SELECT:
-                    path = "/resources/sound/Select.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case SHOT:
-                    path = "/resources/sound/Shot.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case STEP:
-                    path = "/resources/sound/Step.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case THE_LURKING_BEAST:
-                    path = "/resources/sound/TheLurkingBeast.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case FALLING_RUBBLE:
-                    path = "/resources/sound/FallingRubble.wav";
-                    p = new Playable(path, finite, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-            }
+        float dx = x - listenerX;
+        float dy = y - listenerY;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        float attenuation = decibels;
 
+        if (distance > REFERENCE_DISTANCE) {
+
+            attenuation += ROLLOFF * (float) (Math.log(distance
+                                                / REFERENCE_DISTANCE)
+                                              / Math.log(2));
+        }
+
+        /* Culls the sounds that wouldn't be heard */
+        if (attenuation > AUDIBILITY_THRESHOLD) {
+
+            return;
         }
 
+        float pan = Math.max(-1, Math.min(1, dx / PAN_DISTANCE));
+
+        getBackend().play(sound, attenuation, pan, false);
     }
 
     /**
-     * @param sound - the sound identifier.
-     * @param start - the starting frame of the clip.
-     * @param end - the ending frame of the clip. */
-    public void play(Playlist sound, int start, int end) {
-        String path;
-        Playable p;
-        
-        /* Checks if the sound can be played */
-        if (!check(sound)) {
-            
+     * Starts buffering a music clip in the background, so a later
+     * {@link #crossfade(Playlist, float, int)} to it starts right away,
+     * without waiting for its file to be opened and read.
+     *
+     * @param sound
+     *              The music clip (played in a loop).
+     * @param decibels
+     *              The number of decibels to deduct from the volume.
+     */
+    public void prefetch (Playlist sound, float decibels) {
+
+        if (sound == null || !isMusicClip(sound) || !check(sound)) {
+
             return;
         }
 
-        waitUntilClearIfStopped();
-
-        if (sound != null) {
-
-            switch (sound) {
-                case ARROW_HIT:
-                    path = "/resources/sound/ArrowHit.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case ARROW_SHOT:
-                    path = "/resources/sound/ArrowShot.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case CAUGHT:
-                    path = "/resources/sound/Caught.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case FREEZING_SPELL:
-                    path = "/resources/sound/FreezingSpell.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case GAME_OVER:
-                    path = "/resources/sound/GameOver.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case GUITAR_CONCERT:
-                    path = "/resources/sound/GuitarConcertInEMinor.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_1:
-                    path = "/resources/sound/Hit1.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_2:
-                    path = "/resources/sound/Hit2.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_3:
-                    path = "/resources/sound/Hit3.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case JUMP:
-                    path = "/resources/sound/Jump.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MAGIC_SMITE:
-                    path = "/resources/sound/MagicSmite.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MEMORIES:
-                    path = "/resources/sound/MemoriesInDMinor.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MOUSE_ENTERED:
-                    path = "/resources/sound/MouseEntered.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case SELECT:
-                    path = "/resources/sound/Select.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case SHOT:
-                    path = "/resources/sound/Shot.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case STEP:
-                    path = "/resources/sound/Step.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-
-                case THE_LURKING_BEAST:
-                    path = "/resources/sound/TheLurkingBeast.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case FALLING_RUBBLE:
-                    path = "/resources/sound/FallingRubble.wav";
-                    p = new Playable(path, start, end, sound);
-                    playables.add(p);
-                    pool.execute(p);
-            }
+        getBackend().prefetch(sound, decibels);
+    }
 
-        }
+    /**
+     * Discards the music clip that was being buffered, if any.
+     */
+    public void discardPrefetch () {
 
+        getBackend().prefetch(null, 0);
     }
 
     /**
-     * @param sound - the sound identifier.
-     * @param start - the starting frame of the clip.
-     * @param end - the ending frame of the clip.
-     * @param decibels - the number of decibels to deduct from the volume. */
-    public void play(Playlist sound, int start, int end, float decibels) {
-        String path;
-        Playable p;
-        
-        /* Checks if the sound can be played */
-        if (!check(sound)) {
-            
-            return;
-        }
+     * Changes the music being played for another one (played in a loop),
+     * fading out the former while the latter fades in. If the new music was
+     * prefetched, it keeps the volume it was prefetched with.
+     *
+     * @param sound
+     *              The music clip.
+     * @param decibels
+     *              The number of decibels to deduct from the volume.
+     * @param milliseconds
+     *              Duration of the crossfade.
+     */
+    public void crossfade (Playlist sound, float decibels, int milliseconds) {
 
-        waitUntilClearIfStopped();
-
-        if (sound != null) {
-
-            switch (sound) {
-                case ARROW_HIT:
-                    path = "/resources/sound/ArrowHit.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case ARROW_SHOT:
-                    path = "/resources/sound/ArrowShot.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case CAUGHT:
-                    path = "/resources/sound/Caught.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case FREEZING_SPELL:
-                    path = "/resources/sound/FreezingSpell.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case GAME_OVER:
-                    path = "/resources/sound/GameOver.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case GUITAR_CONCERT:
-                    path = "/resources/sound/GuitarConcertInEMinor.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_1:
-                    path = "/resources/sound/Hit1.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_2:
-                    path = "/resources/sound/Hit2.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case HIT_3:
-                    path = "/resources/sound/Hit3.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case JUMP:
-                    path = "/resources/sound/Jump.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MAGIC_SMITE:
-                    path = "/resources/sound/MagicSmite.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MEMORIES:
-                    path = "/resources/sound/MemoriesInDMinor.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case MOUSE_ENTERED:
-                    path = "/resources/sound/MouseEntered.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case SELECT:
-                    path = "/resources/sound/Select.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-                case SHOT:
-                    path = "/resources/sound/Shot.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case STEP:
-                    path = "/resources/sound/Step.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case THE_LURKING_BEAST:
-                    path = "/resources/sound/TheLurkingBeast.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-                    break;
-
-                case FALLING_RUBBLE:
-                    path = "/resources/sound/FallingRubble.wav";
-                    p = new Playable(path, start, end, decibels, sound);
-                    playables.add(p);
-                    pool.execute(p);
-            }
+        if (sound == null || !isMusicClip(sound) || !check(sound)) {
 
+            return;
         }
 
+        int frames = (int) (EffectBank.FORMAT.getFrameRate()
+                            * milliseconds / 1000);
+
+        getBackend().crossfade(sound, decibels, frames);
     }
-    
+
     /**
      * Checks if that sound can be played (depends on the attributes 
      * {@code musicON} and {@code effectsON}).
@@ -619,36 +263,31 @@ public class Jukebox {
 
     /**
      * Awaits until the clips being played would terminate or until the time
-     * interval expires.
+     * interval expires (the clips played in a loop never terminate).
      * @param time
      * @param timeUnit */
     public void awaitTermination(int time, TimeUnit timeUnit) {
 
-        if (!pool.isTerminated() && !pool.isTerminating()) {
+        long deadline = System.nanoTime() + timeUnit.toNanos(time);
+
+        while (getBackend().isPlayingFinite() && System.nanoTime() < deadline) {
 
             try {
-                pool.awaitTermination(time, timeUnit);
+                Thread.sleep(10);
             } catch (InterruptedException exception) {
                 System.out.println(exception.getMessage());
+                return;
             }
-
         }
-
     }
 
     /**
-     * Stops all the clips are being played. */
-    public synchronized void stop() {
-        mustWait.set(true);
-
-        for (Playable p : playables) {
-         
-            p.end();
-        }
+     * Stops all the clips are being played.
+     * The stop is posted to the backend, like every other command, so it
+     * doesn't block; the sounds requested after it aren't affected. */
+    public void stop() {
 
-        playables.clear();
-        mustWait.set(false);
-        notifyAll();
+        getBackend().stopAll();
     }
     
     /**
@@ -658,20 +297,13 @@ public class Jukebox {
      *              If this parameter is <i>true</i>, only the music will be
      *          muted. If it's <i>false</i>, only sound effects will be muted.
      */
-    public synchronized void mute (boolean muteMusic) {
+    public void mute (boolean muteMusic) {
         
         /* If it's the music the sound that will be muted, stops its 
         reproduction */
         if (muteMusic) {
             
-            for (Playable p : playables) {
-                
-                if (isMusicClip(p.getClipName())) {
-                    
-                    p.stopPlaying();
-                }
-            }
-            
+            getBackend().pauseMusic(true);
         }
         
         /* The sound effects are finite and doesn't long very much, so they
@@ -684,32 +316,77 @@ public class Jukebox {
      */
     private boolean isMusicClip (Playlist clip) {
         
-        return (clip.equals(Playlist.GAME_OVER) ||
-                clip.equals(Playlist.GUITAR_CONCERT) ||
-                clip.equals(Playlist.MEMORIES) ||
-                clip.equals(Playlist.THE_LURKING_BEAST));
+        return clip.isMusic();
     }
     
+
+/* ---------------------------- */
+/* ---- GETTERS AND SETTERS --- */
+/* ---------------------------- */
+
     /**
-     * This method will be called when a playable ends its task, so it can be
-     * removed from the list.
+     * Returns the output that plays the sounds. If none has been set, the
+     * sounds are played with JavaSound (see {@link SoftwareMixer}); only one
+     * mixer is created, even if several threads call this method at once.
      *
-     * @param playable
-     *              Playable that finished its execution.
+     * @return
+     *              The value of {@code backend}
      */
-    public void clipEnded (Playable playable) {
+    public AudioBackend getBackend () {
+
+        AudioBackend current = backend;
+
+        if (current == null) {
+
+            synchronized (this) {
+
+                if (backend == null) {
 
-        /* Removes the object from the list */
-        playables.remove(playable);
+                    backend = new SoftwareMixer();
+                }
+                current = backend;
+            }
+        }
+
+        return current;
     }
-    
 
-/* ---------------------------- */
-/* ---- GETTERS AND SETTERS --- */
-/* ---------------------------- */
+    /**
+     * Changes the output that plays the sounds. The previous one is closed
+     * (see {@link AudioBackend#close()}), so its sounds are stopped and its
+     * resources released.
+     *
+     * @param backend
+     *              The new backend.
+     */
+    public synchronized void setBackend (AudioBackend backend) {
+
+        if (this.backend != null && this.backend != backend) {
+
+            this.backend.close();
+        }
+
+        this.backend = backend;
+    }
+
+    /**
+     * Changes the position from where the positional sounds are heard (it
+     * should be the position of the current player).
+     *
+     * @param x
+     *              Horizontal position of the listener.
+     * @param y
+     *              Vertical position of the listener.
+     */
+    public void setListener (float x, float y) {
+
+        listenerX = x;
+        listenerY = y;
+    }
 
     /**
-     * Returns <i>true</i> if the given clip is playing.
+     * Returns <i>true</i> if the given clip is playing (or has been
+     * requested). It only reads a counter, so it can be called on every frame.
      *
      * @param clip
      *             The clip which name is going to be searched between the
@@ -719,15 +396,7 @@ public class Jukebox {
      */
     public boolean isPlaying (Playlist clip) {
 
-        for (Playable p : playables) {
-
-            if (p.getClipName().equals(clip)) {
-
-                return true;
-            }
-        }
-
-        return false;
+        return getBackend().isPlaying(clip);
     }
     
     /**
@@ -770,13 +439,7 @@ public class Jukebox {
         } else {
             
             /* Restarts the music that was being played */
-            for (Playable p : playables) {
-                
-                if (isMusicClip(p.getClipName())) {
-                    
-                    p.restartClip();
-                }
-            }
+            getBackend().pauseMusic(false);
         }
                 
         return musicON;
@@ -0,0 +1,419 @@
+package sound;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Music track played by the {@link SoftwareMixer}, read from its file while
+ * it's being played.
+ * The music files are too big to be loaded whole, so the track is decoded in
+ * chunks of {@link #CHUNK_FRAMES} frames on a small ring buffer, that is
+ * refilled by the thread of the mixer before mixing each chunk (so the file
+ * is only opened and read on that thread, never on the game thread). The
+ * memory used by a track is always the same, no matter how long it is.
+ * When the track reaches the end of its loop (or of the file), it goes back
+ * to the beginning of the loop; since the ring buffer still has the end of
+ * the previous lap, the restart has no gap.
+ * A track can also be faded in or out (see {@link #fadeIn(int)} and
+ * {@link #fadeOut(int)}), to crossfade it with another one.
+ */
+public class MusicStream {
+
+    /**
+     * Frames read from the file each time.
+     */
+    private static final int CHUNK_FRAMES = 4096;
+
+    /**
+     * Frames that fit on the ring buffer (about 0.4 s at 44100 Hz).
+     */
+    private static final int RING_FRAMES = 4 * CHUNK_FRAMES;
+
+    private static final int CHANNELS = EffectBank.FORMAT.getChannels();
+    private static final int FRAME_SIZE = EffectBank.FORMAT.getFrameSize();
+
+    private final Playlist clip;
+    private final boolean finite;
+    /** First frame of the loop */
+    private final long loopStart;
+    /** Last frame of the loop (-1 for the end of the file) */
+    private final long loopEnd;
+
+    /** Volume of the track */
+    private final float gain;
+
+    /**
+     * Volume of the fade, between 0 and 1, and how much it changes on each
+     * frame (0 if it isn't being faded).
+     */
+    private float fade;
+    private float fadeStep;
+    /** True when the track has been faded out completely */
+    private boolean silenced;
+
+    /**
+     * Decoded samples, waiting to be mixed (from 'read' to 'write', wrapping
+     * around the end of the array).
+     */
+    private final short[] ring;
+    private int read;
+    private int write;
+    private int available;
+
+    /** Data read from the file on each chunk */
+    private final byte[] chunk;
+
+    /** Stream of the file (null if it hasn't been opened yet) */
+    private AudioInputStream stream;
+    /** Frame of the file that will be read next */
+    private long position;
+
+    /** True when the track has been completely read and won't be reopened */
+    private boolean exhausted;
+    /** True if some data has been read since the last time the loop restarted */
+    private boolean readSinceRestart;
+    private boolean paused;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Creates a track. The file isn't opened until it's played by the mixer.
+     *
+     * @param clip
+     *              Music to be played.
+     * @param finite
+     *              If true, the track is played only once.
+     * @param loopStart
+     *              First frame of the loop.
+     * @param loopEnd
+     *              Last frame of the loop (-1 for the end of the file). It
+     *          must be after the first one.
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     *
+     * @throws IllegalArgumentException
+     *              If the end of the loop isn't after its start.
+     */
+    public MusicStream (Playlist clip, boolean finite, int loopStart,
+                        int loopEnd, float decibels) {
+
+        if (loopEnd >= 0 && loopEnd <= Math.max(0, loopStart)) {
+
+            throw new IllegalArgumentException("The loop of " + clip
+                                             + " ends on the frame " + loopEnd
+                                             + ", before it starts.");
+        }
+
+        this.clip = clip;
+        this.finite = finite;
+        this.loopStart = Math.max(0, loopStart);
+        this.loopEnd = loopEnd;
+        this.gain = (float) Math.pow(10, -decibels / 20);
+        this.fade = 1;
+        this.fadeStep = 0;
+        this.silenced = false;
+
+        this.ring = new short[RING_FRAMES * CHANNELS];
+        this.chunk = new byte[CHUNK_FRAMES * FRAME_SIZE];
+        this.read = 0;
+        this.write = 0;
+        this.available = 0;
+
+        this.stream = null;
+        this.position = 0;
+        this.exhausted = false;
+        this.readSinceRestart = false;
+        this.paused = false;
+    }
+
+    /**
+     * Reads chunks from the file until the ring buffer is full. It must be
+     * called from the thread of the mixer.
+     */
+    void fill () {
+
+        while (!exhausted && ring.length - available >= CHUNK_FRAMES * CHANNELS) {
+
+            if (stream == null && !open()) {
+                exhausted = true;
+                return;
+            }
+
+            int frames = CHUNK_FRAMES;
+
+            /* Doesn't read past the end of the loop */
+            if (!finite && loopEnd >= 0) {
+                frames = (int) Math.min(frames, loopEnd - position);
+            }
+
+            int bytes = (frames > 0)? readChunk(frames * FRAME_SIZE) : 0;
+
+            if (bytes < 0) {
+                return;
+            }
+            if (bytes == 0) {
+
+                /* End of the loop or of the file */
+                close();
+
+                /* If a whole lap gives no data (an empty file, or a loop that
+                starts past its end), it would restart forever */
+                if (finite || !readSinceRestart) {
+                    exhausted = true;
+                } else {
+                    position = loopStart;
+                    readSinceRestart = false;
+                }
+                continue;
+            }
+
+            readSinceRestart = true;
+            store(bytes);
+            position += bytes / FRAME_SIZE;
+        }
+    }
+
+    /**
+     * Adds the next samples of the track to the mix. If the ring buffer runs
+     * out of samples, the rest of the chunk is left silent.
+     *
+     * @param mix
+     *              Samples of the chunk that is being mixed.
+     */
+    void mixInto (float[] mix) {
+
+        if (paused) {
+            return;
+        }
+
+        int count = Math.min(mix.length, available);
+
+        for (int i = 0; i < count; i += CHANNELS) {
+
+            float volume = gain * fade;
+
+            for (int c = 0; c < CHANNELS; c++) {
+
+                mix[i + c] += ring[read] * volume;
+                read = (read + 1) % ring.length;
+            }
+
+            if (fadeStep != 0) {
+                advanceFade();
+            }
+        }
+        available -= count;
+    }
+
+    /**
+     * Starts raising the volume from silence to the volume of the track.
+     *
+     * @param frames
+     *              Duration of the fade, in frames.
+     */
+    void fadeIn (int frames) {
+
+        fade = 0;
+        fadeStep = 1f / Math.max(1, frames);
+    }
+
+    /**
+     * Starts lowering the volume until the track is silent. Then, the track
+     * is finished.
+     *
+     * @param frames
+     *              Duration of the fade, in frames.
+     */
+    void fadeOut (int frames) {
+
+        fadeStep = -fade / Math.max(1, frames);
+
+        if (fadeStep == 0) {
+            silenced = true;
+        }
+    }
+
+    /**
+     * Returns <i>true</i> if the track is being faded out (or it's already
+     * silent).
+     */
+    boolean isFadingOut () {
+
+        return fadeStep < 0 || silenced;
+    }
+
+    /**
+     * Returns <i>true</i> if the whole track has been played, or it has been
+     * faded out.
+     */
+    boolean isFinished () {
+
+        return (exhausted && available == 0) || silenced;
+    }
+
+    /**
+     * Releases the file, if it was open.
+     */
+    void close () {
+
+        if (stream != null) {
+
+            try {
+                stream.close();
+            } catch (IOException exception) {
+                System.out.println(exception.getMessage());
+            }
+            stream = null;
+        }
+    }
+
+    /**
+     * Returns <i>true</i> if the track is played only once.
+     */
+    boolean isFinite () {
+
+        return finite;
+    }
+
+    void setPaused (boolean paused) {
+
+        this.paused = paused;
+    }
+
+    /**
+     * Returns the music played on this stream.
+     *
+     * @return
+     *              The value of {@code clip}
+     */
+    public Playlist getClip () {
+
+        return clip;
+    }
+
+    /**
+     * Changes the volume of the fade by one frame.
+     */
+    private void advanceFade () {
+
+        fade += fadeStep;
+
+        if (fade >= 1) {
+
+            fade = 1;
+            fadeStep = 0;
+
+        } else if (fade <= 0) {
+
+            fade = 0;
+            fadeStep = 0;
+            silenced = true;
+        }
+    }
+
+    /**
+     * Opens the file and skips to the current position.
+     *
+     * @return
+     *              <i>true</i> if it could be opened.
+     */
+    private boolean open () {
+
+        URL url = MusicStream.class.getResource(clip.getPath());
+
+        if (url == null) {
+            System.out.println("The music clip " + clip.getPath()
+                             + " doesn't exist.");
+            return false;
+        }
+
+        try {
+            AudioInputStream file = AudioSystem.getAudioInputStream(url);
+
+            stream = AudioSystem.getAudioInputStream(EffectBank.FORMAT, file);
+            skip(stream, position * FRAME_SIZE);
+
+            return true;
+
+        } catch (IOException | UnsupportedAudioFileException
+                 | IllegalArgumentException exception) {
+
+            System.out.println("The music clip couldn't be imported. See:");
+            System.out.println(exception.getMessage());
+            close();
+            return false;
+        }
+    }
+
+    /**
+     * Reads a chunk from the file.
+     *
+     * @return
+     *              The number of bytes read (a multiple of the frame size), 0
+     *          at the end of the file or -1 if there was an error (the track
+     *          is finished, then).
+     */
+    private int readChunk (int length) {
+
+        try {
+            int total = 0;
+
+            while (total < length) {
+
+                int count = stream.read(chunk, total, length - total);
+
+                if (count < 0) {
+                    break;
+                }
+                total += count;
+            }
+            return total - (total % FRAME_SIZE);
+
+        } catch (IOException exception) {
+
+            System.out.println("The music clip couldn't be read. See:");
+            System.out.println(exception.getMessage());
+            close();
+            exhausted = true;
+            return -1;
+        }
+    }
+
+    /**
+     * Converts the bytes of the chunk (16 bits little-endian) and adds them to
+     * the ring buffer.
+     */
+    private void store (int bytes) {
+
+        for (int i = 0; i < bytes; i += 2) {
+
+            ring[write] = (short) ((chunk[i + 1] << 8) | (chunk[i] & 0xFF));
+            write = (write + 1) % ring.length;
+        }
+        available += bytes / 2;
+    }
+
+    /**
+     * Skips the given number of bytes of a stream.
+     */
+    private static void skip (InputStream in, long bytes) throws IOException {
+
+        long remaining = bytes;
+
+        while (remaining > 0) {
+
+            long skipped = in.skip(remaining);
+
+            if (skipped <= 0) {
+                return;
+            }
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package sound;
+
+/**
+ * Backend that doesn't play anything.
+ * It doesn't open any line nor start any thread, and the sound files aren't
+ * even read, so the game can be run (or soak-tested) with the cost of the
+ * audio removed. Nothing is ever being played.
+ */
+public class NullAudioBackend implements AudioBackend {
+
+    @Override
+    public boolean play (Playlist clip, float decibels, float pan,
+                         boolean loop) {
+
+        return true;
+    }
+
+    @Override
+    public boolean playMusic (Playlist clip, boolean finite, int start,
+                              int end, float decibels) {
+
+        return true;
+    }
+
+    @Override
+    public void prefetch (Playlist clip, float decibels) {
+    }
+
+    @Override
+    public boolean crossfade (Playlist clip, float decibels, int frames) {
+
+        return true;
+    }
+
+    @Override
+    public void pauseMusic (boolean paused) {
+    }
+
+    @Override
+    public void stopAll () {
+    }
+
+    @Override
+    public boolean isPlaying (Playlist clip) {
+
+        return false;
+    }
+
+    @Override
+    public boolean isPlayingFinite () {
+
+        return false;
+    }
+
+    @Override
+    public void close () {
+    }
+}
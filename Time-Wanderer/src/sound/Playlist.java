@@ -5,22 +5,106 @@ package sound;
  * @author Alberto
  * @version 26/03/2016 */
 public enum Playlist {
-    ARROW_HIT,
-    ARROW_SHOT,
-    CAUGHT,
-    FALLING_RUBBLE,
-    FREEZING_SPELL,
-    GAME_OVER,
-    GUITAR_CONCERT,
-    HIT_1,
-    HIT_2,
-    HIT_3,
-    JUMP,
-    MAGIC_SMITE,
-    MEMORIES, /* 0 and 1939000 for loops. */
-    MOUSE_ENTERED,
-    SELECT,
-    SHOT,
-    STEP,
-    THE_LURKING_BEAST
+    ARROW_HIT ("ArrowHit.wav", Priority.COMBAT, 4),
+    ARROW_SHOT ("ArrowShot.wav", Priority.COMBAT, 3),
+    CAUGHT ("Caught.wav", Priority.COMBAT, 2),
+    FALLING_RUBBLE ("FallingRubble.wav", Priority.COMBAT, 1),
+    FREEZING_SPELL ("FreezingSpell.wav", Priority.COMBAT, 2),
+    GAME_OVER ("GameOver.wav", Priority.MUSIC, 1),
+    GUITAR_CONCERT ("GuitarConcertInEMinor.wav", Priority.MUSIC, 1),
+    HIT_1 ("Hit1.wav", Priority.COMBAT, 3),
+    HIT_2 ("Hit2.wav", Priority.COMBAT, 3),
+    HIT_3 ("Hit3.wav", Priority.COMBAT, 3),
+    JUMP ("Jump.wav", Priority.FOOTSTEPS, 1),
+    MAGIC_SMITE ("MagicSmite.wav", Priority.UI, 1), /* Only played by the main menu. */
+    MEMORIES ("MemoriesInDMinor.wav", Priority.MUSIC, 1), /* 0 and 1939000 for loops. */
+    MOUSE_ENTERED ("MouseEntered.wav", Priority.UI, 1),
+    SELECT ("Select.wav", Priority.UI, 1),
+    SHOT ("Shot.wav", Priority.COMBAT, 3),
+    STEP ("Step.wav", Priority.FOOTSTEPS, 1),
+    THE_LURKING_BEAST ("TheLurkingBeast.wav", Priority.MUSIC, 1);
+
+    /**
+     * Importance of the sounds, from the highest to the lowest. When there
+     * are no free voices, a sound can only replace another one of the same or
+     * lower importance.
+     */
+    public enum Priority {
+        MUSIC, UI, COMBAT, FOOTSTEPS
+    }
+
+    /**
+     * Directory with all the sound files.
+     */
+    private static final String DIRECTORY = "/resources/sound/";
+
+    /**
+     * Path of the file of this sound.
+     */
+    private final String path;
+
+    /**
+     * Importance of this sound.
+     */
+    private final Priority priority;
+
+    /**
+     * Maximum number of copies of this sound that can be played at the same
+     * time.
+     */
+    private final int maxVoices;
+
+    private Playlist (String file, Priority priority, int maxVoices) {
+
+        this.path = DIRECTORY + file;
+        this.priority = priority;
+        this.maxVoices = maxVoices;
+    }
+
+    /**
+     * Returns the path of the file of this sound (relative to the root of the
+     * classpath).
+     *
+     * @return
+     *              The value of {@code path}
+     */
+    public String getPath () {
+
+        return path;
+    }
+
+    /**
+     * Returns <i>true</i> if this sound is a music clip, <i>false</i> if it's
+     * a sound effect.
+     *
+     * @return
+     *              <i>true</i> if its priority is {@link Priority#MUSIC}
+     */
+    public boolean isMusic () {
+
+        return priority == Priority.MUSIC;
+    }
+
+    /**
+     * Returns the importance of this sound.
+     *
+     * @return
+     *              The value of {@code priority}
+     */
+    public Priority getPriority () {
+
+        return priority;
+    }
+
+    /**
+     * Returns the maximum number of copies of this sound that can be played
+     * at the same time.
+     *
+     * @return
+     *              The value of {@code maxVoices}
+     */
+    public int getMaxVoices () {
+
+        return maxVoices;
+    }
 }
@@ -0,0 +1,462 @@
+package sound;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.function.LongSupplier;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Backend that records the sounds requested to another backend (that is the
+ * one that really plays them, if any), to measure the load of the audio.
+ * For each sound of the {@link Playlist}, it counts:
+ * <ul>
+ *  <li>The number of times it has been requested, and how many of them have
+ *      been dropped.</li>
+ *  <li>The peak of copies of the sound played at the same time.</li>
+ *  <li>The latency of the requests: the time the calling thread (the game
+ *      thread) spends on each request, in the other backend.</li>
+ * </ul>
+ * The other backend may not play anything (like the {@link NullAudioBackend}),
+ * and the {@link SoftwareMixer} only decides which sounds are dropped later,
+ * on its own thread. So the recorder keeps its own model of the
+ * {@link SoftwareMixer#MAX_VOICES} voices and the
+ * {@link SoftwareMixer#MAX_TRACKS} music tracks, assigned by a
+ * {@link VoiceAllocator}, like the ones of the mixer. A request is dropped if
+ * the other backend or the model drop it. The length of each sound is read
+ * from the header of its file, and it's measured on the time of the game, that
+ * can be simulated faster than the real time; a looped sound lasts until it's
+ * stopped.
+ * {@link #isPlaying(Playlist)} and {@link #isPlayingFinite()} are answered by
+ * the other backend, unless it's a {@link NullAudioBackend} (that doesn't play
+ * anything); then, they're answered by the model.
+ * The results are returned by {@link #getReport()}. It must be used from a
+ * single thread.
+ */
+public class RecordingAudioBackend implements AudioBackend {
+
+    private static final Playlist[] CLIPS = Playlist.values();
+
+    /** Instant when a looped sound ends */
+    private static final long NEVER = Long.MAX_VALUE;
+
+    /** Backend that plays the sounds */
+    private final AudioBackend delegate;
+
+    /** Time of the game, in nanoseconds */
+    private final LongSupplier clock;
+
+    /** Length of each sound, in nanoseconds (0 if it's unknown) */
+    private final long[] length;
+
+    /** If the other backend doesn't play anything, so it can't tell which
+    sounds are playing */
+    private final boolean modelOnly;
+
+    /* Model of the voices: sound of each one and instant when it ends */
+    private final VoiceAllocator voiceSlots;
+    private final long[] voiceEnd;
+
+    /* Model of the music tracks, the same way. A track that is fading out
+    isn't counted as playing, but it keeps its slot until it's silent */
+    private final VoiceAllocator trackSlots;
+    private final long[] trackEnd;
+    private final boolean[] trackFinite;
+    private final boolean[] trackFading;
+
+    /* Statistics of each sound */
+    private final long[] requests;
+    private final long[] dropped;
+    private final int[] peak;
+    private final long[] totalLatency;
+    private final long[] maxLatency;
+
+    /** Peak of voices and tracks used at the same time */
+    private int voicesPeak;
+    private int tracksPeak;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Creates a backend that records the sounds played on another one, on
+     * real time.
+     *
+     * @param delegate
+     *              Backend that plays the sounds (it can be a
+     *          {@link NullAudioBackend}, to only record them).
+     */
+    public RecordingAudioBackend (AudioBackend delegate) {
+
+        this(delegate, System::nanoTime);
+    }
+
+    /**
+     * Creates a backend that records the sounds played on another one.
+     *
+     * @param delegate
+     *              Backend that plays the sounds (it can be a
+     *          {@link NullAudioBackend}, to only record them).
+     * @param clock
+     *              Time of the game, in nanoseconds (used to know when the
+     *          sounds end).
+     */
+    public RecordingAudioBackend (AudioBackend delegate, LongSupplier clock) {
+
+        this.delegate = delegate;
+        this.clock = clock;
+        this.length = new long[CLIPS.length];
+        this.modelOnly = (delegate instanceof NullAudioBackend);
+
+        this.voiceSlots = new VoiceAllocator(SoftwareMixer.MAX_VOICES,
+                                             clock.getAsLong());
+        this.voiceEnd = new long[SoftwareMixer.MAX_VOICES];
+
+        this.trackSlots = new VoiceAllocator(SoftwareMixer.MAX_TRACKS,
+                                             clock.getAsLong());
+        this.trackEnd = new long[SoftwareMixer.MAX_TRACKS];
+        this.trackFinite = new boolean[SoftwareMixer.MAX_TRACKS];
+        this.trackFading = new boolean[SoftwareMixer.MAX_TRACKS];
+
+        this.requests = new long[CLIPS.length];
+        this.dropped = new long[CLIPS.length];
+        this.peak = new int[CLIPS.length];
+        this.totalLatency = new long[CLIPS.length];
+        this.maxLatency = new long[CLIPS.length];
+        this.voicesPeak = 0;
+        this.tracksPeak = 0;
+
+        for (Playlist p : CLIPS) {
+
+            length[p.ordinal()] = readLength(p);
+        }
+    }
+
+    @Override
+    public boolean play (Playlist clip, float decibels, float pan,
+                         boolean loop) {
+
+        long start = System.nanoTime();
+        boolean accepted = delegate.play(clip, decibels, pan, loop);
+        long latency = System.nanoTime() - start;
+        long now = expire();
+
+        record(clip, latency, accepted && startVoice(clip, loop, now));
+        return accepted;
+    }
+
+    @Override
+    public boolean playMusic (Playlist clip, boolean finite, int start,
+                              int end, float decibels) {
+
+        long begin = System.nanoTime();
+        boolean accepted = delegate.playMusic(clip, finite, start, end,
+                                              decibels);
+        long latency = System.nanoTime() - begin;
+        long now = expire();
+
+        if (accepted) {
+            addTrack(clip, finite, now);
+        }
+
+        record(clip, latency, accepted);
+        return accepted;
+    }
+
+    @Override
+    public void prefetch (Playlist clip, float decibels) {
+
+        delegate.prefetch(clip, decibels);
+    }
+
+    @Override
+    public boolean crossfade (Playlist clip, float decibels, int frames) {
+
+        long start = System.nanoTime();
+        boolean accepted = delegate.crossfade(clip, decibels, frames);
+        long latency = System.nanoTime() - start;
+        long now = expire();
+
+        if (accepted) {
+
+            long fadeEnd = now + (long) (frames * 1e9
+                                         / EffectBank.FORMAT.getFrameRate());
+
+            /* The previous music fades out */
+            for (int i = 0; i < trackSlots.size(); i++) {
+
+                if (trackSlots.getClip(i) != null && !trackFading[i]) {
+
+                    trackFading[i] = true;
+                    trackEnd[i] = Math.min(trackEnd[i], fadeEnd);
+                }
+            }
+
+            addTrack(clip, false, now);
+        }
+
+        record(clip, latency, accepted);
+        return accepted;
+    }
+
+    @Override
+    public void pauseMusic (boolean paused) {
+
+        delegate.pauseMusic(paused);
+    }
+
+    @Override
+    public void stopAll () {
+
+        delegate.stopAll();
+
+        for (int i = 0; i < voiceSlots.size(); i++) {
+
+            voiceSlots.free(i);
+        }
+
+        for (int i = 0; i < trackSlots.size(); i++) {
+
+            trackSlots.free(i);
+        }
+    }
+
+    @Override
+    public boolean isPlaying (Playlist clip) {
+
+        if (!modelOnly) {
+            return delegate.isPlaying(clip);
+        }
+
+        expire();
+        return copies(clip) > 0;
+    }
+
+    @Override
+    public boolean isPlayingFinite () {
+
+        if (!modelOnly) {
+            return delegate.isPlayingFinite();
+        }
+
+        expire();
+
+        for (int i = 0; i < voiceSlots.size(); i++) {
+
+            if (voiceSlots.getClip(i) != null && voiceEnd[i] != NEVER) {
+                return true;
+            }
+        }
+
+        for (int i = 0; i < trackSlots.size(); i++) {
+
+            if (trackSlots.getClip(i) != null && trackFinite[i]
+                && !trackFading[i]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void close () {
+
+        delegate.close();
+    }
+
+    /**
+     * Returns a table with the statistics of every sound that has been
+     * requested.
+     *
+     * @return
+     *              The statistics, one sound per line.
+     */
+    public String getReport () {
+
+        StringBuilder report = new StringBuilder();
+        long total = 0;
+        long totalDropped = 0;
+
+        report.append(String.format("%-18s%9s%9s%6s%12s%12s%n", "SOUND",
+                                    "requests", "dropped", "peak",
+                                    "avg (us)", "max (us)"));
+
+        for (Playlist p : CLIPS) {
+
+            int i = p.ordinal();
+
+            if (requests[i] == 0) {
+                continue;
+            }
+
+            total += requests[i];
+            totalDropped += dropped[i];
+
+            report.append(String.format("%-18s%9d%9d%6d%12.1f%12.1f%n",
+                                        p.name(), requests[i], dropped[i],
+                                        peak[i],
+                                        totalLatency[i] / 1e3 / requests[i],
+                                        maxLatency[i] / 1e3));
+        }
+
+        report.append("Requests: ").append(total)
+              .append("  Dropped: ").append(totalDropped)
+              .append("  Peak of voices: ").append(voicesPeak)
+              .append("  Peak of tracks: ").append(tracksPeak);
+
+        return report.toString();
+    }
+
+    /**
+     * Records a request.
+     *
+     * @param clip
+     *              The requested sound.
+     * @param latency
+     *              Time spent on the other backend, in nanoseconds.
+     * @param played
+     *              If the sound is being played (it hasn't been dropped).
+     */
+    private void record (Playlist clip, long latency, boolean played) {
+
+        int i = clip.ordinal();
+
+        requests[i]++;
+        totalLatency[i] += latency;
+        maxLatency[i] = Math.max(maxLatency[i], latency);
+
+        if (!played) {
+            dropped[i]++;
+            return;
+        }
+
+        peak[i] = Math.max(peak[i], copies(clip));
+        voicesPeak = Math.max(voicesPeak, voiceSlots.used());
+        tracksPeak = Math.max(tracksPeak, trackSlots.used());
+    }
+
+    /**
+     * Frees the voices and the tracks whose sounds have already ended.
+     *
+     * @return
+     *              The current time of the game.
+     */
+    private long expire () {
+
+        long now = clock.getAsLong();
+
+        for (int i = 0; i < voiceSlots.size(); i++) {
+
+            if (voiceSlots.getClip(i) != null && voiceEnd[i] <= now) {
+                voiceSlots.free(i);
+            }
+        }
+
+        for (int i = 0; i < trackSlots.size(); i++) {
+
+            if (trackSlots.getClip(i) != null && trackEnd[i] <= now) {
+                trackSlots.free(i);
+            }
+        }
+
+        return now;
+    }
+
+    /**
+     * Assigns a voice to an effect, with the same rules as the
+     * {@link SoftwareMixer}.
+     *
+     * @return
+     *              <i>true</i> if the effect is played; <i>false</i> if it has
+     *          been dropped.
+     */
+    private boolean startVoice (Playlist clip, boolean loop, long now) {
+
+        if (!voiceSlots.accept(clip, now)) {
+            return false;
+        }
+
+        int voice = voiceSlots.choose(clip);
+
+        if (voice < 0) {
+            return false;
+        }
+
+        voiceSlots.assign(voice, clip);
+        voiceEnd[voice] = loop? NEVER : now + length[clip.ordinal()];
+
+        return true;
+    }
+
+    /**
+     * Adds a music track to a free slot or, if there's none, to the slot of
+     * the oldest track, that is stopped.
+     */
+    private void addTrack (Playlist clip, boolean finite, long now) {
+
+        int slot = trackSlots.chooseOldest();
+
+        trackSlots.assign(slot, clip);
+        trackEnd[slot] = finite? now + length[clip.ordinal()] : NEVER;
+        trackFinite[slot] = finite;
+        trackFading[slot] = false;
+    }
+
+    /**
+     * Returns the number of copies of a sound being played (the music that
+     * is fading out doesn't count).
+     */
+    private int copies (Playlist clip) {
+
+        int count = 0;
+
+        for (int i = 0; i < voiceSlots.size(); i++) {
+
+            if (voiceSlots.getClip(i) == clip) {
+                count++;
+            }
+        }
+
+        for (int i = 0; i < trackSlots.size(); i++) {
+
+            if (trackSlots.getClip(i) == clip && !trackFading[i]) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Reads the length of a sound from the header of its file.
+     *
+     * @return
+     *              The length, in nanoseconds, or 0 if it's unknown.
+     */
+    private static long readLength (Playlist clip) {
+
+        URL url = RecordingAudioBackend.class.getResource(clip.getPath());
+
+        if (url == null) {
+            return 0;
+        }
+
+        try {
+            AudioFileFormat format = AudioSystem.getAudioFileFormat(url);
+
+            if (format.getFrameLength() == AudioSystem.NOT_SPECIFIED) {
+                return 0;
+            }
+
+            return (long) (format.getFrameLength() * 1e9
+                           / format.getFormat().getFrameRate());
+
+        } catch (IOException | UnsupportedAudioFileException exception) {
+
+            return 0;
+        }
+    }
+}
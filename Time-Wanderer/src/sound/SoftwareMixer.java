@@ -0,0 +1,694 @@
+package sound;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Backend that plays the sounds with JavaSound, mixing all the sound effects
+ * and the music on a single output line.
+ * Instead of opening a Clip (and running a thread) for each effect, the
+ * effects are added as voices to this mixer, that has a fixed number of them.
+ * A single thread mixes the samples of the active voices (that are already
+ * decoded on the {@link EffectBank}), applying the gain of each one, and writes
+ * the result to the line, chunk by chunk. This way, the cost of the audio is
+ * the same no matter how many effects are requested.
+ * The music is mixed the same way, but it's read from its file by a
+ * {@link MusicStream} (on the thread of the mixer, before each chunk). A track
+ * can also be prefetched: its file is opened and its buffer filled, but it
+ * isn't mixed until it's crossfaded with the current music, so the change
+ * doesn't have to wait for the file.
+ * <p>
+ * The voices and the tracks belong to the thread of the mixer. The public
+ * methods, called from the game thread, only post a command to a lock-free
+ * queue, that the thread of the mixer runs before mixing the next chunk, so
+ * they never block. The number of active copies of each sound is kept on
+ * atomic counters (a copy counts since it's requested until it ends or it's
+ * dropped), so {@link #isPlaying(Playlist)} doesn't have to look at the
+ * voices.
+ * <p>
+ * The voices and the tracks are assigned with the rules of the
+ * {@link VoiceAllocator}: the effects requested again on the same frame are
+ * ignored, an effect with all its copies playing restarts the oldest one and,
+ * when there are no free voices, the least important sound is stolen (or the
+ * new effect is dropped).
+ */
+public class SoftwareMixer implements AudioBackend, Runnable {
+
+    /**
+     * Maximum number of effects played at the same time.
+     */
+    public static final int MAX_VOICES = 16;
+
+    /**
+     * Frames mixed on each chunk (about 12 ms at 44100 Hz).
+     */
+    private static final int CHUNK_FRAMES = 512;
+
+    /**
+     * Chunks that fit on the buffer of the line (the latency of the effects).
+     */
+    private static final int LINE_CHUNKS = 4;
+
+    /**
+     * Maximum number of music tracks played at the same time.
+     */
+    public static final int MAX_TRACKS = 2;
+
+    private static final int CHANNELS = EffectBank.FORMAT.getChannels();
+
+    /**
+     * Sound effects, decoded when the mixer is created.
+     */
+    private final EffectBank effects;
+
+    /**
+     * Commands posted by the other threads, waiting to be run by the thread of
+     * the mixer.
+     */
+    private final Queue<Runnable> commands;
+
+    /**
+     * Number of copies of each sound (by its ordinal) that are being played
+     * or have been requested. The music that is fading out isn't counted.
+     */
+    private final AtomicIntegerArray active;
+
+    /**
+     * Number of sounds that will end by themselves (the effects that aren't
+     * looped and the finite music) being played or requested.
+     */
+    private final AtomicInteger finite;
+
+    /**
+     * Assignment of the voices. The deduplication of the effects (with
+     * System.nanoTime()) is only used by the posting thread; the rest of it,
+     * by the thread of the mixer.
+     */
+    private final VoiceAllocator voiceSlots;
+
+    /* ---- Only used by the thread of the mixer ---- */
+
+    /**
+     * Voices of the mixer, with the same indexes as their slots on
+     * {@link #voiceSlots}. A voice is free when it has no sample.
+     */
+    private final Voice[] voices;
+
+    /**
+     * Music being played (null on the free slots), and the assignment of the
+     * slots.
+     */
+    private final MusicStream[] tracks;
+    private final VoiceAllocator trackSlots;
+
+    /**
+     * Track that is being buffered, to be played later (null if there's none).
+     */
+    private MusicStream prefetched;
+
+    /**
+     * Sum of the voices on the current chunk, for each channel.
+     */
+    private final float[] mix;
+
+    /**
+     * Current chunk, converted to the format of the line.
+     */
+    private final byte[] output;
+
+    /**
+     * Line where the mixed sound is written (null if it isn't available).
+     */
+    private final SourceDataLine line;
+
+    /**
+     * Set by {@link #close()} to stop the thread of the mixer.
+     */
+    private volatile boolean closed;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Creates the mixer and starts its thread.
+     */
+    public SoftwareMixer () {
+
+        effects = new EffectBank();
+        commands = new ConcurrentLinkedQueue<>();
+        active = new AtomicIntegerArray(Playlist.values().length);
+        finite = new AtomicInteger(0);
+
+        voiceSlots = new VoiceAllocator(MAX_VOICES, System.nanoTime());
+        voices = new Voice[MAX_VOICES];
+        for (int i = 0; i < MAX_VOICES; i++) {
+            voices[i] = new Voice();
+        }
+
+        tracks = new MusicStream[MAX_TRACKS];
+        trackSlots = new VoiceAllocator(MAX_TRACKS, System.nanoTime());
+        prefetched = null;
+
+        closed = false;
+        mix = new float[CHUNK_FRAMES * CHANNELS];
+        output = new byte[CHUNK_FRAMES * EffectBank.FORMAT.getFrameSize()];
+        line = openLine();
+
+        if (line != null) {
+
+            Thread thread = new Thread(this, "Audio mixer");
+
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Requests an effect, that will be played if there's a voice for it (see
+     * the rules on the description of the class).
+     * It must be called from a single thread (the game thread).
+     *
+     * @param clip
+     *              The sound identifier.
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     * @param pan
+     *              Balance between the channels, from -1 (only the left one)
+     *          to 1 (only the right one).
+     * @param loop
+     *              If true, the effect is repeated until it's stopped.
+     *
+     * @return
+     *              <i>true</i> if the effect has been requested; <i>false</i>
+     *          if it has been dropped because it was just requested (or
+     *          there's no line).
+     */
+    @Override
+    public boolean play (Playlist clip, float decibels, float pan,
+                         boolean loop) {
+
+        EffectBank.Sample sample = effects.get(clip);
+
+        if (line == null || sample == null) {
+            return false;
+        }
+
+        if (!voiceSlots.accept(clip, System.nanoTime())) {
+            return false;
+        }
+
+        float gain = (float) Math.pow(10, -decibels / 20);
+        float left = gain * Math.min(1, 1 - pan);
+        float right = gain * Math.min(1, 1 + pan);
+
+        acquire(clip, !loop);
+        commands.add(() -> startVoice(clip, sample, left, right, loop));
+
+        return true;
+    }
+
+    /**
+     * Starts playing a music clip. Its file will be opened by the thread of
+     * the mixer, so this method doesn't block. If there are already
+     * {@link #MAX_TRACKS} tracks, the oldest one is stopped.
+     *
+     * @param clip
+     *              The music clip.
+     * @param finite
+     *              If true, the music is played only once.
+     * @param start
+     *              First frame of the loop.
+     * @param end
+     *              Last frame of the loop (-1 for the end of the clip). It
+     *          must be after the first one.
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     *
+     * @return
+     *              <i>true</i> if the music has been requested; <i>false</i>
+     *          if there's no line.
+     *
+     * @throws IllegalArgumentException
+     *              If the end of the loop isn't after its start.
+     */
+    @Override
+    public boolean playMusic (Playlist clip, boolean finite, int start,
+                              int end, float decibels) {
+
+        if (line == null || clip == null) {
+            return false;
+        }
+
+        /* Created here, so a wrong loop is reported to the caller */
+        MusicStream track = new MusicStream(clip, finite, start, end, decibels);
+
+        acquire(clip, finite);
+        commands.add(() -> addTrack(track));
+
+        return true;
+    }
+
+    /**
+     * Starts buffering a music clip (played in a loop), that won't be heard
+     * until it's passed to {@link #crossfade(Playlist, float, int)}. The clip
+     * that was being prefetched before is discarded, unless it's the same
+     * music.
+     *
+     * @param clip
+     *              The music clip (null to discard the prefetched one).
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     */
+    @Override
+    public void prefetch (Playlist clip, float decibels) {
+
+        if (line == null) {
+            return;
+        }
+
+        commands.add(() -> {
+
+            if (prefetched != null && prefetched.getClip() == clip) {
+                return;
+            }
+
+            if (prefetched != null) {
+                prefetched.close();
+            }
+            prefetched = (clip == null)? null
+                            : new MusicStream(clip, false, 0, -1, decibels);
+        });
+    }
+
+    /**
+     * Fades out all the music that is being played, while a music clip
+     * (played in a loop) fades in. If the clip has been prefetched, the
+     * prefetched track (with its volume) is played, so it starts right away.
+     *
+     * @param clip
+     *              The music clip.
+     * @param decibels
+     *              Number of decibels to deduct from the volume.
+     * @param frames
+     *              Duration of the crossfade, in frames.
+     *
+     * @return
+     *              <i>true</i> if the music has been requested; <i>false</i>
+     *          if there's no line.
+     */
+    @Override
+    public boolean crossfade (Playlist clip, float decibels, int frames) {
+
+        if (line == null || clip == null) {
+            return false;
+        }
+
+        acquire(clip, false);
+        commands.add(() -> {
+
+            MusicStream next;
+
+            if (prefetched != null && prefetched.getClip() == clip) {
+
+                next = prefetched;
+                prefetched = null;
+            } else {
+
+                next = new MusicStream(clip, false, 0, -1, decibels);
+            }
+
+            for (MusicStream t : tracks) {
+
+                if (t != null && !t.isFadingOut()) {
+
+                    release(t.getClip(), t.isFinite());
+                    t.fadeOut(frames);
+                }
+            }
+
+            next.fadeIn(frames);
+            addTrack(next);
+        });
+
+        return true;
+    }
+
+    /**
+     * Pauses or resumes all the music tracks (the effects aren't affected).
+     *
+     * @param paused
+     *              If true, the music stops advancing until it's resumed.
+     */
+    @Override
+    public void pauseMusic (boolean paused) {
+
+        if (line == null) {
+            return;
+        }
+
+        commands.add(() -> {
+
+            for (MusicStream t : tracks) {
+
+                if (t != null) {
+                    t.setPaused(paused);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops all the voices and the music, and discards the prefetched track.
+     * The sounds requested after calling this method aren't affected.
+     */
+    @Override
+    public void stopAll () {
+
+        if (line == null) {
+            return;
+        }
+
+        commands.add(() -> {
+
+            for (int i = 0; i < MAX_VOICES; i++) {
+
+                if (voices[i].sample != null) {
+                    freeVoice(i);
+                }
+            }
+
+            for (int i = 0; i < MAX_TRACKS; i++) {
+
+                if (tracks[i] != null) {
+                    removeTrack(i);
+                }
+            }
+
+            if (prefetched != null) {
+                prefetched.close();
+                prefetched = null;
+            }
+        });
+    }
+
+    /**
+     * Returns <i>true</i> if the given sound is being played (or has been
+     * requested) on any voice or music track. The music that is fading out
+     * doesn't count.
+     *
+     * @param clip
+     *              The sound identifier.
+     *
+     * @return
+     *              <i>true</i> if there's any active copy of the sound.
+     */
+    @Override
+    public boolean isPlaying (Playlist clip) {
+
+        return active.get(clip.ordinal()) > 0;
+    }
+
+    /**
+     * Returns <i>true</i> if there's any sound that will end by itself (an
+     * effect that isn't looped, or a finite music track) still playing.
+     *
+     * @return
+     *              <i>true</i> if a finite sound is being played.
+     */
+    @Override
+    public boolean isPlayingFinite () {
+
+        return finite.get() > 0;
+    }
+
+    /**
+     * Stops the thread of the mixer. When it finishes the chunk that is
+     * being written, it closes the music files and the line. The commands
+     * posted after closing the mixer are ignored.
+     */
+    @Override
+    public void close () {
+
+        closed = true;
+    }
+
+    /**
+     * Runs the commands, and mixes and writes chunks until the mixer is
+     * closed. Writing on the line blocks until there's free space on its
+     * buffer, so the chunks are mixed at the same pace as they are played.
+     * Before each chunk, the buffers of the music are refilled from their
+     * files.
+     */
+    @Override
+    public void run () {
+
+        while (!closed) {
+
+            Runnable command;
+
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+
+            for (MusicStream t : tracks) {
+
+                if (t != null) {
+                    t.fill();
+                }
+            }
+
+            if (prefetched != null) {
+                prefetched.fill();
+            }
+
+            mixChunk();
+            line.write(output, 0, output.length);
+        }
+
+        for (MusicStream t : tracks) {
+
+            if (t != null) {
+                t.close();
+            }
+        }
+
+        if (prefetched != null) {
+            prefetched.close();
+        }
+
+        line.stop();
+        line.close();
+    }
+
+    /**
+     * Counts a new copy of a sound.
+     */
+    private void acquire (Playlist clip, boolean isFinite) {
+
+        active.incrementAndGet(clip.ordinal());
+
+        if (isFinite) {
+            finite.incrementAndGet();
+        }
+    }
+
+    /**
+     * Discounts a copy of a sound, that has ended or has been dropped.
+     */
+    private void release (Playlist clip, boolean isFinite) {
+
+        active.decrementAndGet(clip.ordinal());
+
+        if (isFinite) {
+            finite.decrementAndGet();
+        }
+    }
+
+    /**
+     * Plays an effect on the voice chosen for it, or drops it if there's none.
+     */
+    private void startVoice (Playlist clip, EffectBank.Sample sample,
+                             float left, float right, boolean loop) {
+
+        int slot = voiceSlots.choose(clip);
+
+        if (slot < 0) {
+            release(clip, !loop);
+            return;
+        }
+
+        Voice voice = voices[slot];
+
+        if (voice.sample != null) {
+            freeVoice(slot);
+        }
+
+        voiceSlots.assign(slot, clip);
+        voice.sample = sample;
+        voice.position = 0;
+        voice.gains[0] = left;
+        voice.gains[1] = right;
+        voice.loop = loop;
+    }
+
+    /**
+     * Stops the effect of a voice.
+     */
+    private void freeVoice (int slot) {
+
+        release(voiceSlots.getClip(slot), !voices[slot].loop);
+        voices[slot].sample = null;
+        voiceSlots.free(slot);
+    }
+
+    /**
+     * Adds a track to a free slot or, if there's none, to the slot of the
+     * oldest track, that is stopped.
+     */
+    private void addTrack (MusicStream track) {
+
+        int slot = trackSlots.chooseOldest();
+
+        if (tracks[slot] != null) {
+            removeTrack(slot);
+        }
+        tracks[slot] = track;
+        trackSlots.assign(slot, track.getClip());
+    }
+
+    /**
+     * Stops the track of a slot and closes its file.
+     */
+    private void removeTrack (int slot) {
+
+        MusicStream track = tracks[slot];
+
+        /* The tracks that are fading out were already discounted */
+        if (!track.isFadingOut()) {
+            release(track.getClip(), track.isFinite());
+        }
+
+        track.close();
+        tracks[slot] = null;
+        trackSlots.free(slot);
+    }
+
+    /**
+     * Mixes the next chunk of every active voice and track.
+     */
+    private void mixChunk () {
+
+        Arrays.fill(mix, 0);
+
+        for (int i = 0; i < MAX_VOICES; i++) {
+
+            if (voices[i].sample != null && voices[i].mixInto(mix)) {
+                freeVoice(i);
+            }
+        }
+
+        for (int i = 0; i < MAX_TRACKS; i++) {
+
+            if (tracks[i] != null) {
+
+                tracks[i].mixInto(mix);
+
+                if (tracks[i].isFinished()) {
+                    removeTrack(i);
+                }
+            }
+        }
+
+        /* Converts to 16 bits little-endian, clipping the peaks */
+        for (int i = 0, j = 0; i < mix.length; i++, j += 2) {
+
+            int value = Math.max(Short.MIN_VALUE,
+                                 Math.min(Short.MAX_VALUE, (int) mix[i]));
+
+            output[j] = (byte) value;
+            output[j + 1] = (byte) (value >> 8);
+        }
+    }
+
+    /**
+     * Opens the output line.
+     *
+     * @return
+     *              The line, or null if it isn't available.
+     */
+    private static SourceDataLine openLine () {
+
+        AudioFormat format = EffectBank.FORMAT;
+        DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
+
+        try {
+            SourceDataLine l = (SourceDataLine) AudioSystem.getLine(info);
+
+            l.open(format, CHUNK_FRAMES * format.getFrameSize() * LINE_CHUNKS);
+            l.start();
+
+            return l;
+
+        } catch (LineUnavailableException | IllegalArgumentException
+                 | SecurityException exception) {
+
+            System.out.println("The audio line is not available. See:");
+            System.out.println(exception.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * An effect being played.
+     */
+    private static class Voice {
+
+        /** Data of the effect (null if the voice is free) */
+        private EffectBank.Sample sample;
+        /** Next frame to be played */
+        private int position;
+        /** Gain of each channel (left and right) */
+        private final float[] gains = new float[CHANNELS];
+        private boolean loop;
+
+        /**
+         * Adds the next chunk of this voice to the mix.
+         *
+         * @return
+         *              <i>true</i> if the effect has finished (so the voice
+         *          must be freed).
+         */
+        private boolean mixInto (float[] mix) {
+
+            short[] data = sample.getSamples();
+            int i = 0;
+            int j = position * CHANNELS;
+
+            while (i < mix.length) {
+
+                if (j >= data.length) {
+
+                    if (!loop) {
+                        return true;
+                    }
+                    j = 0;
+                }
+
+                for (int c = 0; c < CHANNELS; c++) {
+                    mix[i++] += data[j++] * gains[c];
+                }
+            }
+            position = j / CHANNELS;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package sound;
+
+import java.util.Arrays;
+
+/**
+ * Rules to assign the voices (or the music tracks) of the
+ * {@link SoftwareMixer}, shared with the model of the
+ * {@link RecordingAudioBackend} so both follow the same ones.
+ * It only keeps which sound is on each slot and its age; the owner keeps the
+ * rest of the data of the slot on its own arrays, with the same indexes.
+ * <ul>
+ *  <li>An effect requested again on the same frame (less than
+ *      {@link #DEDUPLICATION_TIME} after the last time it was accepted) is
+ *      ignored, because both copies would sound as one, only louder (see
+ *      {@link #accept(Playlist, long)}).</li>
+ *  <li>An effect that has all its copies playing (see
+ *      {@link Playlist#getMaxVoices()}) restarts its oldest copy.</li>
+ *  <li>If there are no free slots, the oldest slot of the least important
+ *      sound is stolen, but only if it isn't more important than the new one
+ *      (see {@link Playlist.Priority}); otherwise, the new effect is
+ *      dropped.</li>
+ *  <li>The music tracks simply replace the oldest one when there are no free
+ *      slots (see {@link #chooseOldest()}).</li>
+ * </ul>
+ * {@link #accept(Playlist, long)} can be called from a different thread than
+ * the rest of the methods (the mixer deduplicates on the game thread and
+ * assigns the voices on its own thread), but each group of methods must be
+ * called from a single thread.
+ */
+final class VoiceAllocator {
+
+    /**
+     * Minimum time between two copies of the same effect, in nanoseconds (a
+     * frame, at 60 FPS).
+     */
+    static final long DEDUPLICATION_TIME = 1000000000L / 60;
+
+    /** Sound on each slot (null if it's free) */
+    private final Playlist[] clips;
+
+    /** Number of slots assigned before each one (its age) */
+    private final long[] order;
+    private long started;
+
+    /** Instant when each effect was accepted for the last time */
+    private final long[] lastStart;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Creates an allocator with all its slots free.
+     *
+     * @param slots
+     *              Number of slots.
+     * @param now
+     *              Current time, in nanoseconds (of the same clock that will
+     *          be passed to {@link #accept(Playlist, long)}).
+     */
+    VoiceAllocator (int slots, long now) {
+
+        clips = new Playlist[slots];
+        order = new long[slots];
+        started = 0;
+
+        lastStart = new long[Playlist.values().length];
+        Arrays.fill(lastStart, now - DEDUPLICATION_TIME);
+    }
+
+    /**
+     * Checks if an effect hasn't been requested on the same frame, and, if
+     * so, remembers the time of this request.
+     *
+     * @param clip
+     *              The sound identifier.
+     * @param now
+     *              Current time, in nanoseconds.
+     *
+     * @return
+     *              <i>false</i> if the effect must be ignored.
+     */
+    boolean accept (Playlist clip, long now) {
+
+        if (now - lastStart[clip.ordinal()] < DEDUPLICATION_TIME) {
+            return false;
+        }
+        lastStart[clip.ordinal()] = now;
+
+        return true;
+    }
+
+    /**
+     * Chooses the slot where a new effect will be played.
+     *
+     * @param clip
+     *              The sound identifier.
+     *
+     * @return
+     *              The oldest copy of the effect, if it can't have more copies;
+     *          a free slot or the slot that will be stolen, otherwise. It's -1
+     *          if the effect must be dropped.
+     */
+    int choose (Playlist clip) {
+
+        int oldestCopy = -1;
+        int free = -1;
+        int victim = -1;
+        int copies = 0;
+
+        for (int i = 0; i < clips.length; i++) {
+
+            if (clips[i] == null) {
+
+                if (free < 0) {
+                    free = i;
+                }
+            } else if (clips[i] == clip) {
+
+                copies++;
+                if (oldestCopy < 0 || order[i] < order[oldestCopy]) {
+                    oldestCopy = i;
+                }
+            } else if (victim < 0 || isWorseVictim(i, victim)) {
+
+                victim = i;
+            }
+        }
+
+        if (copies >= clip.getMaxVoices()) {
+            return oldestCopy;
+        }
+        if (free >= 0) {
+            return free;
+        }
+        if (victim >= 0
+            && clips[victim].getPriority().compareTo(clip.getPriority()) >= 0) {
+            return victim;
+        }
+        return -1;
+    }
+
+    /**
+     * Chooses a free slot or, if there's none, the oldest one.
+     *
+     * @return
+     *              The index of the slot.
+     */
+    int chooseOldest () {
+
+        int slot = 0;
+
+        for (int i = 0; i < clips.length; i++) {
+
+            if (clips[i] == null) {
+                return i;
+            }
+            if (order[i] < order[slot]) {
+                slot = i;
+            }
+        }
+
+        return slot;
+    }
+
+    /**
+     * Puts a sound on a slot, as the newest one.
+     */
+    void assign (int slot, Playlist clip) {
+
+        clips[slot] = clip;
+        order[slot] = started++;
+    }
+
+    /**
+     * Frees a slot.
+     */
+    void free (int slot) {
+
+        clips[slot] = null;
+    }
+
+    /**
+     * Returns the sound of a slot, or null if it's free.
+     */
+    Playlist getClip (int slot) {
+
+        return clips[slot];
+    }
+
+    /**
+     * Returns the number of slots.
+     */
+    int size () {
+
+        return clips.length;
+    }
+
+    /**
+     * Returns the number of slots that are being used.
+     */
+    int used () {
+
+        int count = 0;
+
+        for (Playlist p : clips) {
+
+            if (p != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns <i>true</i> if the first slot should be stolen before the
+     * second one: it's less important or, with the same importance, older.
+     */
+    private boolean isWorseVictim (int slot, int victim) {
+
+        int comparison = clips[slot].getPriority().compareTo(
+                                                clips[victim].getPriority());
+
+        return (comparison > 0)
+               || (comparison == 0 && order[slot] < order[victim]);
+    }
+}
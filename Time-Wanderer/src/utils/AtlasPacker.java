@@ -0,0 +1,221 @@
+package utils;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+/**
+ * Build step that packs the sprites of the game into a few texture atlases.
+ * The images of each directory on {@link #DIRECTORIES} are packed together on
+ * one (or, if they don't fit, more) big images, called pages, and an index is
+ * written with the position of each sprite on its page. At runtime,
+ * {@link AtlasRegistry} reads that index and returns the sprites as parts of
+ * the pages, so all the sprites of a page share a single texture.
+ * It's executed by the build script after the compilation; if the atlases
+ * aren't generated, the game loads every image from its own file.
+ *
+ * Usage: AtlasPacker &lt;source directory&gt; &lt;output directory&gt;
+ */
+public class AtlasPacker {
+
+    /**
+     * Directories (relative to the source directory) whose images are packed.
+     * Each one gets its own pages, so the images that are used together end up
+     * on the same texture.
+     */
+    public static final String[] DIRECTORIES = {
+        "resources/character",
+        "resources/items",
+        "resources/ui/minimap",
+        "resources/ui/pifaceimages",
+        "resources/ui/inventory",
+        "resources/ui/menuimages"
+    };
+
+    /**
+     * Name of the index file, on the output directory.
+     */
+    public static final String INDEX_NAME = "atlas.index";
+
+    /** Maximum width and height of a page */
+    private static final int MAX_SIZE = 2048;
+    /** Minimum width and height of a page */
+    private static final int MIN_SIZE = 64;
+    /** Empty pixels around each sprite, so they don't bleed into each other */
+    private static final int PADDING = 2;
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    public static void main (String[] args) throws IOException {
+
+        if (args.length != 2) {
+            System.err.println("Usage: AtlasPacker <source directory> "
+                             + "<output directory>");
+            System.exit(1);
+        }
+
+        File source = new File(args[0]);
+        File output = new File(args[1]);
+
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("Unable to create " + output);
+        }
+
+        try (PrintWriter index = new PrintWriter(new File(output, INDEX_NAME),
+                                                 "UTF-8")) {
+
+            for (String directory : DIRECTORIES) {
+                packDirectory(source, directory, output, index);
+            }
+        }
+    }
+
+    /**
+     * Packs all the images of a directory and adds them to the index.
+     */
+    private static void packDirectory (File source, String directory,
+                                       File output, PrintWriter index)
+                                throws IOException {
+
+        File[] files = new File(source, directory).listFiles(
+                            (dir, name) -> name.endsWith(".png"));
+
+        if (files == null) {
+            System.err.println("AtlasPacker: " + directory + " not found");
+            return;
+        }
+        Arrays.sort(files);
+
+        List<Sprite> remaining = new ArrayList<>();
+
+        for (File file : files) {
+
+            BufferedImage image = ImageIO.read(file);
+
+            if (image == null) {
+                System.err.println("AtlasPacker: unable to read " + file);
+            } else if (image.getWidth() + 2 * PADDING > MAX_SIZE
+                        || image.getHeight() + 2 * PADDING > MAX_SIZE) {
+                /* Too big to be packed; it'll be loaded on its own */
+                System.err.println("AtlasPacker: " + file + " is too big");
+            } else {
+                remaining.add(new Sprite(directory + "/" + file.getName(),
+                                         image));
+            }
+        }
+
+        /* The tallest sprites first, so the shelves waste less space */
+        remaining.sort((a, b) -> b.image.getHeight() - a.image.getHeight());
+
+        String baseName = directory.substring(directory.lastIndexOf('/') + 1);
+        int pageNumber = 0;
+
+        while (!remaining.isEmpty()) {
+
+            int size = MIN_SIZE;
+            List<Sprite> placed = place(remaining, size);
+
+            /* Uses the smallest page where all the sprites fit */
+            while (placed.size() < remaining.size() && size < MAX_SIZE) {
+                size *= 2;
+                placed = place(remaining, size);
+            }
+
+            String pageName = baseName + "-" + pageNumber++ + ".png";
+
+            writePage(placed, size, new File(output, pageName));
+
+            index.println("page\t" + pageName);
+            for (Sprite s : placed) {
+                index.println(s.name + "\t" + s.x + "\t" + s.y + "\t"
+                            + s.image.getWidth() + "\t" + s.image.getHeight());
+            }
+            remaining.removeAll(placed);
+        }
+    }
+
+    /**
+     * Places the sprites in rows (shelves) on a square page.
+     *
+     * @return
+     *              The sprites that fit on the page (with their positions set).
+     */
+    private static List<Sprite> place (List<Sprite> sprites, int size) {
+
+        List<Sprite> placed = new ArrayList<>();
+        int x = PADDING;
+        int y = PADDING;
+        int rowHeight = 0;
+
+        for (Sprite s : sprites) {
+
+            int width = s.image.getWidth();
+            int height = s.image.getHeight();
+
+            if (x + width + PADDING > size) {
+                /* Next row */
+                x = PADDING;
+                y += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+
+            if (x + width + PADDING > size || y + height + PADDING > size) {
+                continue;
+            }
+
+            s.x = x;
+            s.y = y;
+            placed.add(s);
+
+            x += width + PADDING;
+            rowHeight = Math.max(rowHeight, height);
+        }
+        return placed;
+    }
+
+    /**
+     * Draws the sprites on a new page and saves it.
+     */
+    private static void writePage (List<Sprite> sprites, int size, File file)
+                            throws IOException {
+
+        BufferedImage page = new BufferedImage(size, size,
+                                               BufferedImage.TYPE_INT_ARGB);
+
+        for (Sprite s : sprites) {
+
+            int width = s.image.getWidth();
+            int height = s.image.getHeight();
+
+            page.setRGB(s.x, s.y, width, height,
+                        s.image.getRGB(0, 0, width, height, null, 0, width),
+                        0, width);
+        }
+
+        ImageIO.write(page, "png", file);
+    }
+
+    /**
+     * Image to be packed.
+     */
+    private static class Sprite {
+
+        private final String name;
+        private final BufferedImage image;
+        private int x;
+        private int y;
+
+        private Sprite (String name, BufferedImage image) {
+
+            this.name = name;
+            this.image = image;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.util.ResourceLoader;
+
+/**
+ * Loads the images of the game from the texture atlases generated by
+ * {@link AtlasPacker}.
+ * The images are requested with the same path as their original file, and are
+ * returned as a part of the page of the atlas where they were packed, so every
+ * image of a page shares the same texture (and each page is read only once).
+ * The images that aren't on any atlas (or all of them, if the atlases haven't
+ * been generated) are loaded from their own file, as before.
+ * Since the images of a page share their texture, changing the filter of one
+ * of them changes it for the whole page.
+ */
+public class AtlasRegistry {
+
+    /**
+     * Directory with the pages and the index of the atlases.
+     */
+    private static final String ATLAS_DIR = "resources/atlas/";
+
+    /**
+     * Position of each packed image, by its original path (null until the
+     * index is read).
+     */
+    private static Map<String, Region> regions = null;
+
+    /**
+     * Pages that have already been loaded, by name.
+     */
+    private static final Map<String, Image> PAGES = new HashMap<>();
+
+/* -------------------------------------- */
+/* ---- END OF ATTRIBUTES DECLARATION --- */
+/* -------------------------------------- */
+
+    /**
+     * Returns the image with the given path, from an atlas if it was packed
+     * into one.
+     *
+     * @param path
+     *              Path of the original image (for example,
+     *          "resources/items/Arrow.png" or "./src/resources/items/Arrow.png").
+     *
+     * @return
+     *              The requested image. It shouldn't be destroyed, because its
+     *          texture is shared.
+     *
+     * @throws SlickException
+     *              If the image couldn't be loaded.
+     */
+    public static synchronized Image getImage (String path)
+                                        throws SlickException {
+
+        Region region = getRegions().get(normalize(path));
+
+        if (region == null) {
+            return new Image(path);
+        }
+
+        Image page = PAGES.get(region.page);
+
+        if (page == null) {
+            page = new Image(ATLAS_DIR + region.page);
+            PAGES.put(region.page, page);
+        }
+
+        return page.getSubImage(region.x, region.y, region.width,
+                                region.height);
+    }
+
+    /**
+     * Returns the path of an image relative to the source directory, as it's
+     * written on the index.
+     */
+    private static String normalize (String path) {
+
+        String normalized = path.replace('\\', '/');
+
+        if (normalized.startsWith("./")) {
+            normalized = normalized.substring(2);
+        }
+        if (normalized.startsWith("src/")) {
+            normalized = normalized.substring(4);
+        }
+        return normalized;
+    }
+
+    /**
+     * Returns the regions of the index, reading it if it's the first call.
+     */
+    private static Map<String, Region> getRegions () {
+
+        if (regions != null) {
+            return regions;
+        }
+
+        regions = new HashMap<>();
+
+        String indexPath = ATLAS_DIR + AtlasPacker.INDEX_NAME;
+
+        if (!ResourceLoader.resourceExists(indexPath)) {
+            return regions;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                ResourceLoader.getResourceAsStream(indexPath), "UTF-8"))) {
+
+            String page = null;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+
+                String[] fields = line.split("\t");
+
+                if (fields.length == 2 && fields[0].equals("page")) {
+                    page = fields[1];
+                } else if (fields.length == 5 && page != null) {
+                    regions.put(fields[0], new Region(page,
+                                                Integer.parseInt(fields[1]),
+                                                Integer.parseInt(fields[2]),
+                                                Integer.parseInt(fields[3]),
+                                                Integer.parseInt(fields[4])));
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            System.out.println("Unable to read the atlas index: " + ex);
+            regions.clear();
+        }
+
+        return regions;
+    }
+
+    /**
+     * Position of an image on a page.
+     */
+    private static class Region {
+
+        private final String page;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        private Region (String page, int x, int y, int width, int height) {
+
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}